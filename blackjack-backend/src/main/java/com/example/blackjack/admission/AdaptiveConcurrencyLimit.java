@@ -0,0 +1,130 @@
+package com.example.blackjack.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Giới hạn số request xử lý đồng thời, tự điều chỉnh theo độ trễ đo được (AIMD theo từng cửa sổ thời gian).
+ * <p>
+ * Độ trễ được cộng dồn theo từng loại request, vì các endpoint có độ trễ bình thường rất khác nhau (/hint so với
+ * /stand). Hết mỗi cửa sổ, luồng đầu tiên vượt qua mốc thời gian so độ trễ trung bình của mỗi loại với mức nền
+ * (trung bình tốt nhất gần đây của loại đó): loại nào chậm hơn {@code tolerance} lần thì giới hạn giảm theo tỉ lệ;
+ * nếu không và giới hạn thực sự được dùng đến thì giới hạn tăng thêm. Mức nền trôi lên chậm để theo kịp khi máy
+ * chậm đi vĩnh viễn, nhưng chậm hơn nhiều so với tốc độ giảm giới hạn khi quá tải.
+ * <p>
+ * Đường request chỉ dùng CAS trên bộ đếm đang xử lý và {@link LongAdder}, không khóa.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    // Cần đủ mẫu trong cửa sổ thì trung bình của một loại mới có nghĩa
+    private static final long MIN_SAMPLES = 10;
+    private static final double BACKOFF = 0.9;
+    // Mức nền tăng 1% mỗi cửa sổ (gấp đôi sau khoảng 70 cửa sổ) nếu không có cửa sổ nào nhanh hơn
+    private static final double BASELINE_DRIFT = 1.01;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private volatile int limit;
+
+    private final LongAdder[] latencySums;
+    private final LongAdder[] samples;
+    // Chỉ luồng đang chốt cửa sổ ghi, 0 là chưa có mức nền
+    private final double[] baselines;
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+    private final AtomicLong windowStart;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, Duration window,
+                             int latencyClasses) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || tolerance <= 1 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Invalid concurrency limit " + minLimit + ".." + initialLimit + ".."
+                    + maxLimit + ", tolerance " + tolerance);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        this.limit = initialLimit;
+        latencySums = new LongAdder[latencyClasses];
+        samples = new LongAdder[latencyClasses];
+        for (int i = 0; i < latencyClasses; i++) {
+            latencySums[i] = new LongAdder();
+            samples[i] = new LongAdder();
+        }
+        baselines = new double[latencyClasses];
+        windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Nhận một request nếu số đang xử lý còn dưới {@code share} phần giới hạn (request ít ưu tiên hơn chỉ được dùng
+     * một phần, phần còn lại để dành cho request ưu tiên). Mỗi lần trả về true phải đi kèm một lần {@link #release}.
+     */
+    boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulate(current + 1);
+                return true;
+            }
+        }
+    }
+
+    // latencyClass âm: không dùng mẫu này để điều chỉnh giới hạn
+    void release(int latencyClass, long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyClass >= 0) {
+            latencySums[latencyClass].add(latencyNanos);
+            samples[latencyClass].increment();
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    // Chốt cửa sổ hiện tại
+    void adjust() {
+        long peak = peakInFlight.getThenReset();
+        boolean slow = false;
+        for (int i = 0; i < baselines.length; i++) {
+            long count = samples[i].sumThenReset();
+            long sum = latencySums[i].sumThenReset();
+            if (count < MIN_SAMPLES) {
+                continue;
+            }
+            double mean = (double) sum / count;
+            double baseline = baselines[i];
+            if (baseline == 0 || mean < baseline) {
+                baselines[i] = mean;
+            } else {
+                slow |= mean > baseline * tolerance;
+                baselines[i] = Math.min(mean, baseline * BASELINE_DRIFT);
+            }
+        }
+        int current = limit;
+        if (slow) {
+            limit = Math.max(minLimit, (int) (current * BACKOFF));
+        } else if (peak * 2 >= current) {
+            limit = Math.min(maxLimit, current + Math.max(1, (int) Math.sqrt(current)));
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
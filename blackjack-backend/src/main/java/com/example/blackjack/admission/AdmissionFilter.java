@@ -0,0 +1,227 @@
+package com.example.blackjack.admission;
+
+import com.example.blackjack.session.GameSlots;
+import com.example.blackjack.session.GameStateTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kiểm soát tải cho {@code /api/game/**}: request bị từ chối ngay bằng 429 kèm {@code Retry-After} trước khi
+ * chạm đến khóa phiên, kho game và serialization, thay vì xếp hàng làm chậm mọi người.
+ * <ul>
+ * <li>Giới hạn tốc độ theo phiên ({@link SessionRateLimiter}): theo phiên còn hiệu lực, theo người chơi ký trong
+ * token trạng thái (chế độ token), còn lại theo địa chỉ client. Cookie phiên hay token tự đặt không có giá trị nên
+ * không dùng để lách hạn mức.</li>
+ * <li>Giới hạn số request đồng thời toàn server, tự điều chỉnh theo độ trễ ({@link AdaptiveConcurrencyLimit}).
+ * Hành động giữa ván (hit, stand, double, split, đầu hàng, bảo hiểm, đọc trạng thái) được dùng toàn bộ giới hạn; ván mới
+ * (/bet) và /hint chỉ được dùng phần còn lại sau {@code round-reserve}, nên khi quá tải các ván đang chơi vẫn
+ * kết thúc và thanh toán được trong khi ván mới bị từ chối trước.</li>
+ * </ul>
+ * Long-poll {@code /state/poll} chỉ bị giới hạn tốc độ: nó giữ request rất lâu mà hầu như không tốn tài nguyên.
+ */
+@Slf4j
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/api/game";
+
+    enum Route {
+        BET("/bet", false),
+        HINT("/hint", false),
+        STATE("/state", true),
+        INSURANCE("/insurance", true),
+        HIT("/hit", true),
+        STAND("/stand", true),
+        DOUBLE("/double", true),
+        SPLIT("/split", true),
+        SURRENDER("/surrender", true),
+        POLL("/state/poll", true),
+        OTHER("", false);
+
+        private static final Route[] VALUES = values();
+
+        final String path;
+        // true: request của một ván đang chơi, được ưu tiên so với ván mới
+        final boolean inRound;
+
+        Route(String path, boolean inRound) {
+            this.path = path;
+            this.inRound = inRound;
+        }
+
+        static Route of(String path) {
+            if (path.startsWith(PREFIX)) {
+                String action = path.substring(PREFIX.length());
+                for (Route route : VALUES) {
+                    if (route.path.equals(action)) {
+                        return route;
+                    }
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    private enum Reason {
+        RATE,
+        CONCURRENCY
+    }
+
+    private final boolean enabled;
+    private final GameSlots.Mode mode;
+    private final GameStateTokens gameStateTokens;
+    private final double newRoundShare;
+    private final SessionRateLimiter rateLimiter;
+    private final ScheduledExecutorService sweeper;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Counter[][] rejected;
+
+    public AdmissionFilter(
+            @Value("${blackjack.admission.enabled:true}") boolean enabled,
+            @Value("${blackjack.admission.session-rate:20}") double sessionRate,
+            @Value("${blackjack.admission.session-burst:40}") int sessionBurst,
+            @Value("${blackjack.admission.max-sessions:1000000}") int maxSessions,
+            @Value("${blackjack.admission.initial-limit:256}") int initialLimit,
+            @Value("${blackjack.admission.min-limit:16}") int minLimit,
+            @Value("${blackjack.admission.max-limit:4096}") int maxLimit,
+            @Value("${blackjack.admission.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${blackjack.admission.window:100ms}") Duration window,
+            @Value("${blackjack.admission.round-reserve:0.2}") double roundReserve,
+            @Value("${blackjack.state.mode:session}") GameSlots.Mode mode,
+            GameStateTokens gameStateTokens,
+            MeterRegistry meterRegistry) {
+        if (roundReserve < 0 || roundReserve >= 1) {
+            throw new IllegalArgumentException("Invalid round reserve " + roundReserve);
+        }
+        this.enabled = enabled;
+        this.mode = mode;
+        this.gameStateTokens = gameStateTokens;
+        this.newRoundShare = 1 - roundReserve;
+        this.rateLimiter = new SessionRateLimiter(sessionRate, sessionBurst, maxSessions);
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTolerance,
+                window, Route.VALUES.length);
+
+        Route[] routes = Route.VALUES;
+        Reason[] reasons = Reason.values();
+        rejected = new Counter[routes.length][reasons.length];
+        for (Route route : routes) {
+            for (Reason reason : reasons) {
+                rejected[route.ordinal()][reason.ordinal()] = Counter.builder("blackjack.admission.rejected")
+                        .description("Số request bị từ chối bằng 429")
+                        .tag("route", route.name())
+                        .tag("reason", reason.name())
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("blackjack.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .register(meterRegistry);
+        Gauge.builder("blackjack.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("blackjack.admission.sessions", rateLimiter, SessionRateLimiter::size)
+                .description("Số phiên đang có bucket giới hạn tốc độ")
+                .register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("admission-sweep").factory());
+        sweeper.scheduleWithFixedDelay(this::evictQuietly, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // Preflight CORS không tính vào hạn mức
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !path(request).startsWith(PREFIX + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        Route route = Route.of(path(request));
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            reject(response, route, Reason.RATE, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+            return;
+        }
+        if (route == Route.POLL) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire(route.inRound ? 1 : newRoundShare)) {
+            reject(response, route, Reason.CONCURRENCY, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release(route.ordinal(), System.nanoTime() - start);
+        }
+    }
+
+    // Không tạo phiên mới chỉ để giới hạn tốc độ. Chỉ kiểm chữ ký token, dấu phiên bản do slot kiểm sau
+    String clientKey(HttpServletRequest request) {
+        String sessionId = request.getRequestedSessionId();
+        if (sessionId != null && request.isRequestedSessionIdValid()) {
+            return sessionId;
+        }
+        if (mode == GameSlots.Mode.TOKEN) {
+            String token = request.getHeader(GameStateTokens.HEADER);
+            long playerId = token != null ? gameStateTokens.playerId(token) : -1;
+            if (playerId >= 0) {
+                return "player:" + playerId;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Route route, Reason reason, long retryAfterSeconds)
+            throws IOException {
+        rejected[route.ordinal()][reason.ordinal()].increment();
+        log.debug("Rejected {} request: {}", route, reason);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(reason == Reason.RATE
+                ? "{\"message\":\"Too many requests for this session\"}"
+                : "{\"message\":\"Server is busy, try again later\"}");
+    }
+
+    private void evictQuietly() {
+        try {
+            rateLimiter.evictIdle();
+        } catch (RuntimeException e) {
+            log.error("Could not evict idle rate limit buckets", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
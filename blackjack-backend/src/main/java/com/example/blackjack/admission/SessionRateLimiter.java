@@ -0,0 +1,98 @@
+package com.example.blackjack.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Giới hạn tốc độ theo phiên kiểu token bucket, viết dưới dạng GCRA: mỗi bucket chỉ là một số long (thời điểm
+ * "đến hạn" lý thuyết của request tiếp theo), cập nhật bằng CAS nên không khóa.
+ * <p>
+ * Mỗi khóa phiên có bucket riêng, nên phiên này không bao giờ bị từ chối vì request của phiên khác. Bucket đã đầy
+ * lại (hạn đã qua) không khác gì bucket mới, nên {@link #evictIdle} bỏ được nó mà không đổi kết quả của request nào;
+ * dọn mỗi giây thì bảng chỉ chứa các phiên có request trong vài giây gần nhất (burst / rate). Số bucket không vượt
+ * quá {@code maxSessions}: khi bảng đầy, phiên chưa có bucket được cho qua không giới hạn (giới hạn đồng thời của
+ * {@link AdmissionFilter} vẫn áp dụng) thay vì bị từ chối nhầm.
+ */
+final class SessionRateLimiter {
+
+    // Bucket đã bị dọn khỏi bảng; request đang giữ nó phải lấy bucket mới
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    // Thời điểm tính từ lúc tạo, để 0 nghĩa là bucket mới (đầy token)
+    private final long origin = System.nanoTime() - 1;
+    private final Map<String, AtomicLong> dueAt = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    // Khoảng cách giữa hai token, và lượng request được đi trước hạn (burst - 1 token)
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    SessionRateLimiter(double ratePerSecond, int burst, int maxSessions) {
+        if (ratePerSecond <= 0 || burst < 1 || maxSessions < 1) {
+            throw new IllegalArgumentException("Invalid rate limit " + ratePerSecond + "/s, burst " + burst
+                    + ", max sessions " + maxSessions);
+        }
+        this.maxSessions = maxSessions;
+        intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * Lấy một token cho phiên. Trả về 0 nếu được phép, ngược lại là số nano giây phải chờ đến khi có token
+     * (dùng cho Retry-After).
+     */
+    long tryAcquire(String key) {
+        return tryAcquire(key, now());
+    }
+
+    long tryAcquire(String key, long now) {
+        while (true) {
+            AtomicLong bucket = dueAt.get(key);
+            if (bucket == null) {
+                if (dueAt.size() >= maxSessions) {
+                    return 0;
+                }
+                bucket = dueAt.computeIfAbsent(key, k -> new AtomicLong());
+            }
+            long due = bucket.get();
+            if (due == REMOVED) {
+                dueAt.remove(key, bucket);
+                continue;
+            }
+            long start = Math.max(due, now);
+            if (start - now > toleranceNanos) {
+                return start - now - toleranceNanos;
+            }
+            if (bucket.compareAndSet(due, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Bỏ các bucket đã đầy lại tính đến thời điểm now; trả về số bucket bị bỏ
+    int evictIdle(long now) {
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : dueAt.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long due = bucket.get();
+            if (due != REMOVED && due <= now && bucket.compareAndSet(due, REMOVED)) {
+                dueAt.remove(entry.getKey(), bucket);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int evictIdle() {
+        return evictIdle(now());
+    }
+
+    int size() {
+        return dueAt.size();
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.blackjack.advisor;
+
+import com.example.blackjack.cache.BoundedLruCache;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.RuleBook;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.example.blackjack.model.ShoeComposition.*;
+import static com.example.blackjack.service.BlackjackRules.DEALER_STAND_VALUE;
+
+/**
+ * Phân phối chính xác kết quả cuối của nhà cái (17..21, quắc, Blackjack) theo lá ngửa và thành phần shoe,
+ * theo đúng luật rút bài (S17/H17) của bộ luật của ván một người chơi. Shoe ở đây là các lá chưa lộ, gồm cả lá úp của nhà cái;
+ * với ván đang chơi lấy từ {@code Deck.composition()} mà không phải quét lại shoe.
+ * <p>
+ * Kết quả được nhớ trong cache LRU dùng chung, mỗi phần tử là một "bucket" theo thành phần shoe chứa
+ * phân phối của từng lá ngửa (điền dần khi được hỏi). Mảng trả về dùng chung, không được sửa.
+ */
+@Component
+public class DealerOutcomeEngine {
+
+    // Chỉ số kết quả: 0..4 là 17..21, 5 là quắc, 6 là Blackjack
+    public static final int BUST = 5;
+    public static final int BLACKJACK = 6;
+    public static final int OUTCOMES = 7;
+
+    private static final double[][] FINAL = new double[OUTCOMES][OUTCOMES];
+
+    static {
+        for (int i = 0; i < OUTCOMES; i++) {
+            FINAL[i][i] = 1.0;
+        }
+    }
+
+    // Mỗi bucket: [lá ngửa] là phân phối đầy đủ, [CLASSES + lá ngửa] là phân phối khi biết nhà cái không có Blackjack
+    private final BoundedLruCache<Long, AtomicReferenceArray<double[]>> buckets;
+    private final BlackjackRules rules;
+
+    public DealerOutcomeEngine(int cacheEntries) {
+        this(cacheEntries, BlackjackRules.STANDARD);
+    }
+
+    public DealerOutcomeEngine(int cacheEntries, BlackjackRules rules) {
+        this.buckets = new BoundedLruCache<>(cacheEntries, 16);
+        this.rules = rules;
+    }
+
+    @Autowired
+    public DealerOutcomeEngine(@Value("${blackjack.dealer-outcomes.cache-entries:50000}") int cacheEntries,
+                               RuleBook ruleBook) {
+        this(cacheEntries, ruleBook.game());
+    }
+
+    public BlackjackRules rules() {
+        return rules;
+    }
+
+    public double[] outcomes(Rank upcard, long shoe) {
+        return outcomes(classOf(upcard), shoe);
+    }
+
+    public double[] outcomes(int upcard, long shoe) {
+        AtomicReferenceArray<double[]> bucket = bucket(shoe);
+        double[] result = bucket.get(upcard);
+        if (result == null) {
+            result = compute(upcard, shoe);
+            bucket.set(upcard, result);
+        }
+        return result;
+    }
+
+    /**
+     * Phân phối khi đã biết nhà cái không có Blackjack (luật kiểm tra Blackjack ngay khi chia),
+     * tức là lúc người chơi ra quyết định. Phần tử {@link #BLACKJACK} luôn bằng 0.
+     */
+    public double[] outcomesWithoutBlackjack(int upcard, long shoe) {
+        AtomicReferenceArray<double[]> bucket = bucket(shoe);
+        double[] result = bucket.get(CLASSES + upcard);
+        if (result == null) {
+            double[] all = outcomes(upcard, shoe);
+            double noBlackjack = 1.0 - all[BLACKJACK];
+            result = new double[OUTCOMES];
+            for (int i = 0; i < BLACKJACK; i++) {
+                result[i] = all[i] / noBlackjack;
+            }
+            bucket.set(CLASSES + upcard, result);
+        }
+        return result;
+    }
+
+    // Chỉ tạo bucket rỗng trong khóa của cache; phần tính toán chạy ngoài khóa (hai luồng có thể cùng tính, kết quả như nhau)
+    private AtomicReferenceArray<double[]> bucket(long shoe) {
+        return buckets.getOrLoad(shoe, key -> new AtomicReferenceArray<>(2 * CLASSES));
+    }
+
+    private double[] compute(int upcard, long shoe) {
+        int cards = total(shoe);
+        Map<Long, double[]> memo = new HashMap<>();
+        double[] result = new double[OUTCOMES];
+        for (int hole = 0; hole < CLASSES; hole++) {
+            int count = count(shoe, hole);
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / cards;
+            double[] outcome = (upcard == ACE && hole == TEN) || (upcard == TEN && hole == ACE)
+                    ? FINAL[BLACKJACK]
+                    : draw(hardValue(upcard) + hardValue(hole), upcard == ACE || hole == ACE, remove(shoe, hole), memo);
+            for (int i = 0; i < OUTCOMES; i++) {
+                result[i] += p * outcome[i];
+            }
+        }
+        return result;
+    }
+
+    // Với lá ngửa cố định, shoe còn lại xác định duy nhất các lá nhà cái đã rút nên dùng làm khóa memo
+    private double[] draw(int hard, boolean hasAce, long shoe, Map<Long, double[]> memo) {
+        boolean soft = hasAce && hard + 10 <= 21;
+        int value = soft ? hard + 10 : hard;
+        if (value > 21) {
+            return FINAL[BUST];
+        }
+        if (!rules.dealerMustHit(value, soft)) {
+            return FINAL[value - DEALER_STAND_VALUE];
+        }
+        double[] cached = memo.get(shoe);
+        if (cached != null) {
+            return cached;
+        }
+
+        int cards = total(shoe);
+        double[] result = new double[OUTCOMES];
+        for (int cls = 0; cls < CLASSES; cls++) {
+            int count = count(shoe, cls);
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / cards;
+            double[] outcome = draw(hard + hardValue(cls), hasAce || cls == ACE, remove(shoe, cls), memo);
+            for (int i = 0; i < OUTCOMES; i++) {
+                result[i] += p * outcome[i];
+            }
+        }
+        memo.put(shoe, result);
+        return result;
+    }
+}
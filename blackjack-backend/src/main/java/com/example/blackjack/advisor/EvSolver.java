@@ -0,0 +1,173 @@
+package com.example.blackjack.advisor;
+
+import com.example.blackjack.cache.BoundedLruCache;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.service.BlackjackRules;
+
+import static com.example.blackjack.advisor.DealerOutcomeEngine.BUST;
+import static com.example.blackjack.model.ShoeComposition.*;
+import static com.example.blackjack.service.BlackjackRules.DEALER_STAND_VALUE;
+
+/**
+ * Tính chính xác kỳ vọng (EV, theo đơn vị cược) của từng hành động trên đúng thành phần shoe còn lại,
+ * theo bộ luật của {@link DealerOutcomeEngine} (S17/H17, gấp đôi sau khi tách, tách Át), và lúc người chơi ra quyết định thì
+ * nhà cái chắc chắn không có Blackjack (đã được kiểm tra ngay khi chia bài).
+ * <p>
+ * Phân phối kết quả của nhà cái lấy từ {@link DealerOutcomeEngine}; EV khi dừng/rút được nhớ trong cache
+ * dùng chung giữa các phiên theo (điểm, mềm, lá ngửa, shoe). Mỗi lần tính nhận một
+ * {@link Budget}; hết thời gian thì dừng bằng {@link BudgetExceededException}, các kết quả con đã tính
+ * vẫn ở lại trong cache cho lần hỏi sau.
+ */
+public class EvSolver {
+
+    // kind: 0 = dừng, 1 = rút rồi chơi tiếp tối ưu (chỉ rút/dừng)
+    private record EvKey(long shoe, int upcard, int total, boolean soft, int kind) {
+    }
+
+    private final DealerOutcomeEngine dealerOutcomes;
+    private final BlackjackRules rules;
+    private final BoundedLruCache<EvKey, Double> evCache;
+
+    public EvSolver(DealerOutcomeEngine dealerOutcomes, int evCacheEntries) {
+        this.dealerOutcomes = dealerOutcomes;
+        this.rules = dealerOutcomes.rules();
+        this.evCache = new BoundedLruCache<>(evCacheEntries, 16);
+    }
+
+    /** EV khi dừng ở {@code total}; {@code shoe} là các lá người chơi chưa thấy (gồm cả lá úp của nhà cái). */
+    public double stand(int total, int upcard, long shoe, Budget budget) {
+        EvKey key = new EvKey(shoe, upcard, total, false, 0);
+        Double cached = evCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        budget.check();
+        double[] dealer = dealerOutcomes.outcomesWithoutBlackjack(upcard, shoe);
+        double ev = dealer[BUST];
+        for (int i = 0; i < BUST; i++) {
+            int dealerTotal = DEALER_STAND_VALUE + i;
+            if (total > dealerTotal) {
+                ev += dealer[i];
+            } else if (total < dealerTotal) {
+                ev -= dealer[i];
+            }
+        }
+        evCache.put(key, ev);
+        return ev;
+    }
+
+    /** EV khi rút một lá rồi tiếp tục chơi tối ưu (rút hoặc dừng). */
+    public double hit(int total, boolean soft, int upcard, long shoe, Budget budget) {
+        EvKey key = new EvKey(shoe, upcard, total, soft, 1);
+        Double cached = evCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int hard = soft ? total - 10 : total;
+        int cards = total(shoe);
+        double ev = 0;
+        for (int cls = 0; cls < CLASSES; cls++) {
+            int count = count(shoe, cls);
+            if (count == 0) {
+                continue;
+            }
+            budget.check();
+            double p = (double) count / cards;
+            int newHard = hard + hardValue(cls);
+            if (newHard > 21) {
+                ev -= p;
+                continue;
+            }
+            boolean hasAce = soft || cls == ACE;
+            boolean newSoft = hasAce && newHard + 10 <= 21;
+            int newTotal = newSoft ? newHard + 10 : newHard;
+            long rest = remove(shoe, cls);
+            double best = stand(newTotal, upcard, rest, budget);
+            if (newTotal < 21) {
+                best = Math.max(best, hit(newTotal, newSoft, upcard, rest, budget));
+            }
+            ev += p * best;
+        }
+        evCache.put(key, ev);
+        return ev;
+    }
+
+    /** EV khi cược gấp đôi: nhận đúng một lá, tiền cược gấp đôi. */
+    public double doubleDown(int total, boolean soft, int upcard, long shoe, Budget budget) {
+        int hard = soft ? total - 10 : total;
+        int cards = total(shoe);
+        double ev = 0;
+        for (int cls = 0; cls < CLASSES; cls++) {
+            int count = count(shoe, cls);
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / cards;
+            int newHard = hard + hardValue(cls);
+            if (newHard > 21) {
+                ev -= 2 * p;
+                continue;
+            }
+            boolean newSoft = (soft || cls == ACE) && newHard + 10 <= 21;
+            ev += 2 * p * stand(newSoft ? newHard + 10 : newHard, upcard, remove(shoe, cls), budget);
+        }
+        return ev;
+    }
+
+    /**
+     * EV khi tách đôi {@code pairClass}, xấp xỉ bằng hai lần EV của một tay bắt đầu từ một lá của đôi:
+     * bỏ qua tách lại và ảnh hưởng qua lại giữa hai tay. Hành động được phép trên tay đã tách (gấp đôi, rút
+     * tiếp sau khi tách Át) lấy từ bảng hành động của bộ luật.
+     */
+    public double split(int pairClass, int upcard, long shoe, Budget budget) {
+        int actions = rules.playerTurnActions(2, false, true, 2, pairClass == ACE);
+        boolean canHit = PlayerAction.HIT.in(actions);
+        boolean canDouble = PlayerAction.DOUBLE_DOWN.in(actions);
+        int cards = total(shoe);
+        double ev = 0;
+        for (int cls = 0; cls < CLASSES; cls++) {
+            int count = count(shoe, cls);
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / cards;
+            int hard = hardValue(pairClass) + hardValue(cls);
+            boolean soft = (pairClass == ACE || cls == ACE) && hard + 10 <= 21;
+            int total = soft ? hard + 10 : hard;
+            long rest = remove(shoe, cls);
+
+            double best = stand(total, upcard, rest, budget);
+            if (canHit && total < 21) {
+                best = Math.max(best, hit(total, soft, upcard, rest, budget));
+            }
+            if (canDouble && total < 21) {
+                best = Math.max(best, doubleDown(total, soft, upcard, rest, budget));
+            }
+            ev += p * best;
+        }
+        return 2 * ev;
+    }
+
+    /** Hạn thời gian của một lần tính; được kiểm tra trước mỗi bước có thể phải tính phân phối của nhà cái. */
+    public static final class Budget {
+        private final long deadline;
+
+        public Budget(long nanos) {
+            this.deadline = System.nanoTime() + nanos;
+        }
+
+        void check() {
+            if (System.nanoTime() > deadline) {
+                throw BudgetExceededException.INSTANCE;
+            }
+        }
+    }
+
+    public static final class BudgetExceededException extends RuntimeException {
+        static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("Advisor budget exceeded", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.blackjack.advisor;
+
+import com.example.blackjack.advisor.EvSolver.Budget;
+import com.example.blackjack.advisor.EvSolver.BudgetExceededException;
+import com.example.blackjack.dto.HintView;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.model.ShoeComposition;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.simulation.BasicStrategyPolicy;
+import com.example.blackjack.simulation.PlayerPolicy.Decision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gợi ý nước đi: EV chính xác của từng hành động được phép trên shoe hiện tại ({@link EvSolver}).
+ * Nếu không tính xong trong {@code blackjack.advisor.budget} thì trả về nước đi theo chiến lược cơ bản.
+ */
+@Service
+public class StrategyAdvisor {
+
+    private final EvSolver solver;
+    private final long budgetNanos;
+    private final Counter exactHints;
+    private final Counter fallbackHints;
+
+    public StrategyAdvisor(
+            @Value("${blackjack.advisor.budget:50ms}") Duration budget,
+            @Value("${blackjack.advisor.ev-cache-entries:500000}") int evCacheEntries,
+            DealerOutcomeEngine dealerOutcomes,
+            MeterRegistry meterRegistry) {
+        this.solver = new EvSolver(dealerOutcomes, evCacheEntries);
+        this.budgetNanos = budget.toNanos();
+        this.exactHints = Counter.builder("blackjack.advisor.hints").tag("result", "exact").register(meterRegistry);
+        this.fallbackHints = Counter.builder("blackjack.advisor.hints").tag("result", "fallback").register(meterRegistry);
+    }
+
+    public HintView advise(long shoe, int total, boolean soft, Rank pairRank, Rank upcard,
+                           boolean canDouble, boolean canSplit) {
+        return advise(shoe, total, soft, pairRank, upcard, canDouble, canSplit, false);
+    }
+
+    /**
+     * @param shoe         các lá người chơi chưa thấy ({@link ShoeComposition}), gồm cả lá úp của nhà cái
+     * @param pairRank     rank của đôi nếu tay bài là một đôi, ngược lại null
+     * @param canSurrender được đầu hàng (EV cố định là -0.5)
+     */
+    public HintView advise(long shoe, int total, boolean soft, Rank pairRank, Rank upcard,
+                           boolean canDouble, boolean canSplit, boolean canSurrender) {
+        int up = ShoeComposition.classOf(upcard);
+        Budget budget = new Budget(budgetNanos);
+        try {
+            Map<Decision, Double> ev = new EnumMap<>(Decision.class);
+            ev.put(Decision.STAND, solver.stand(total, up, shoe, budget));
+            if (total < 21) {
+                ev.put(Decision.HIT, solver.hit(total, soft, up, shoe, budget));
+            }
+            if (canDouble) {
+                ev.put(Decision.DOUBLE_DOWN, solver.doubleDown(total, soft, up, shoe, budget));
+            }
+            if (canSplit && pairRank != null) {
+                ev.put(Decision.SPLIT, solver.split(ShoeComposition.classOf(pairRank), up, shoe, budget));
+            }
+            if (canSurrender) {
+                ev.put(Decision.SURRENDER, BlackjackRules.SURRENDER_RETURN - 1);
+            }
+
+            Decision best = Decision.STAND;
+            for (Map.Entry<Decision, Double> entry : ev.entrySet()) {
+                if (entry.getValue() > ev.get(best)) {
+                    best = entry.getKey();
+                }
+            }
+            exactHints.increment();
+            return new HintView(best.name(), true, ev);
+        } catch (BudgetExceededException e) {
+            fallbackHints.increment();
+            Decision decision = canSurrender && BasicStrategyPolicy.INSTANCE.surrender(total, soft, upcard)
+                    ? Decision.SURRENDER
+                    : BasicStrategyPolicy.INSTANCE.decide(total, soft, pairRank, upcard, canDouble, canSplit);
+            return new HintView(decision.name(), false, Map.of());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.blackjack.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache LRU có giới hạn số phần tử, chia thành nhiều segment, mỗi segment có khóa riêng,
+ * nên các luồng truy cập khóa khác nhau hầu như không tranh chấp. Khi một segment đầy, phần tử
+ * ít được dùng nhất trong segment đó bị loại và được chuyển cho {@link EvictionListener}
+ * (được gọi trong khi đang giữ khóa segment).
+ */
+public class BoundedLruCache<K, V> {
+
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+        void evicted(K key, V value);
+    }
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+
+    public BoundedLruCache(int maxEntries, int concurrency) {
+        this(maxEntries, concurrency, (key, value) -> { });
+    }
+
+    @SuppressWarnings("unchecked")
+    public BoundedLruCache(int maxEntries, int concurrency, EvictionListener<K, V> listener) {
+        int count = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        int perSegment = Math.max(1, maxEntries / count);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment, listener);
+        }
+        mask = count - 1;
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node<V> node = segment.map.get(key);
+            if (node == null) {
+                return null;
+            }
+            node.lastAccess = System.nanoTime();
+            return node.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    // Khi chưa có trong cache thì gọi loader (trong khóa segment) và lưu lại kết quả khác null
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node<V> node = segment.map.get(key);
+            if (node != null) {
+                node.lastAccess = System.nanoTime();
+                return node.value;
+            }
+            V value = loader.apply(key);
+            if (value != null) {
+                segment.map.put(key, new Node<>(value));
+            }
+            return value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.put(key, new Node<>(value));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node<V> node = segment.map.remove(key);
+            return node != null ? node.value : null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /** Loại (và chuyển cho listener) mọi phần tử không được truy cập trong {@code idleNanos}; trả về số phần tử bị loại. */
+    public int evictIdle(long idleNanos) {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                // Thứ tự truy cập: phần tử đầu là phần tử lâu nhất chưa dùng
+                Iterator<Map.Entry<K, Node<V>>> it = segment.map.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<K, Node<V>> entry = it.next();
+                    if (now - entry.getValue().lastAccess < idleNanos) {
+                        break;
+                    }
+                    it.remove();
+                    segment.listener.evicted(entry.getKey(), entry.getValue().value);
+                    evicted++;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Node<V> {
+        final V value;
+        long lastAccess = System.nanoTime();
+
+        Node(V value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final EvictionListener<K, V> listener;
+        final LinkedHashMap<K, Node<V>> map;
+
+        Segment(int capacity, EvictionListener<K, V> listener) {
+            this.listener = listener;
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Node<V>> eldest) {
+                    if (size() > capacity) {
+                        listener.evicted(eldest.getKey(), eldest.getValue().value);
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.blackjack.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Ghi phản hồi bằng một định dạng nhị phân của Jackson (CBOR, Smile) khi client gửi {@code Accept} tương ứng:
+ * cùng mô hình và cấu hình với JSON, chỉ khác cách mã hóa. Mỗi kiểu phản hồi có một {@link ObjectWriter} dựng sẵn
+ * lần đầu gặp, nên mỗi request không phải tra serializer gốc. Chỉ ghi: các request của API không có body.
+ */
+public class BinaryJacksonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ClassValue<ObjectWriter> writers;
+
+    public BinaryJacksonHttpMessageConverter(ObjectMapper mapper, MediaType mediaType) {
+        super(mediaType);
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(@NonNull Class<?> type) {
+                return mapper.writerFor(type);
+            }
+        };
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> type) {
+        return true;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> type, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Request bodies are JSON only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object value, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        // Không để Jackson đóng luồng của response
+        writers.get(value.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), value);
+    }
+}
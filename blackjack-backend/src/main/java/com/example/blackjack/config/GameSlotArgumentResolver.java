@@ -0,0 +1,37 @@
+package com.example.blackjack.config;
+
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.session.GameSlots;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Cho phép controller nhận tham số GameSlot: game của request theo chế độ lưu trạng thái đang dùng
+@Component
+public class GameSlotArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final GameSlots gameSlots;
+
+    public GameSlotArgumentResolver(GameSlots gameSlots) {
+        this.gameSlots = gameSlots;
+    }
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return parameter.getParameterType() == GameSlot.class;
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return gameSlots.forRequest(webRequest.getNativeRequest(HttpServletRequest.class),
+                webRequest.getNativeResponse(HttpServletResponse.class));
+    }
+}
@@ -1,18 +1,66 @@
 package com.example.blackjack.config;
 
+import com.example.blackjack.session.GameStateTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final GameSlotArgumentResolver gameSlotArgumentResolver;
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(GameSlotArgumentResolver gameSlotArgumentResolver, ObjectMapper objectMapper) {
+        this.gameSlotArgumentResolver = gameSlotArgumentResolver;
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOrigins("http://localhost:5173") // Thay bằng URL của frontend
                 .allowedMethods("GET", "POST")
+                // Token trạng thái ở chế độ không session, ETag của /state để gửi lại qua If-None-Match,
+                // và thời gian chờ khi bị từ chối vì quá tải (AdmissionFilter)
+                .exposedHeaders(GameStateTokens.HEADER, HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER)
                 .allowCredentials(true); // Cho phép gửi cookie
     }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(gameSlotArgumentResolver);
+    }
+
+    /**
+     * Phản hồi nhị phân cho client native và bot: {@code Accept: application/cbor} hoặc
+     * {@code application/x-jackson-smile}. Thay các converter mặc định của Spring cho hai định dạng này bằng bản
+     * dùng chung cấu hình với ObjectMapper JSON và ObjectWriter dựng sẵn; đặt sau JSON để client chấp nhận mọi
+     * định dạng (Accept mặc định của trình duyệt, curl) vẫn nhận JSON.
+     */
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new BinaryJacksonHttpMessageConverter(objectMapper.copyWith(new CBORFactory()),
+                MediaType.APPLICATION_CBOR));
+        converters.add(new BinaryJacksonHttpMessageConverter(objectMapper.copyWith(new SmileFactory()),
+                APPLICATION_SMILE));
+    }
 }
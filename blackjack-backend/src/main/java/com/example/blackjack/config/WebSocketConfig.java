@@ -0,0 +1,64 @@
+package com.example.blackjack.config;
+
+import com.example.blackjack.controller.GameChannelHandler;
+import com.example.blackjack.session.GameSlots;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private GameChannelHandler gameChannelHandler;
+
+    @Autowired
+    private GameSlots gameSlots;
+
+    @Override
+    public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
+        registry.addHandler(gameChannelHandler, "/api/game/ws")
+                .addInterceptors(new GameSlotBindingInterceptor(gameSlots))
+                .setAllowedOrigins("http://localhost:5173"); // Giống cấu hình CORS trong WebConfig
+    }
+
+    // Gắn game của người chơi (cookie phiên hoặc token ở query "state") vào kết nối để dùng chung với REST API
+    private static class GameSlotBindingInterceptor implements HandshakeInterceptor {
+
+        private final GameSlots gameSlots;
+
+        GameSlotBindingInterceptor(GameSlots gameSlots) {
+            this.gameSlots = gameSlots;
+        }
+
+        @Override
+        public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+            if (request instanceof ServletServerHttpRequest servletRequest
+                    && response instanceof ServletServerHttpResponse servletResponse) {
+                attributes.put(GameChannelHandler.GAME_SLOT_ATTRIBUTE, gameSlots.forConnection(
+                        servletRequest.getServletRequest(), servletResponse.getServletResponse(), attributes));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                @NonNull WebSocketHandler wsHandler, Exception exception) {
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.example.blackjack.controller;
 
-import com.example.blackjack.model.GameState;
-import com.example.blackjack.service.BlackjackService;
-import jakarta.servlet.http.HttpSession;
+import com.example.blackjack.dto.GameUpdate;
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.dto.HintView;
+import com.example.blackjack.service.ActionNotAllowedException;
+import com.example.blackjack.service.GameSessionManager;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.service.StateTag;
+import com.example.blackjack.session.InvalidStateTokenException;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @RestController
@@ -15,89 +31,151 @@ import org.springframework.web.bind.annotation.*;
 public class BlackjackController {
 
     @Autowired
-    private BlackjackService blackjackService;
+    private GameSessionManager gameSessionManager;
+
+    // Tỉ lệ request được ghi toàn bộ trạng thái ra log DEBUG (0 = tắt). Số liệu thường xuyên xem ở /actuator/metrics
+    @Value("${blackjack.debug.state-sample-rate:0}")
+    private double stateSampleRate;
 
-    // Lấy trạng thái game, hoặc bắt đầu game mới nếu chưa có
+    // Thời gian chờ tối đa của /state/poll
+    @Value("${blackjack.state.poll-max-wait:60s}")
+    private Duration pollMaxWait;
+
+    /**
+     * Lấy trạng thái game, hoặc bắt đầu game mới nếu chưa có. ETag là {@link StateTag} của game: nếu khớp
+     * {@code If-None-Match} thì trả 304 ngay, không dựng GameView hay gọi Jackson.
+     */
     @GetMapping("/state")
-    public ResponseEntity<GameState> getGameState(HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState == null) {
-            gameState = blackjackService.startGame();
-            session.setAttribute("gameState", gameState);
+    public ResponseEntity<GameView> getGameState(GameSlot slot, WebRequest request) {
+        StateTag tag = gameSessionManager.stateTag(slot);
+        if (tag != null && request.checkNotModified(tag.etag())) {
+            return null;
+        }
+        ResponseEntity<GameView> response = gameSessionManager.currentState(slot, BlackjackController::stateResponse);
+        traceState("state", null, response.getBody());
+        return response;
+    }
+
+    /**
+     * Long-poll: nếu {@code If-None-Match} vẫn là phiên bản hiện tại thì giữ request đến khi game thay đổi
+     * (trả trạng thái mới) hoặc hết {@code wait} giây (trả 304). Request không giữ luồng trong lúc chờ.
+     * Chỉ thấy thay đổi từ các request đến cùng node.
+     */
+    @GetMapping("/state/poll")
+    public DeferredResult<ResponseEntity<GameView>> pollGameState(GameSlot slot,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(defaultValue = "30") long wait) {
+        long timeout = Math.min(TimeUnit.SECONDS.toMillis(Math.max(wait, 1)), pollMaxWait.toMillis());
+        DeferredResult<ResponseEntity<GameView>> result = new DeferredResult<>(timeout);
+
+        // Đăng ký trước khi so phiên bản để không lỡ thay đổi xảy ra ở giữa
+        Runnable unsubscribe = gameSessionManager.onChange(slot, (tag, view) -> {
+            if (!tag.etag().equals(ifNoneMatch)) {
+                result.setResult(stateResponse(tag, view));
+            }
+        });
+        result.onCompletion(unsubscribe);
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ifNoneMatch).build()));
+
+        StateTag current = gameSessionManager.stateTag(slot);
+        if (current == null || !current.etag().equals(ifNoneMatch)) {
+            result.setResult(gameSessionManager.currentState(slot, BlackjackController::stateResponse));
         }
-        log.info("Current game state: {}", gameState);
-        return ResponseEntity.ok(gameState);
+        return result;
     }
 
     // Đặt cược và bắt đầu ván mới
     @PostMapping("/bet")
-    public ResponseEntity<GameState> placeBet(@RequestParam double amount, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        // Luôn có thể đặt cược để bắt đầu ván mới
-        if (gameState == null) {
-             gameState = blackjackService.startGame();
-        }
-        gameState = blackjackService.placeBet(gameState, amount);
-        session.setAttribute("gameState", gameState);
-        log.info("Bet placed: {}, new game state: {}", amount, gameState);
-        return ResponseEntity.ok(gameState);
+    public ResponseEntity<GameView> placeBet(@RequestParam double amount, GameSlot slot) {
+        GameView view = gameSessionManager.placeBet(slot, amount);
+        traceState("bet", amount, view);
+        return ResponseEntity.ok(view);
     }
-    
+
     // Xử lý cược bảo hiểm
     @PostMapping("/insurance")
-    public ResponseEntity<GameState> insurance(@RequestParam boolean buy, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState != null) {
-            gameState = blackjackService.resolveInsurance(gameState, buy);
-            session.setAttribute("gameState", gameState);
-        }
-        log.info("Insurance action: {}, new game state: {}", buy, gameState);
-        return ResponseEntity.ok(gameState);
+    public ResponseEntity<GameUpdate> insurance(@RequestParam boolean buy,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.insurance(slot, buy, since);
+        traceState("insurance", buy, update);
+        return ResponseEntity.ok(update);
     }
 
     // Các hành động của người chơi
     @PostMapping("/hit")
-    public ResponseEntity<GameState> hit(@RequestParam int handIndex, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState != null && !gameState.isRoundOver()) {
-            gameState = blackjackService.playerHit(gameState, handIndex);
-            
-            session.setAttribute("gameState", gameState);
-        }
-        log.info("Player hit on hand index: {}, new game state: {}", handIndex, gameState);
-        return ResponseEntity.ok(gameState);
+    public ResponseEntity<GameUpdate> hit(@RequestParam int handIndex,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.hit(slot, handIndex, since);
+        traceState("hit", handIndex, update);
+        return ResponseEntity.ok(update);
     }
 
     @PostMapping("/stand")
-    public ResponseEntity<GameState> stand(@RequestParam int handIndex, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState != null && !gameState.isRoundOver()) {
-            gameState = blackjackService.playerStand(gameState, handIndex);
-            session.setAttribute("gameState", gameState);
-        }
-        log.info("Player stands on hand index: {}, new game state: {}", handIndex, gameState);
-        return ResponseEntity.ok(gameState);
+    public ResponseEntity<GameUpdate> stand(@RequestParam int handIndex,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.stand(slot, handIndex, since);
+        traceState("stand", handIndex, update);
+        return ResponseEntity.ok(update);
     }
-    
+
     @PostMapping("/double")
-    public ResponseEntity<GameState> doubleDown(@RequestParam int handIndex, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState != null && !gameState.isRoundOver()) {
-            gameState = blackjackService.playerDoubleDown(gameState, handIndex);
-            session.setAttribute("gameState", gameState);
-        }
-        log.info("Player doubles down on hand index: {}, new game state: {}", handIndex, gameState);
-        return ResponseEntity.ok(gameState);
+    public ResponseEntity<GameUpdate> doubleDown(@RequestParam int handIndex,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.doubleDown(slot, handIndex, since);
+        traceState("double", handIndex, update);
+        return ResponseEntity.ok(update);
     }
 
     @PostMapping("/split")
-    public ResponseEntity<GameState> split(@RequestParam int handIndex, HttpSession session) {
-        GameState gameState = (GameState) session.getAttribute("gameState");
-        if (gameState != null && !gameState.isRoundOver()) {
-            gameState = blackjackService.playerSplit(gameState, handIndex);
-            session.setAttribute("gameState", gameState);
+    public ResponseEntity<GameUpdate> split(@RequestParam int handIndex,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.split(slot, handIndex, since);
+        traceState("split", handIndex, update);
+        return ResponseEntity.ok(update);
+    }
+
+    @PostMapping("/surrender")
+    public ResponseEntity<GameUpdate> surrender(@RequestParam int handIndex,
+            @RequestParam(required = false) Long since, GameSlot slot) {
+        GameUpdate update = gameSessionManager.surrender(slot, handIndex, since);
+        traceState("surrender", handIndex, update);
+        return ResponseEntity.ok(update);
+    }
+
+    // Gợi ý nước đi cho tay bài đang chơi (EV của từng hành động trên shoe hiện tại)
+    @GetMapping("/hint")
+    public ResponseEntity<HintView> hint(GameSlot slot) {
+        return ResponseEntity.ok(gameSessionManager.hint(slot));
+    }
+
+    // Hành động không nằm trong availableActions hiện tại. Lỗi khác của server vẫn là 500
+    @ExceptionHandler(ActionNotAllowedException.class)
+    public ResponseEntity<Map<String, String>> notAllowed(ActionNotAllowedException e) {
+        log.debug("Rejected game action: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+    }
+
+    // Tham số không hợp lệ (số tiền cược lẻ dưới một xu...); game đang chơi và token của client vẫn dùng được
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    // Token trạng thái sai chữ ký, không đọc được hoặc đã cũ (chế độ blackjack.state.mode=token): client bỏ token
+    @ExceptionHandler(InvalidStateTokenException.class)
+    public ResponseEntity<Map<String, String>> rejectedToken(InvalidStateTokenException e) {
+        return ResponseEntity.status(InvalidStateTokenException.STATUS)
+                .body(Map.of("message", e.getMessage(), "code", InvalidStateTokenException.CODE));
+    }
+
+    // Client phải hỏi lại server (kèm If-None-Match) mỗi lần dùng bản đã lưu
+    private static ResponseEntity<GameView> stateResponse(StateTag tag, GameView view) {
+        return ResponseEntity.ok().eTag(tag.etag()).cacheControl(CacheControl.noCache()).body(view);
+    }
+
+    private void traceState(String action, Object argument, Object update) {
+        if (stateSampleRate > 0 && log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < stateSampleRate) {
+            log.debug("Action {}({}), new game state: {}", action, argument, update);
         }
-        log.info("Player splits on hand index: {}, new game state: {}", handIndex, gameState);
-        return ResponseEntity.ok(gameState);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.blackjack.controller;
+
+import com.example.blackjack.dto.GameCommand;
+import com.example.blackjack.dto.GameEvent;
+import com.example.blackjack.dto.GameUpdate;
+import com.example.blackjack.service.ActionNotAllowedException;
+import com.example.blackjack.service.GameSessionManager;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.session.GameSlots;
+import com.example.blackjack.session.InvalidStateTokenException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+
+/**
+ * Kênh game hai chiều thay cho một POST mỗi nước đi. Client có thể gửi nhiều lệnh liên tiếp
+ * không cần chờ phản hồi; các lệnh của một kết nối được xử lý lần lượt theo thứ tự nhận,
+ * và mỗi lệnh được trả về một {@link GameEvent}. Server nhớ phiên bản đã gửi gần nhất trên kết nối
+ * nên luôn trả về bản vá khi có thể.
+ */
+@Slf4j
+@Component
+public class GameChannelHandler extends TextWebSocketHandler {
+
+    public static final String GAME_SLOT_ATTRIBUTE = "gameSlot";
+    private static final String LAST_VERSION_ATTRIBUTE = "lastVersion";
+
+    @Autowired
+    private GameSessionManager gameSessionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        try {
+            send(session, GameEvent.update(0, gameSessionManager.currentState(slot(session))));
+        } catch (InvalidStateTokenException e) {
+            rejectToken(session, 0, e);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        GameCommand command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), GameCommand.class);
+        } catch (JsonProcessingException e) {
+            send(session, GameEvent.error(0, "Lệnh không hợp lệ."));
+            return;
+        }
+
+        GameEvent event;
+        try {
+            GameUpdate update = execute(slot(session), command, (Long) session.getAttributes().get(LAST_VERSION_ATTRIBUTE));
+            event = update != null ? GameEvent.update(command.seq(), update) : GameEvent.error(command.seq(), "Chưa có ván bài.");
+        } catch (InvalidStateTokenException e) {
+            rejectToken(session, command.seq(), e);
+            return;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            event = GameEvent.error(command.seq(), "Lệnh không hợp lệ: " + command.action());
+        } catch (ActionNotAllowedException e) {
+            // Hành động không hợp lệ với trạng thái hiện tại
+            event = GameEvent.error(command.seq(), e.getMessage());
+        }
+        send(session, event);
+    }
+
+    private GameUpdate execute(GameSlot slot, GameCommand command, Long since) {
+        if (command.action() == null) {
+            throw new IllegalArgumentException("Missing action");
+        }
+        return switch (command.action()) {
+            case "STATE" -> gameSessionManager.currentState(slot);
+            case "BET" -> gameSessionManager.placeBet(slot, required(command.amount()));
+            case "INSURANCE" -> gameSessionManager.insurance(slot, required(command.buy()), since);
+            case "HIT" -> gameSessionManager.hit(slot, command.handIndex(), since);
+            case "STAND" -> gameSessionManager.stand(slot, command.handIndex(), since);
+            case "DOUBLE_DOWN" -> gameSessionManager.doubleDown(slot, command.handIndex(), since);
+            case "SPLIT" -> gameSessionManager.split(slot, command.handIndex(), since);
+            case "SURRENDER" -> gameSessionManager.surrender(slot, command.handIndex(), since);
+            default -> throw new IllegalArgumentException("Unknown action " + command.action());
+        };
+    }
+
+    // Token của kết nối không còn dùng được cho lệnh nào nữa: báo cho client bỏ token rồi đóng kênh
+    private void rejectToken(WebSocketSession session, long seq, InvalidStateTokenException e) throws IOException {
+        session.getAttributes().remove(GameSlots.TOKEN_ATTRIBUTE);
+        send(session, GameEvent.error(seq, e.getMessage(), InvalidStateTokenException.CODE));
+        session.close(CloseStatus.POLICY_VIOLATION);
+    }
+
+    private void send(WebSocketSession session, GameEvent event) throws IOException {
+        if (event.update() != null) {
+            session.getAttributes().put(LAST_VERSION_ATTRIBUTE, event.update().version());
+        }
+        String token = (String) session.getAttributes().get(GameSlots.TOKEN_ATTRIBUTE);
+        if (token != null) {
+            event = event.withState(token);
+        }
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsBytes(event)));
+    }
+
+    private static GameSlot slot(WebSocketSession session) {
+        return (GameSlot) session.getAttributes().get(GAME_SLOT_ATTRIBUTE);
+    }
+
+    private static <T> T required(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter");
+        }
+        return value;
+    }
+}
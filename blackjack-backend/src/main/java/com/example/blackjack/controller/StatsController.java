@@ -0,0 +1,41 @@
+package com.example.blackjack.controller;
+
+import com.example.blackjack.dto.LeaderboardView;
+import com.example.blackjack.dto.PlayerStatsView;
+import com.example.blackjack.service.GameSessionManager;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.service.StateTag;
+import com.example.blackjack.stats.PlayerStatsTracker;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private PlayerStatsTracker statsTracker;
+
+    @Autowired
+    private GameSessionManager gameSessionManager;
+
+    // Thống kê của người chơi đang giữ game này; 404 nếu chưa có game
+    @GetMapping("/me")
+    public ResponseEntity<PlayerStatsView> myStats(GameSlot slot) {
+        StateTag tag = gameSessionManager.stateTag(slot);
+        if (tag == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(statsTracker.view(tag.playerId()));
+    }
+
+    // Ảnh chụp bảng xếp hạng gần nhất, không tính lại theo request
+    @GetMapping("/leaderboard")
+    public LeaderboardView leaderboard() {
+        return statsTracker.leaderboard();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.blackjack.controller;
+
+import com.example.blackjack.dto.TableSummary;
+import com.example.blackjack.dto.TableView;
+import com.example.blackjack.service.ActionNotAllowedException;
+import com.example.blackjack.session.PlayerIdentity;
+import com.example.blackjack.table.TableService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Bàn nhiều người chơi; ghế được nhận diện bằng HttpSession, tiền đi qua ví của định danh người chơi (PlayerIdentity)
+@Slf4j
+@RestController
+@RequestMapping("/api/tables")
+public class TableController {
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private PlayerIdentity playerIdentity;
+
+    @GetMapping
+    public ResponseEntity<List<TableSummary>> list(HttpSession session) {
+        return ResponseEntity.ok(tableService.list(session.getId()));
+    }
+
+    // rules: tên bộ luật của bàn (blackjack.rules.profiles), bỏ trống thì dùng blackjack.rules.table
+    @PostMapping
+    public ResponseEntity<TableView> create(@RequestParam(required = false) String rules, HttpSession session,
+            HttpServletRequest request, HttpServletResponse response) {
+        long account = playerIdentity.resolve(request, response);
+        return ResponseEntity.ok(tableService.create(session.getId(), account, rules));
+    }
+
+    @GetMapping("/{tableId}")
+    public ResponseEntity<TableView> state(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.view(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/join")
+    public ResponseEntity<TableView> join(@PathVariable String tableId, HttpSession session,
+            HttpServletRequest request, HttpServletResponse response) {
+        long account = playerIdentity.resolve(request, response);
+        return ResponseEntity.ok(tableService.join(tableId, session.getId(), account));
+    }
+
+    @PostMapping("/{tableId}/leave")
+    public ResponseEntity<TableView> leave(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.leave(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/bet")
+    public ResponseEntity<TableView> bet(@PathVariable String tableId, @RequestParam double amount, HttpSession session) {
+        return ResponseEntity.ok(tableService.bet(tableId, session.getId(), amount));
+    }
+
+    @PostMapping("/{tableId}/insurance")
+    public ResponseEntity<TableView> insurance(@PathVariable String tableId, @RequestParam boolean buy, HttpSession session) {
+        return ResponseEntity.ok(tableService.insurance(tableId, session.getId(), buy));
+    }
+
+    @PostMapping("/{tableId}/hit")
+    public ResponseEntity<TableView> hit(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.hit(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/stand")
+    public ResponseEntity<TableView> stand(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.stand(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/double")
+    public ResponseEntity<TableView> doubleDown(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.doubleDown(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/split")
+    public ResponseEntity<TableView> split(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.split(tableId, session.getId()));
+    }
+
+    @PostMapping("/{tableId}/surrender")
+    public ResponseEntity<TableView> surrender(@PathVariable String tableId, HttpSession session) {
+        return ResponseEntity.ok(tableService.surrender(tableId, session.getId()));
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> notFound(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> invalid(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(ActionNotAllowedException.class)
+    public ResponseEntity<Map<String, String>> notAllowed(ActionNotAllowedException e) {
+        log.debug("Rejected table action: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.blackjack.controller;
+
+import com.example.blackjack.wallet.RemoteWallet;
+import com.example.blackjack.wallet.Wallet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Sổ ví của node giữ sổ ({@code blackjack.wallet.url} để trống) cho các node khác ({@link RemoteWallet}).
+ * Chỉ nhận request mang đúng {@code blackjack.wallet.secret}; để trống khóa thì mọi request bị từ chối (403),
+ * tức chạy một node không mở ví ra ngoài. Giá trị trả về dạng chữ.
+ */
+@RestController
+@RequestMapping(value = RemoteWallet.PATH + "/{playerId}", produces = MediaType.TEXT_PLAIN_VALUE)
+@ConditionalOnExpression("'${blackjack.wallet.url:}'.isEmpty()")
+public class WalletController {
+
+    @Autowired
+    private Wallet wallet;
+
+    @Value("${blackjack.wallet.secret:}")
+    private String secret;
+
+    @PostMapping("/open")
+    public String open(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId, @RequestParam long initial) {
+        authorize(key);
+        return Long.toString(wallet.open(playerId, initial));
+    }
+
+    @GetMapping("/balance")
+    public String balance(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId) {
+        authorize(key);
+        return Long.toString(wallet.balance(playerId));
+    }
+
+    @PostMapping("/debit")
+    public String debit(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId, @RequestParam long amount) {
+        authorize(key);
+        return Boolean.toString(wallet.debit(playerId, amount));
+    }
+
+    @PostMapping("/credit")
+    public String credit(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId, @RequestParam long amount) {
+        authorize(key);
+        return Long.toString(wallet.credit(playerId, amount));
+    }
+
+    @GetMapping("/stamp")
+    public String stateStamp(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId) {
+        authorize(key);
+        return Long.toString(wallet.stateStamp(playerId));
+    }
+
+    @PostMapping("/stamp")
+    public String setStateStamp(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId, @RequestParam long value) {
+        authorize(key);
+        wallet.setStateStamp(playerId, value);
+        return "";
+    }
+
+    @PostMapping("/stamp/swap")
+    public String swapStateStamp(@RequestHeader(name = RemoteWallet.SECRET_HEADER, required = false) String key,
+            @PathVariable long playerId, @RequestParam long expected, @RequestParam long value) {
+        authorize(key);
+        return Boolean.toString(wallet.compareAndSetStateStamp(playerId, expected, value));
+    }
+
+    // So sánh thời gian hằng để không lộ khóa qua thời gian phản hồi
+    private void authorize(String key) {
+        if (secret.isEmpty() || key == null || !MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                key.getBytes(StandardCharsets.UTF_8))) {
+            throw new Forbidden();
+        }
+    }
+
+    @ExceptionHandler(Forbidden.class)
+    public ResponseEntity<String> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
+    }
+
+    // Số tiền âm
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static final class Forbidden extends RuntimeException {
+        Forbidden() {
+            super(null, null, false, false);
+        }
+    }
+}
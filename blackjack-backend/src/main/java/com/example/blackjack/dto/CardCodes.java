@@ -0,0 +1,33 @@
+package com.example.blackjack.dto;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.model.Suit;
+
+/**
+ * Mã hai ký tự của lá bài gửi cho client: rank ("2".."9", "T", "J", "Q", "K", "A") + chất ("H", "D", "C", "S").
+ * Ví dụ "AS" là Át bích, "TH" là 10 cơ. Các chuỗi được tạo sẵn một lần.
+ */
+public final class CardCodes {
+
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "HDCS";
+
+    private static final String[] CODES = new String[Suit.values().length * Rank.values().length];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                Card card = Card.of(suit, rank);
+                CODES[card.code()] = "" + RANK_CHARS.charAt(rank.ordinal()) + SUIT_CHARS.charAt(suit.ordinal());
+            }
+        }
+    }
+
+    private CardCodes() {
+    }
+
+    public static String of(Card card) {
+        return CODES[card.code()];
+    }
+}
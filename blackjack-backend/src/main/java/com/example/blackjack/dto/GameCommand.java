@@ -0,0 +1,8 @@
+package com.example.blackjack.dto;
+
+/**
+ * Hành động client gửi qua kênh WebSocket, ví dụ {@code {"seq":3,"action":"HIT"}}.
+ * {@code handIndex} có thể bỏ trống để dùng tay bài đang chơi; {@code amount} cho BET, {@code buy} cho INSURANCE.
+ */
+public record GameCommand(long seq, String action, Integer handIndex, Double amount, Boolean buy) {
+}
@@ -0,0 +1,79 @@
+package com.example.blackjack.dto;
+
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.wallet.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bản vá đưa client từ {@code baseVersion} lên {@code version}.
+ * Chỉ chứa các tay bài thay đổi; trường null nghĩa là không đổi.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GameDelta(
+        long baseVersion,
+        long version,
+        int handCount,
+        List<HandPatch> playerHands,
+        HandPatch dealerHand,
+        double balanceDelta,
+        String gameMessage,
+        boolean roundOver,
+        List<String> availableActions) implements GameUpdate {
+
+    /**
+     * Thay đổi của một tay bài: giữ {@code from} lá đầu tiên của client và thay phần còn lại bằng {@code cards}.
+     * Thường chỉ là các lá mới rút; khi lá úp được lật hoặc tay bài bị tách thì phần thay thế bắt đầu sớm hơn.
+     * {@code index} là -1 với tay của nhà cái; thiếu {@code handValue} nghĩa là điểm đang bị ẩn.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record HandPatch(int index, int from, List<String> cards, Integer handValue, double betAmount,
+            HandStatus status) {
+    }
+
+    public static GameDelta between(GameView before, GameView after) {
+        List<HandPatch> hands = new ArrayList<>();
+        for (int i = 0; i < after.playerHands().size(); i++) {
+            HandView old = i < before.playerHands().size() ? before.playerHands().get(i) : null;
+            HandPatch patch = diff(i, old, after.playerHands().get(i));
+            if (patch != null) {
+                hands.add(patch);
+            }
+        }
+
+        return new GameDelta(
+                before.version(),
+                after.version(),
+                after.playerHands().size(),
+                hands,
+                diff(-1, before.dealerHand(), after.dealerHand()),
+                Money.toMajor(Money.toMinor(after.playerBalance()) - Money.toMinor(before.playerBalance())),
+                Objects.equals(before.gameMessage(), after.gameMessage()) ? null : after.gameMessage(),
+                after.roundOver(),
+                after.availableActions());
+    }
+
+    private static HandPatch diff(int index, HandView old, HandView now) {
+        List<String> oldCards = old != null ? old.cards() : List.of();
+        List<String> newCards = now.cards();
+
+        int from = 0;
+        int common = Math.min(oldCards.size(), newCards.size());
+        while (from < common && Objects.equals(oldCards.get(from), newCards.get(from))) {
+            from++;
+        }
+
+        boolean cardsChanged = from != oldCards.size() || from != newCards.size();
+        if (!cardsChanged && old != null
+                && Objects.equals(old.handValue(), now.handValue())
+                && old.betAmount() == now.betAmount()
+                && old.status() == now.status()) {
+            return null;
+        }
+        return new HandPatch(index, from, newCards.subList(from, newCards.size()), now.handValue(),
+                now.betAmount(), now.status());
+    }
+}
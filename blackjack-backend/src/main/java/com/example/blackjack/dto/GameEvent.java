@@ -0,0 +1,29 @@
+package com.example.blackjack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Sự kiện server đẩy về qua kênh WebSocket. {@code seq} là số thứ tự của lệnh tương ứng
+ * (0 với trạng thái gửi lúc mới kết nối); có {@code update} hoặc {@code error}.
+ * Ở chế độ không session, {@code state} là token trạng thái mới nhất để client giữ lại. {@code code} phân loại lỗi
+ * cần client xử lý riêng (token trạng thái bị từ chối, xem {@code InvalidStateTokenException}).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GameEvent(long seq, GameUpdate update, String error, String code, String state) {
+
+    public static GameEvent update(long seq, GameUpdate update) {
+        return new GameEvent(seq, update, null, null, null);
+    }
+
+    public static GameEvent error(long seq, String error) {
+        return new GameEvent(seq, null, error, null, null);
+    }
+
+    public static GameEvent error(long seq, String error, String code) {
+        return new GameEvent(seq, null, error, code, null);
+    }
+
+    public GameEvent withState(String state) {
+        return new GameEvent(seq, update, error, code, state);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.blackjack.dto;
+
+/**
+ * Phản hồi của các hành động: toàn bộ trạng thái ({@link GameView})
+ * hoặc bản vá so với phiên bản client đang có ({@link GameDelta}).
+ */
+public sealed interface GameUpdate permits GameView, GameDelta {
+
+    long version();
+}
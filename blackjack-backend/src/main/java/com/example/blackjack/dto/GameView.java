@@ -0,0 +1,41 @@
+package com.example.blackjack.dto;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.wallet.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trạng thái game gửi cho client. Chỉ gồm những gì người chơi được thấy:
+ * shoe không bao giờ rời khỏi server, và lá úp của nhà cái bị ẩn cho đến khi ván kết thúc.
+ */
+public record GameView(
+        long version,
+        List<HandView> playerHands,
+        HandView dealerHand,
+        double playerBalance,
+        String gameMessage,
+        boolean roundOver,
+        List<String> availableActions) implements GameUpdate {
+
+    public static GameView from(GameState gameState) {
+        List<HandView> playerHands = new ArrayList<>(gameState.getPlayerHands().size());
+        for (Hand hand : gameState.getPlayerHands()) {
+            playerHands.add(HandView.of(hand));
+        }
+        HandView dealerHand = gameState.isRoundOver()
+                ? HandView.of(gameState.getDealerHand())
+                : HandView.withHoleCardHidden(gameState.getDealerHand());
+
+        return new GameView(
+                gameState.getVersion(),
+                playerHands,
+                dealerHand,
+                Money.toMajor(gameState.getPlayerBalance()),
+                gameState.getGameMessage(),
+                gameState.isRoundOver(),
+                gameState.getAvailableActions());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.blackjack.dto;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.wallet.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tay bài gửi cho client. Lá bài úp là {@code null}, và khi đó {@code handValue} cũng là {@code null}.
+ */
+public record HandView(List<String> cards, Integer handValue, double betAmount, HandStatus status) {
+
+    public static HandView of(Hand hand) {
+        return new HandView(codes(hand.getCards(), -1), hand.getHandValue(), Money.toMajor(hand.getBetAmount()),
+                hand.getStatus());
+    }
+
+    // Tay của nhà cái khi ván chưa kết thúc: ẩn lá thứ hai (lá úp)
+    public static HandView withHoleCardHidden(Hand hand) {
+        return new HandView(codes(hand.getCards(), 1), null, Money.toMajor(hand.getBetAmount()), hand.getStatus());
+    }
+
+    private static List<String> codes(List<Card> cards, int hiddenIndex) {
+        List<String> codes = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            codes.add(i == hiddenIndex ? null : CardCodes.of(cards.get(i)));
+        }
+        return codes;
+    }
+}
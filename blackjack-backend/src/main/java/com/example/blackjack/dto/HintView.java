@@ -0,0 +1,13 @@
+package com.example.blackjack.dto;
+
+import com.example.blackjack.simulation.PlayerPolicy.Decision;
+
+import java.util.Map;
+
+/**
+ * Gợi ý cho tay bài đang chơi. {@code exact} = true khi {@code ev} là kỳ vọng chính xác (theo đơn vị cược)
+ * trên shoe hiện tại; false khi hết thời gian tính và {@code recommended} lấy từ chiến lược cơ bản
+ * ({@code ev} khi đó rỗng).
+ */
+public record HintView(String recommended, boolean exact, Map<Decision, Double> ev) {
+}
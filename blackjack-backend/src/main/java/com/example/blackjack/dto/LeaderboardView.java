@@ -0,0 +1,11 @@
+package com.example.blackjack.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bảng xếp hạng theo tiền thắng ròng, giảm dần (hạng = vị trí trong {@code top}).
+ * Là ảnh chụp được công bố định kỳ, nên có thể trễ tối đa một chu kỳ so với các ván vừa kết thúc.
+ */
+public record LeaderboardView(Instant publishedAt, List<PlayerStatsView> top) {
+}
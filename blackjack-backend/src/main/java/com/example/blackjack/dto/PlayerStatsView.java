@@ -0,0 +1,17 @@
+package com.example.blackjack.dto;
+
+/**
+ * Thống kê của một người chơi. Mỗi tay bài được thanh toán tính một lần thắng/thua/hòa; tiền tính theo đơn vị lớn.
+ * {@code netWon} là tổng tiền nhận lại trừ tổng tiền cược (gồm bảo hiểm) của các khoản đã thanh toán.
+ */
+public record PlayerStatsView(
+        long playerId,
+        long roundsPlayed,
+        long wins,
+        long losses,
+        long pushes,
+        long blackjacks,
+        long busts,
+        double netWon,
+        double biggestWin) {
+}
@@ -0,0 +1,11 @@
+package com.example.blackjack.dto;
+
+import java.util.List;
+
+// balance chỉ có ở ghế của người đang xem, null ở ghế của người khác
+public record SeatView(int index, boolean occupied, Double balance, double pendingBet, List<HandView> hands) {
+
+    public static SeatView empty(int index) {
+        return new SeatView(index, false, null, 0, List.of());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.blackjack.dto;
+
+/**
+ * Một dòng trong danh sách bàn ({@code GET /api/tables}): số người đang ngồi trên {@code seats} ghế, giai đoạn của
+ * ván và {@code seated} là người đang xem có ngồi ở bàn này không. Không có bài hay số dư của ai.
+ */
+public record TableSummary(String id, String rules, String phase, boolean roundOver, int players, int seats,
+                           boolean seated) {
+
+    public TableSummary asSeated() {
+        return new TableSummary(id, rules, phase, roundOver, players, seats, true);
+    }
+}
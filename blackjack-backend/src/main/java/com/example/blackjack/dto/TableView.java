@@ -0,0 +1,22 @@
+package com.example.blackjack.dto;
+
+import java.util.List;
+
+/**
+ * Trạng thái bàn nhiều người chơi nhìn từ một người chơi: {@code yourSeat} là ghế của người đó (null nếu chưa ngồi)
+ * và {@code availableActions} là các hành động người đó được làm lúc này. {@code rules} là tên bộ luật của bàn.
+ */
+public record TableView(
+        String id,
+        String rules,
+        long version,
+        String phase,
+        boolean roundOver,
+        List<SeatView> seats,
+        HandView dealerHand,
+        int activeSeat,
+        int activeHand,
+        String message,
+        Integer yourSeat,
+        List<String> availableActions) {
+}
@@ -0,0 +1,90 @@
+package com.example.blackjack.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Định dạng nhật ký ván bài: thư mục gồm các segment {@code <số thứ tự 16 chữ số>.journal} có kích thước cố định,
+ * mỗi segment là dãy bản ghi {@value #RECORD_SIZE} byte (little-endian), phần chưa ghi toàn byte 0:
+ * <pre>
+ *  0  long   playerId
+ *  8  long   thời điểm (epoch millis)
+ * 16  long   số tiền của sự kiện, xu (với SHOE: seed của shoe)
+ * 24  long   số dư sau sự kiện, xu
+ * 32  byte   mã RoundEvent (0 = hết dữ liệu)
+ * 33  byte   chỉ số tay bài (-1 = nhà cái / bảo hiểm)
+ * 34  byte   mã lá bài (-1 = không có)
+ * 35  byte   đơn vị tiền: 1 = xu; 0 = bản ghi cũ, số tiền và số dư là double
+ * 36  int    CRC32C của 36 byte đầu
+ * </pre>
+ * Bản ghi sai checksum (ghi dở khi máy sập) được coi là điểm kết thúc của segment.
+ */
+final class JournalFormat {
+
+    static final int RECORD_SIZE = 40;
+    static final int CHECKSUM_OFFSET = 36;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int PLAYER = 0;
+    static final int TIME = 8;
+    static final int AMOUNT = 16;
+    static final int BALANCE = 24;
+    static final int EVENT = 32;
+    static final int HAND = 33;
+    static final int CARD = 34;
+    static final int UNITS = 35;
+
+    static final byte UNITS_LEGACY_DOUBLE = 0;
+    static final byte UNITS_MINOR = 1;
+
+    private static final String SUFFIX = ".journal";
+
+    private JournalFormat() {
+    }
+
+    static Path segmentFile(Path directory, long sequence) {
+        return directory.resolve(String.format("%016d%s", sequence, SUFFIX));
+    }
+
+    // Các segment trong thư mục theo thứ tự ghi
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> sequenceOf(file) >= 0)
+                    .sorted(Comparator.comparingLong(JournalFormat::sequenceOf))
+                    .toList();
+        }
+    }
+
+    // Số thứ tự của segment, -1 nếu không phải file segment
+    static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Bản ghi tại offset có đầy đủ và đúng checksum không; crc được dùng lại giữa các lần gọi
+    static boolean isValid(ByteBuffer segment, int offset, CRC32C crc) {
+        if (offset + RECORD_SIZE > segment.limit() || segment.get(offset + EVENT) == 0) {
+            return false;
+        }
+        crc.reset();
+        crc.update(segment.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue() == segment.getInt(offset + CHECKSUM_OFFSET);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.blackjack.journal;
+
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.wallet.Money;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import static com.example.blackjack.journal.JournalFormat.*;
+
+/**
+ * Đọc tuần tự nhật ký ván bài: map từng segment chỉ đọc và đưa từng bản ghi cho visitor dưới dạng các giá trị
+ * nguyên thủy, không cấp phát theo bản ghi. Dừng ở cuối dữ liệu hợp lệ của mỗi segment.
+ */
+public final class JournalReader {
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        // amount và balance tính bằng xu; amount là 0 và seed là seed của shoe với SHOE, các sự kiện khác có seed là 0
+        void record(long playerId, long timeMillis, RoundEvent event, int handIndex, int cardCode,
+                    long amount, long balance, long seed);
+    }
+
+    private JournalReader() {
+    }
+
+    // Trả về số bản ghi đã đọc
+    public static long forEach(Path directory, RecordVisitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        long count = 0;
+        for (Path file : segments(directory)) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            segment.order(ORDER);
+            for (int offset = 0; isValid(segment, offset, crc); offset += RECORD_SIZE) {
+                RoundEvent event = RoundEvent.fromCode(segment.get(offset + EVENT));
+                long amountBits = segment.getLong(offset + AMOUNT);
+                long balanceBits = segment.getLong(offset + BALANCE);
+                boolean shoe = event == RoundEvent.SHOE;
+                boolean legacy = segment.get(offset + UNITS) == UNITS_LEGACY_DOUBLE;
+                visitor.record(segment.getLong(offset + PLAYER),
+                        segment.getLong(offset + TIME),
+                        event,
+                        segment.get(offset + HAND),
+                        segment.get(offset + CARD),
+                        shoe ? 0 : legacy ? legacyMinor(amountBits) : amountBits,
+                        legacy ? legacyMinor(balanceBits) : balanceBits,
+                        shoe ? amountBits : 0);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Bản ghi ghi trước khi tiền được tính bằng xu: double đơn vị lớn, làm tròn về xu gần nhất
+    private static long legacyMinor(long doubleBits) {
+        return Math.round(Double.longBitsToDouble(doubleBits) * Money.MINOR_PER_UNIT);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.blackjack.journal;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.wallet.Money;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Công cụ dựng lại số dư và lịch sử ván bài từ nhật ký ({@link RoundJournal}). Chạy độc lập với server:
+ * <pre>
+ * java -Dloader.main=com.example.blackjack.journal.JournalReplay -cp blackjack-0.0.1-SNAPSHOT-exec.jar \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher &lt;thư mục nhật ký&gt; [playerId]
+ * </pre>
+ * Không có playerId thì in mỗi người chơi một dòng (playerId, số dư, số ván, tổng cược, tổng trả thưởng);
+ * có playerId thì in từng ván của người chơi đó.
+ */
+public final class JournalReplay {
+
+    // Số liệu dựng lại của một người chơi (tiền tính bằng xu); số dư là số dư sau bản ghi cuối cùng
+    public static final class Ledger {
+        private final long playerId;
+        private long balance;
+        private long records;
+        private long rounds;
+        private long wagered;
+        private long returned;
+
+        Ledger(long playerId) {
+            this.playerId = playerId;
+        }
+
+        public long playerId() {
+            return playerId;
+        }
+
+        public long balance() {
+            return balance;
+        }
+
+        public long records() {
+            return records;
+        }
+
+        public long rounds() {
+            return rounds;
+        }
+
+        public long wagered() {
+            return wagered;
+        }
+
+        public long returned() {
+            return returned;
+        }
+
+        void apply(RoundEvent event, long amount, long balanceAfter) {
+            switch (event) {
+                case BET -> {
+                    rounds++;
+                    wagered += amount;
+                }
+                case INSURANCE, DOUBLE, SPLIT -> wagered += amount;
+                case SETTLE -> returned += amount;
+                default -> {
+                }
+            }
+            balance = balanceAfter;
+            records++;
+        }
+    }
+
+    // Một bước trong lịch sử ván (tiền tính bằng xu); card là null nếu bước không chia bài, seed chỉ có ở bước SHOE
+    public record Step(Instant time, RoundEvent event, int handIndex, Card card, long amount, long balance,
+                       long seed) {
+    }
+
+    private JournalReplay() {
+    }
+
+    public static Map<Long, Ledger> ledgers(Path directory) throws IOException {
+        Map<Long, Ledger> ledgers = new HashMap<>();
+        Ledger[] last = new Ledger[1];
+        JournalReader.forEach(directory, (playerId, timeMillis, event, handIndex, cardCode, amount, balance, seed) -> {
+            // Các bản ghi của một ván thường nằm liền nhau nên phần lớn không cần tra map
+            Ledger ledger = last[0];
+            if (ledger == null || ledger.playerId != playerId) {
+                ledger = ledgers.computeIfAbsent(playerId, Ledger::new);
+                last[0] = ledger;
+            }
+            ledger.apply(event, amount, balance);
+        });
+        return ledgers;
+    }
+
+    // Các ván của một người chơi theo thứ tự, mỗi ván bắt đầu bằng bản ghi BET (hoặc SHOE nếu xáo lại trước ván)
+    public static List<List<Step>> rounds(Path directory, long player) throws IOException {
+        List<List<Step>> rounds = new ArrayList<>();
+        JournalReader.forEach(directory, (playerId, timeMillis, event, handIndex, cardCode, amount, balance, seed) -> {
+            if (playerId != player) {
+                return;
+            }
+            List<Step> round = rounds.isEmpty() ? null : rounds.get(rounds.size() - 1);
+            boolean afterShoe = round != null && round.size() == 1 && round.get(0).event() == RoundEvent.SHOE;
+            if (round == null || event == RoundEvent.SHOE || (event == RoundEvent.BET && !afterShoe)) {
+                round = new ArrayList<>();
+                rounds.add(round);
+            }
+            round.add(new Step(Instant.ofEpochMilli(timeMillis), event, handIndex,
+                    cardCode >= 0 ? Card.fromCode(cardCode) : null, amount, balance, seed));
+        });
+        return rounds;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: JournalReplay <journal-dir> [playerId]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+
+        if (args.length == 2) {
+            int number = 1;
+            for (List<Step> round : rounds(directory, Long.parseLong(args[1]))) {
+                System.out.println("Round " + number++);
+                for (Step step : round) {
+                    if (step.event() == RoundEvent.SHOE) {
+                        System.out.printf("  %s %-11s seed=%d%n", step.time(), step.event(), step.seed());
+                        continue;
+                    }
+                    System.out.printf("  %s %-11s hand=%d card=%s amount=%.2f balance=%.2f%n", step.time(), step.event(),
+                            step.handIndex(), step.card() != null ? step.card().getRank() + "/" + step.card().getSuit() : "-",
+                            Money.toMajor(step.amount()), Money.toMajor(step.balance()));
+                }
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<Long, Ledger> ledgers = ledgers(directory);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long records = 0;
+        for (Ledger ledger : ledgers.values()) {
+            records += ledger.records();
+            System.out.printf("%d %.2f %d %.2f %.2f%n", ledger.playerId(), Money.toMajor(ledger.balance()),
+                    ledger.rounds(), Money.toMajor(ledger.wagered()), Money.toMajor(ledger.returned()));
+        }
+        double megabytes = records * (double) JournalFormat.RECORD_SIZE / 1e6;
+        System.err.printf("%d records (%.1f MB), %d players in %.3f s (%.0f MB/s)%n",
+                records, megabytes, ledgers.size(), seconds, megabytes / seconds);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.blackjack.journal;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.GameEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import static com.example.blackjack.journal.JournalFormat.*;
+
+/**
+ * Nhật ký chỉ ghi thêm (append-only) của mọi bước trong các ván một người chơi, định dạng xem {@link JournalFormat}.
+ * Bản ghi được chép thẳng vào segment đã map vào bộ nhớ dưới một khóa ngắn, nên luồng xử lý request không bao giờ
+ * chờ ghi đĩa; một luồng nền gom các bản ghi mới và fsync theo lô mỗi {@code blackjack.journal.flush-interval}
+ * (group commit). Khi máy sập chỉ mất tối đa các bản ghi của khoảng đó; tiến trình chết thì không mất gì vì
+ * trang đã map vẫn nằm trong page cache của hệ điều hành. Dựng lại số dư và lịch sử bằng {@link JournalReplay}.
+ */
+@Slf4j
+@Component
+public class RoundJournal implements GameEventListener, AutoCloseable {
+
+    private static final class Segment {
+        final long sequence;
+        final MappedByteBuffer buffer;
+        int synced; // Chỉ luồng flush đọc/ghi
+
+        Segment(long sequence, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final Counter records;
+    private final Timer syncs;
+
+    // Các trường dưới đây chỉ dùng khi giữ lock
+    private final byte[] scratch = new byte[RECORD_SIZE];
+    private final ByteBuffer record = ByteBuffer.wrap(scratch).order(ORDER);
+    private final CRC32C crc = new CRC32C();
+    private final List<Segment> retired = new ArrayList<>();
+    private Segment current;
+    private int position;
+
+    public RoundJournal(
+            @Value("${blackjack.journal.dir:data/journal}") Path directory,
+            @Value("${blackjack.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${blackjack.journal.flush-interval:10ms}") Duration flushInterval,
+            MeterRegistry meterRegistry) throws IOException {
+        if (segmentSize.toBytes() < RECORD_SIZE || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid journal segment size " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) (segmentSize.toBytes() / RECORD_SIZE * RECORD_SIZE);
+        this.records = Counter.builder("blackjack.journal.records").register(meterRegistry);
+        this.syncs = Timer.builder("blackjack.journal.sync")
+                .description("Thời gian fsync một lô bản ghi nhật ký")
+                .register(meterRegistry);
+
+        // Ghi tiếp vào segment cuối, ngay sau bản ghi hợp lệ cuối cùng
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        if (existing.isEmpty()) {
+            current = open(0);
+        } else {
+            current = open(sequenceOf(existing.get(existing.size() - 1)));
+            CRC32C check = new CRC32C();
+            while (isValid(current.buffer, position, check)) {
+                position += RECORD_SIZE;
+            }
+            current.synced = position;
+            log.info("Resuming round journal {} at segment {}, offset {}", directory, current.sequence, position);
+        }
+
+        long intervalNanos = flushInterval.toNanos();
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("journal-flush").factory());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+        long amountBits = event == RoundEvent.SHOE ? state.getDeck().seed() : amount;
+        append(state.getPlayerId(), event, handIndex, cardCode, amountBits, state.getPlayerBalance());
+    }
+
+    void append(long playerId, RoundEvent event, int handIndex, int cardCode, long amountBits, long balance) {
+        lock.lock();
+        try {
+            if (position + RECORD_SIZE > current.buffer.capacity()) {
+                roll();
+            }
+            record.putLong(PLAYER, playerId)
+                    .putLong(TIME, System.currentTimeMillis())
+                    .putLong(AMOUNT, amountBits)
+                    .putLong(BALANCE, balance)
+                    .put(EVENT, event.code())
+                    .put(HAND, (byte) handIndex)
+                    .put(CARD, (byte) cardCode)
+                    .put(UNITS, UNITS_MINOR);
+            crc.reset();
+            crc.update(scratch, 0, CHECKSUM_OFFSET);
+            record.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+            current.buffer.put(position, scratch);
+            position += RECORD_SIZE;
+        } finally {
+            lock.unlock();
+        }
+        records.increment();
+    }
+
+    // Segment đầy: chuyển cho luồng flush fsync nốt, mở segment mới
+    private void roll() {
+        retired.add(current);
+        try {
+            current = open(current.sequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal segment " + (current.sequence + 1), e);
+        }
+        position = 0;
+    }
+
+    private Segment open(long sequence) throws IOException {
+        Path file = segmentFile(directory, sequence);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Map đủ cả segment ngay từ đầu (file được nới ra, phần chưa ghi là byte 0); mapping vẫn dùng được sau khi đóng channel
+            long size = Math.max(channel.size(), segmentSize);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ORDER);
+            return new Segment(sequence, buffer);
+        }
+    }
+
+    // Group commit: fsync mọi thứ đã ghi từ lần trước, không giữ lock trong lúc chờ đĩa
+    void flush() {
+        List<Segment> full;
+        Segment segment;
+        int end;
+        lock.lock();
+        try {
+            full = retired.isEmpty() ? List.of() : new ArrayList<>(retired);
+            retired.clear();
+            segment = current;
+            end = position;
+        } finally {
+            lock.unlock();
+        }
+
+        long start = System.nanoTime();
+        for (Segment done : full) {
+            done.buffer.force();
+        }
+        if (end > segment.synced) {
+            segment.buffer.force(segment.synced, end - segment.synced);
+            segment.synced = end;
+        } else if (full.isEmpty()) {
+            return;
+        }
+        syncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Could not sync round journal {}", directory, e);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
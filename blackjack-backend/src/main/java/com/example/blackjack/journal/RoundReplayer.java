@@ -0,0 +1,255 @@
+package com.example.blackjack.journal;
+
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.RuleProfile;
+import com.example.blackjack.service.ShoeSource;
+import com.example.blackjack.wallet.Wallet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chạy lại hàng loạt các ván trong nhật ký ({@link RoundJournal}) qua {@link BlackjackService} với một bộ luật
+ * (mặc định {@code standard}, hoặc profile trong {@code application.properties} qua tham số thứ hai) và báo mọi
+ * ván có khoản thanh toán khác với bản ghi, để kiểm tra thay đổi luật trên lịch sử thật.
+ * Nhật ký được cắt thành các đoạn, mỗi đoạn là một shoe của một người chơi (từ bản ghi SHOE đến bản ghi SHOE kế tiếp
+ * của người đó): đoạn bắt đầu từ shoe xáo lại bằng seed đã ghi và số dư lúc đó, nên các đoạn độc lập và chạy song song.
+ * Ván trước bản ghi SHOE đầu tiên của một người chơi không thể dựng lại và bị bỏ qua.
+ * <pre>
+ * java -Dloader.main=com.example.blackjack.journal.RoundReplayer -cp blackjack-0.0.1-SNAPSHOT-exec.jar \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher &lt;thư mục nhật ký&gt; [bộ luật]
+ * </pre>
+ */
+public final class RoundReplayer {
+
+    // round đếm từ 1 trong đoạn (shoe) của người chơi
+    public record Mismatch(long playerId, long seed, int round, String reason) {
+    }
+
+    public record Report(long shoes, long rounds, long settlements, List<Mismatch> mismatches) {
+    }
+
+    private record Settlement(int handIndex, long returned) {
+    }
+
+    private record RunResult(int rounds, int settlements, List<Mismatch> mismatches) {
+    }
+
+    // Các bước của một đoạn dạng mảng nguyên thủy, để giữ được hàng triệu ván trong bộ nhớ; không giữ các lá được chia
+    private static final class Run {
+        final long playerId;
+        final long seed;
+        final long balance;
+        byte[] events = new byte[32];
+        byte[] hands = new byte[32];
+        long[] amounts = new long[32];
+        int size;
+
+        Run(long playerId, long seed, long balance) {
+            this.playerId = playerId;
+            this.seed = seed;
+            this.balance = balance;
+        }
+
+        void add(RoundEvent event, int handIndex, long amount) {
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+                hands = Arrays.copyOf(hands, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            events[size] = event.code();
+            hands[size] = (byte) handIndex;
+            amounts[size] = amount;
+            size++;
+        }
+    }
+
+    // Shoe của đoạn: chỉ một shoe, xáo lại từ seed đã ghi
+    private static final class RecordedShoe implements ShoeSource {
+        private final int decks;
+        private final long seed;
+        private boolean taken;
+
+        RecordedShoe(int decks, long seed) {
+            this.decks = decks;
+            this.seed = seed;
+        }
+
+        @Override
+        public Deck take() {
+            if (taken) {
+                throw new IllegalStateException("Cần xáo lại sớm hơn so với bản ghi");
+            }
+            taken = true;
+            Deck deck = new Deck(decks);
+            deck.shuffle(seed);
+            return deck;
+        }
+    }
+
+    private RoundReplayer() {
+    }
+
+    public static Report replay(Path directory) throws IOException {
+        return replay(directory, BlackjackRules.STANDARD);
+    }
+
+    public static Report replay(Path directory, BlackjackRules rules) throws IOException {
+        List<Run> runs = new ArrayList<>();
+        Map<Long, Run> current = new HashMap<>();
+        JournalReader.forEach(directory, (playerId, timeMillis, event, handIndex, cardCode, amount, balance, seed) -> {
+            switch (event) {
+                case SHOE -> {
+                    Run run = new Run(playerId, seed, balance);
+                    runs.add(run);
+                    current.put(playerId, run);
+                }
+                // Lá bài được sinh lại từ seed
+                case DEAL, DEALER_DRAW -> {
+                }
+                default -> {
+                    Run run = current.get(playerId);
+                    if (run != null) {
+                        run.add(event, handIndex, amount);
+                    }
+                }
+            }
+        });
+
+        List<RunResult> results = runs.parallelStream().map(run -> replay(run, rules)).toList();
+
+        long rounds = 0;
+        long settlements = 0;
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (RunResult result : results) {
+            rounds += result.rounds();
+            settlements += result.settlements();
+            mismatches.addAll(result.mismatches());
+        }
+        return new Report(runs.size(), rounds, settlements, mismatches);
+    }
+
+    private static RunResult replay(Run run, BlackjackRules rules) {
+        List<Settlement> replayed = new ArrayList<>();
+        GameEventListener recorder = new GameEventListener() {
+            @Override
+            public void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+                if (event == RoundEvent.SETTLE) {
+                    replayed.add(new Settlement(handIndex, amount));
+                }
+            }
+        };
+        // Ví riêng của lần chạy lại, mở với số dư đã ghi trước ván đầu
+        Wallet wallet = Wallet.inMemory();
+        wallet.open(run.playerId, run.balance);
+        BlackjackService service =
+                new BlackjackService(rules, new RecordedShoe(rules.decks(), run.seed), recorder, wallet);
+        GameState state = service.startGame(run.playerId);
+
+        List<Settlement> recorded = new ArrayList<>();
+        List<Mismatch> mismatches = new ArrayList<>(0);
+        int round = 0;
+        int settlements = 0;
+        for (int i = 0; i < run.size; i++) {
+            RoundEvent event = RoundEvent.fromCode(run.events[i]);
+            int handIndex = run.hands[i];
+            long amount = run.amounts[i];
+            if (event == RoundEvent.SETTLE) {
+                recorded.add(new Settlement(handIndex, amount));
+                settlements++;
+                continue;
+            }
+            if (event == RoundEvent.BET) {
+                compare(run, round, recorded, replayed, mismatches);
+                recorded.clear();
+                replayed.clear();
+                round++;
+            }
+
+            PlayerAction action = actionFor(event, amount);
+            if (!state.allows(action)) {
+                mismatches.add(new Mismatch(run.playerId, run.seed, round, action + " không hợp lệ theo luật hiện tại"));
+                return new RunResult(round, settlements, mismatches);
+            }
+            try {
+                state = apply(service, state, event, handIndex, amount);
+            } catch (RuntimeException e) {
+                mismatches.add(new Mismatch(run.playerId, run.seed, round, e.getMessage()));
+                return new RunResult(round, settlements, mismatches);
+            }
+        }
+        // Ván cuối có thể chưa kết thúc khi nhật ký được đọc
+        if (!recorded.isEmpty() || state.isRoundOver()) {
+            compare(run, round, recorded, replayed, mismatches);
+        }
+        return new RunResult(round, settlements, mismatches);
+    }
+
+    private static void compare(Run run, int round, List<Settlement> recorded, List<Settlement> replayed,
+                                List<Mismatch> mismatches) {
+        if (!recorded.equals(replayed)) {
+            mismatches.add(new Mismatch(run.playerId, run.seed, round,
+                    "thanh toán đã ghi " + recorded + ", chạy lại được " + replayed));
+        }
+    }
+
+    private static PlayerAction actionFor(RoundEvent event, long amount) {
+        return switch (event) {
+            case BET -> PlayerAction.PLACE_BET;
+            case INSURANCE -> amount > 0 ? PlayerAction.BUY_INSURANCE : PlayerAction.NO_INSURANCE;
+            case HIT -> PlayerAction.HIT;
+            case STAND -> PlayerAction.STAND;
+            case DOUBLE -> PlayerAction.DOUBLE_DOWN;
+            case SPLIT -> PlayerAction.SPLIT;
+            case SURRENDER -> PlayerAction.SURRENDER;
+            default -> throw new IllegalArgumentException("Not a player action: " + event);
+        };
+    }
+
+    private static GameState apply(BlackjackService service, GameState state, RoundEvent event, int handIndex,
+                                   long amount) {
+        return switch (event) {
+            case BET -> service.placeBet(state, amount);
+            case INSURANCE -> service.resolveInsurance(state, amount > 0);
+            case HIT -> service.playerHit(state, handIndex);
+            case STAND -> service.playerStand(state, handIndex);
+            case DOUBLE -> service.playerDoubleDown(state, handIndex);
+            case SPLIT -> service.playerSplit(state, handIndex);
+            case SURRENDER -> service.playerSurrender(state, handIndex);
+            default -> throw new IllegalArgumentException("Not a player action: " + event);
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: RoundReplayer <journal-dir> [rule-profile]");
+            System.exit(2);
+        }
+        BlackjackRules rules = args.length == 2
+                ? BlackjackRules.compile(RuleProfile.load(args[1]))
+                : BlackjackRules.STANDARD;
+        long start = System.nanoTime();
+        Report report = replay(Path.of(args[0]), rules);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report.mismatches().stream().limit(50).forEach(mismatch -> System.out.printf(
+                "player=%d seed=%d round=%d: %s%n", mismatch.playerId(), mismatch.seed(), mismatch.round(), mismatch.reason()));
+        System.err.printf("%d rounds on %d shoes, %d settlements, %d mismatches in %.3f s (%.0f rounds/s)%n",
+                report.rounds(), report.shoes(), report.settlements(), report.mismatches().size(), seconds,
+                report.rounds() / seconds);
+        if (!report.mismatches().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,18 +1,54 @@
 package com.example.blackjack.model;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import java.io.Serializable;
 
 @Data // Lombok: tự tạo getter, setter, toString...
-@RequiredArgsConstructor // Lombok: tự tạo constructor cho các field final
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE) // Chỉ tạo qua Card.of / Card.fromCode
 public class Card implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    private static final int RANKS = Rank.values().length;
+
+    // 52 lá bài dùng chung, chỉ số chính là mã lá bài (suit * 13 + rank)
+    private static final Card[] CANONICAL = new Card[Suit.values().length * RANKS];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                CANONICAL[encode(suit, rank)] = new Card(suit, rank);
+            }
+        }
+    }
+
     private final Suit suit;
     private final Rank rank;
 
+    public static Card of(Suit suit, Rank rank) {
+        return CANONICAL[encode(suit, rank)];
+    }
+
+    public static Card fromCode(int code) {
+        return CANONICAL[code];
+    }
+
+    static int encode(Suit suit, Rank rank) {
+        return suit.ordinal() * RANKS + rank.ordinal();
+    }
+
+    // Mã lá bài 0..51, dùng cho shoe dạng byte[]
+    public int code() {
+        return encode(suit, rank);
+    }
+
     public int getValue() {
         return rank.getValue();
     }
-}
\ No newline at end of file
+
+    // Giữ duy nhất một instance cho mỗi lá bài sau khi deserialize
+    private Object readResolve() {
+        return of(suit, rank);
+    }
+}
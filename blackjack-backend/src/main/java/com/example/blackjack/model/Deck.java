@@ -1,36 +1,172 @@
 package com.example.blackjack.model;
 
-import java.util.Collections;
-import java.util.Stack;
-
-import lombok.Data;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
-@Data
+/**
+ * Shoe gồm nhiều bộ bài, lưu dưới dạng mảng mã lá bài (byte) và một con trỏ.
+ * Lá được chia tiếp theo nằm ở cuối phần còn lại, giống thứ tự pop của Stack trước đây,
+ * nên JSON của {@code cards} không thay đổi. Chia bài không cấp phát đối tượng mới.
+ * Số lá còn lại theo từng giá trị ({@link ShoeComposition}) được cập nhật mỗi lần chia,
+ * nên không cần quét lại shoe khi tính xác suất.
+ * Shoe xáo bằng {@link #shuffle(long)} có thứ tự hoàn toàn xác định bởi seed 64 bit, nên mọi ván chơi trên nó
+ * có thể được dựng lại từ seed và chuỗi hành động.
+ */
 public class Deck implements Serializable {
-    private static final long serialVersionUID = 1L;
-    
-    private Stack<Card> cards = new Stack<>();
+    private static final long serialVersionUID = 4L;
+
+    private final byte[] codes;
+    private int remaining;
+    private long composition;
+    private long seed;
 
     public Deck(int numberOfDecks) {
-        for (int i = 0; i < numberOfDecks; i++) {
+        codes = new byte[numberOfDecks * 52];
+        stack();
+    }
+
+    private Deck(byte[] codes, int remaining, long seed) {
+        this.codes = codes;
+        this.remaining = remaining;
+        this.composition = countRemaining();
+        this.seed = seed;
+    }
+
+    // Xếp toàn bộ shoe theo thứ tự chuẩn (từng bộ, từng chất, từng rank)
+    private void stack() {
+        int i = 0;
+        while (i < codes.length) {
             for (Suit suit : Suit.values()) {
                 for (Rank rank : Rank.values()) {
-                    cards.push(new Card(suit, rank));
+                    codes[i++] = (byte) Card.encode(suit, rank);
                 }
             }
         }
+        remaining = codes.length;
+        composition = countRemaining();
+    }
+
+    // Dựng lại shoe xáo bằng shuffle(seed) đã chia đến khi còn remaining lá, không cần lưu các lá
+    public static Deck fromSeed(int numberOfDecks, long seed, int remaining) {
+        Deck deck = new Deck(numberOfDecks);
+        deck.seed = seed;
+        deck.shuffle(new SplittableRandom(seed));
+        return deck.copyAt(remaining);
+    }
+
+    // Bản sao độc lập của shoe này khi còn remaining lá (cùng thứ tự và seed); rẻ hơn nhiều so với xáo lại
+    public Deck copyAt(int remaining) {
+        if (remaining < 0 || remaining > codes.length) {
+            throw new IllegalArgumentException("Invalid remaining card count " + remaining);
+        }
+        return new Deck(codes.clone(), remaining, seed);
     }
 
+    // Dạng nhị phân gọn: số lá, số lá còn lại, seed, rồi mã từng lá
+    public void writeTo(ByteBuffer out) {
+        out.putShort((short) codes.length);
+        out.putShort((short) remaining);
+        out.putLong(seed);
+        out.put(codes);
+    }
+
+    public static Deck readFrom(ByteBuffer in) {
+        int capacity = Short.toUnsignedInt(in.getShort());
+        int remaining = Short.toUnsignedInt(in.getShort());
+        long seed = in.getLong();
+        byte[] codes = new byte[capacity];
+        in.get(codes);
+        return new Deck(codes, remaining, seed);
+    }
+
+    // Xáo lại toàn bộ shoe với seed ngẫu nhiên của luồng hiện tại (không tranh chấp giữa các luồng)
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(ThreadLocalRandom.current().nextLong());
+    }
+
+    // Xếp lại toàn bộ shoe rồi xáo bằng SplittableRandom(seed): cùng seed luôn cho cùng thứ tự lá
+    public void shuffle(long seed) {
+        stack();
+        this.seed = seed;
+        shuffle(new SplittableRandom(seed));
+    }
+
+    // Fisher-Yates tại chỗ trên các lá còn lại
+    public void shuffle(RandomGenerator rng) {
+        for (int i = remaining - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            byte tmp = codes[i];
+            codes[i] = codes[j];
+            codes[j] = tmp;
+        }
+    }
+
+    // Gom lại toàn bộ lá đã chia vào shoe (chưa xáo), dùng lại mảng thay vì tạo Deck mới
+    public void reset() {
+        remaining = codes.length;
+        composition = countRemaining();
     }
 
     public Card deal() {
-        return cards.isEmpty() ? null : cards.pop();
+        if (remaining == 0) {
+            return null;
+        }
+        byte code = codes[--remaining];
+        composition = ShoeComposition.remove(composition, ShoeComposition.classOfCode(code));
+        return Card.fromCode(code);
+    }
+
+    // Seed của lần xáo gần nhất bằng shuffle(long)
+    public long seed() {
+        return seed;
+    }
+
+    // Số lá còn lại theo giá trị, dạng nén của ShoeComposition
+    public long composition() {
+        return composition;
     }
-    
+
+    private long countRemaining() {
+        long counts = 0;
+        for (int i = 0; i < remaining; i++) {
+            counts = ShoeComposition.add(counts, ShoeComposition.classOfCode(codes[i]));
+        }
+        return counts;
+    }
+
     public int size() {
-        return cards.size();
+        return remaining;
+    }
+
+    public int capacity() {
+        return codes.length;
+    }
+
+    // Các lá còn lại, lá cuối danh sách là lá sẽ được chia tiếp theo
+    public List<Card> getCards() {
+        return new AbstractList<>() {
+            @Override
+            public Card get(int index) {
+                if (index < 0 || index >= remaining) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return Card.fromCode(codes[index]);
+            }
+
+            @Override
+            public int size() {
+                return remaining;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "Deck(remaining=" + remaining + "/" + codes.length + ")";
     }
-}
\ No newline at end of file
+}
@@ -9,16 +9,36 @@ import java.util.List;
 @Data
 public class GameState implements Serializable {
     private static final long serialVersionUID = 1L;
-    
+
+    // Định danh người chơi trong nhật ký ván bài (RoundJournal)
+    private long playerId;
+
     private Deck deck;
     private List<Hand> playerHands = new ArrayList<>();
     private Hand dealerHand = new Hand();
     
-    private double playerBalance = 1000.0; // Số dư khởi tạo
+    // Số dư tính bằng xu (Money), bản sao của tài khoản ví; khởi tạo 1000.00
+    private long playerBalance = 100_000;
     
     private String gameMessage;
     private boolean roundOver;
     
-    // Danh sách các hành động hợp lệ cho frontend hiển thị
-    private List<String> availableActions = new ArrayList<>();
+    // Các hành động hợp lệ lúc này (bitmask theo PlayerAction), dùng cho frontend và để từ chối hành động không hợp lệ
+    private int actionMask;
+
+    // Tăng sau mỗi hành động, client dùng để nhận bản vá (delta) thay vì toàn bộ trạng thái
+    private long version;
+
+    public void bumpVersion() {
+        version++;
+    }
+
+    public boolean allows(PlayerAction action) {
+        return action.in(actionMask);
+    }
+
+    // Tên các hành động hợp lệ (danh sách dùng chung, không sửa được)
+    public List<String> getAvailableActions() {
+        return PlayerAction.names(actionMask);
+    }
 }
\ No newline at end of file
@@ -1,45 +1,91 @@
 package com.example.blackjack.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Data
 public class Hand implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private List<Card> cards = new ArrayList<>();
-    private double betAmount;
+    // Chỉ thay đổi qua addCard/removeCard/clear để tổng điểm luôn khớp với các lá bài
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<Card> cards = new ArrayList<>();
+    private long betAmount; // xu (Money)
     private HandStatus status = HandStatus.PLAYING;
 
+    // Tổng điểm khi tính mọi lá Át là 1, và số lá Át; cập nhật mỗi khi thêm/bớt lá
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int hardTotal;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int aceCount;
+
+    public List<Card> getCards() {
+        return Collections.unmodifiableList(cards);
+    }
+
     public void addCard(Card card) {
         cards.add(card);
+        count(card, 1);
     }
 
-    public int getHandValue() {
-        int value = 0;
-        int aceCount = 0;
-        for (Card card : cards) {
-            value += card.getValue();
-            if (card.getRank() == Rank.ACE) {
-                aceCount++;
-            }
-        }
-        // Xử lý Át: nếu tổng điểm > 21, chuyển giá trị Át từ 11 về 1
-        while (value > 21 && aceCount > 0) {
-            value -= 10;
-            aceCount--;
+    // Dùng khi tách bài: lấy lá ra khỏi tay này để chuyển sang tay mới
+    public Card removeCard(int index) {
+        Card card = cards.remove(index);
+        count(card, -1);
+        return card;
+    }
+
+    private void count(Card card, int sign) {
+        if (card.getRank() == Rank.ACE) {
+            aceCount += sign;
+            hardTotal += sign;
+        } else {
+            hardTotal += sign * card.getValue();
         }
-        return value;
+    }
+
+    // Tối đa một lá Át được tính 11 (hai lá đã là 22), nên không cần vòng lặp trừ 10 như trước
+    public int getHandValue() {
+        return isSoft() ? hardTotal + 10 : hardTotal;
+    }
+
+    // Có một lá Át đang được tính là 11
+    @JsonIgnore
+    public boolean isSoft() {
+        return aceCount > 0 && hardTotal + 10 <= 21;
+    }
+
+    @JsonIgnore
+    public boolean isBust() {
+        return hardTotal > 21;
     }
 
     public boolean isBlackjack() {
-        return getCards().size() == 2 && getHandValue() == 21;
+        return cards.size() == 2 && getHandValue() == 21;
     }
 
     public void clear() {
         cards.clear();
+        hardTotal = 0;
+        aceCount = 0;
         betAmount = 0;
     }
-}
\ No newline at end of file
+}
@@ -4,5 +4,6 @@ public enum HandStatus {
     PLAYING, // Đang chơi
     STOOD,   // Đã dừng
     BUSTED,  // Đã thua (quắc)
-    BLACKJACK; // Thắng Blackjack
+    BLACKJACK, // Thắng Blackjack
+    SURRENDERED; // Đã đầu hàng, nhận lại nửa cược
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.blackjack.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Các hành động người chơi có thể làm. Tập hành động hợp lệ được lưu dưới dạng bitmask ({@link #bit()});
+ * danh sách tên gửi cho client được tạo sẵn cho mọi mask nên không cấp phát khi dựng view.
+ */
+public enum PlayerAction {
+    PLACE_BET,
+    BUY_INSURANCE,
+    NO_INSURANCE,
+    HIT,
+    STAND,
+    DOUBLE_DOWN,
+    SPLIT,
+    SURRENDER;
+
+    private static final PlayerAction[] VALUES = values();
+
+    // NAMES[mask] là danh sách tên (không sửa được) theo thứ tự khai báo, dùng chung cho mọi view
+    private static final List<List<String>> NAMES = buildNames();
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int mask(PlayerAction... actions) {
+        int mask = 0;
+        for (PlayerAction action : actions) {
+            mask |= action.bit();
+        }
+        return mask;
+    }
+
+    public static List<String> names(int mask) {
+        return NAMES.get(mask);
+    }
+
+    private static List<List<String>> buildNames() {
+        List<List<String>> names = new ArrayList<>(1 << VALUES.length);
+        for (int mask = 0; mask < 1 << VALUES.length; mask++) {
+            List<String> list = new ArrayList<>(Integer.bitCount(mask));
+            for (PlayerAction action : VALUES) {
+                if (action.in(mask)) {
+                    list.add(action.name());
+                }
+            }
+            names.add(List.copyOf(list));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.blackjack.model;
+
+/**
+ * Các sự kiện trong một ván của người chơi, theo đúng thứ tự xảy ra. Được ghi vào nhật ký ván bài
+ * ({@code RoundJournal}) để dựng lại số dư và lịch sử từng ván.
+ */
+public enum RoundEvent {
+    BET,          // Đặt cược, bắt đầu ván mới
+    DEAL,         // Chia một lá lúc đầu ván hoặc sau khi tách bài (tay -1 là nhà cái)
+    INSURANCE,    // Quyết định bảo hiểm, số tiền là giá bảo hiểm (0 nếu không mua)
+    HIT,
+    STAND,
+    DOUBLE,       // Số tiền là phần cược thêm
+    SPLIT,        // Số tiền là cược của tay mới
+    DEALER_DRAW,
+    SETTLE,       // Số tiền là tổng trả lại cho người chơi (tay -1 là cược bảo hiểm)
+    SHOE,         // Lấy shoe mới trước khi đặt cược; nhật ký ghi seed của shoe (Deck#seed())
+    SURRENDER;    // Đầu hàng; tiền nhận lại nằm ở bản ghi SETTLE theo sau
+
+    private static final RoundEvent[] VALUES = values();
+
+    // Mã một byte trong bản ghi nhật ký; 0 dành cho vùng chưa ghi
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    public static RoundEvent fromCode(int code) {
+        return VALUES[code - 1];
+    }
+}
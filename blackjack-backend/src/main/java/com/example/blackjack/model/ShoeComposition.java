@@ -0,0 +1,73 @@
+package com.example.blackjack.model;
+
+/**
+ * Thành phần của shoe (số lá còn lại theo giá trị điểm) nén trong một {@code long}, dùng làm khóa cache.
+ * Có 10 lớp giá trị: lớp 0 là Át, lớp 1..8 là 2..9, lớp 9 gồm mọi lá 10 điểm (10, J, Q, K).
+ * Lớp 0..8 dùng 6 bit mỗi lớp, lớp 9 dùng 8 bit, đủ cho tối đa 15 bộ bài.
+ */
+public final class ShoeComposition {
+
+    public static final int CLASSES = 10;
+    public static final int ACE = 0;
+    public static final int TEN = 9;
+
+    private static final int BITS = 6;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long TEN_MASK = 0xFF;
+    private static final int TEN_SHIFT = BITS * TEN;
+
+    // Lớp giá trị theo mã lá bài (0..51)
+    private static final int[] CLASS_OF_CODE = new int[52];
+
+    static {
+        for (int code = 0; code < CLASS_OF_CODE.length; code++) {
+            CLASS_OF_CODE[code] = classOf(Card.fromCode(code).getRank());
+        }
+    }
+
+    private ShoeComposition() {
+    }
+
+    public static int classOf(Rank rank) {
+        int value = rank.getValue();
+        return value == 11 ? ACE : value - 1;
+    }
+
+    public static int classOfCode(int code) {
+        return CLASS_OF_CODE[code];
+    }
+
+    // Điểm của lớp khi tính Át là 1
+    public static int hardValue(int cls) {
+        return cls + 1;
+    }
+
+    public static int count(long shoe, int cls) {
+        return cls == TEN ? (int) (shoe >>> TEN_SHIFT & TEN_MASK) : (int) (shoe >>> (BITS * cls) & MASK);
+    }
+
+    public static long add(long shoe, int cls) {
+        return shoe + (1L << (BITS * cls));
+    }
+
+    // Người gọi phải bảo đảm lớp còn lá
+    public static long remove(long shoe, int cls) {
+        return shoe - (1L << (BITS * cls));
+    }
+
+    public static int total(long shoe) {
+        int total = 0;
+        for (int cls = 0; cls < CLASSES; cls++) {
+            total += count(shoe, cls);
+        }
+        return total;
+    }
+
+    public static long of(Iterable<Card> cards) {
+        long shoe = 0;
+        for (Card card : cards) {
+            shoe = add(shoe, classOf(card.getRank()));
+        }
+        return shoe;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.blackjack.service;
+
+/**
+ * Hành động của người chơi không hợp lệ với trạng thái hiện tại của game hoặc bàn (không nằm trong
+ * availableActions, chưa đến lượt, bàn đã đủ người...). Controller trả 409 kèm thông báo cho người chơi; các lỗi
+ * khác (kể cả {@link IllegalStateException} do lỗi của server) không bị che thành 409.
+ */
+public class ActionNotAllowedException extends RuntimeException {
+
+    public ActionNotAllowedException(String message) {
+        super(message);
+    }
+}
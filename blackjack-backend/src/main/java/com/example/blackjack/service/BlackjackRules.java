@@ -0,0 +1,178 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.Hand;
+
+import static com.example.blackjack.model.PlayerAction.*;
+
+/**
+ * Luật chơi của một loại bàn, dùng chung cho {@link BlackjackService}, bàn nhiều người chơi, chế độ mô phỏng và
+ * phần gợi ý nước đi. Được dịch một lần từ {@link RuleProfile} thành các bảng bất biến: quyết định rút bài của
+ * nhà cái, hệ số trả Blackjack và tập hành động hợp lệ đều là tra mảng, đường xử lý hành động không rẽ nhánh theo
+ * cấu hình.
+ * Các hệ số trả thưởng là số tiền hoàn lại cho người chơi trên mỗi đơn vị cược (đã gồm tiền gốc).
+ */
+public final class BlackjackRules {
+
+    // Tổng điểm nhỏ nhất mà nhà cái dừng, theo mọi luật (17 cứng)
+    public static final int DEALER_STAND_VALUE = 17;
+
+    public static final double WIN_RETURN = 2.0;
+    public static final double PUSH_RETURN = 1.0;
+    public static final double LOSS_RETURN = 0.0;
+    // Đầu hàng: nhận lại nửa cược
+    public static final double SURRENDER_RETURN = 0.5;
+
+    // Bảo hiểm giá bằng nửa cược, trả 1:1: nhà cái có Blackjack thì nhận lại 1.0 lần cược chính (tiền bảo hiểm
+    // cộng số tiền thắng bằng nó), không phải 2:1 như luật casino thông thường
+    public static final double INSURANCE_COST = 0.5;
+    public static final double INSURANCE_RETURN = 1.0;
+
+    // Số tay bài tối đa của một người chơi sau khi tách, theo mọi luật (kích thước mảng, định dạng token)
+    public static final int MAX_HANDS = 16;
+
+    // Bitmask hành động hợp lệ (xem PlayerAction) ngoài lượt chơi tay bài
+    public static final int BETTING_ACTIONS = PLACE_BET.bit();
+    public static final int INSURANCE_ACTIONS = mask(BUY_INSURANCE, NO_INSURANCE);
+
+    public static final BlackjackRules STANDARD = compile(RuleProfile.STANDARD);
+
+    // Các bit của khóa bảng hành động
+    private static final int TWO_CARDS = 1;
+    private static final int PAIR = 2;
+    private static final int CAN_AFFORD = 4;
+    private static final int BELOW_HAND_LIMIT = 8;
+    private static final int SPLIT_HAND = 16;
+    private static final int SPLIT_ACES = 32;
+
+    // Khóa của bảng rút bài: tổng điểm (không quá 31 khi nhà cái còn phải rút), cộng 32 nếu mềm
+    private static final int SOFT = 32;
+
+    private final RuleProfile profile;
+    private final int decks;
+    private final int reshuffleBelow;
+    private final int maxHands;
+    private final boolean[] dealerHits;
+    // [người chơi có Blackjack][nhà cái có Blackjack]
+    private final double[][] blackjackReturns;
+    private final int[] playerTurnActions;
+
+    private BlackjackRules(RuleProfile profile) {
+        this.profile = profile;
+        this.decks = profile.decks();
+        this.reshuffleBelow = (int) Math.ceil(decks * 52 * profile.reshufflePenetration());
+        this.maxHands = profile.maxHands();
+        this.dealerHits = buildDealerHits(profile);
+        // Blackjack thắng: cược gốc + tiền thắng theo tỉ lệ (3:2 là 2.5)
+        this.blackjackReturns = new double[][]{
+                {PUSH_RETURN, LOSS_RETURN},
+                {1 + profile.blackjackPayout(), PUSH_RETURN}};
+        this.playerTurnActions = buildPlayerTurnActions(profile);
+    }
+
+    public static BlackjackRules compile(RuleProfile profile) {
+        return new BlackjackRules(profile);
+    }
+
+    public RuleProfile profile() {
+        return profile;
+    }
+
+    public String name() {
+        return profile.name();
+    }
+
+    public int decks() {
+        return decks;
+    }
+
+    public boolean needsReshuffle(int cardsRemaining) {
+        return cardsRemaining < reshuffleBelow;
+    }
+
+    public boolean dealerMustHit(int dealerValue, boolean soft) {
+        return dealerValue < SOFT && dealerHits[soft ? dealerValue | SOFT : dealerValue];
+    }
+
+    public boolean dealerMustHit(Hand dealerHand) {
+        return dealerMustHit(dealerHand.getHandValue(), dealerHand.isSoft());
+    }
+
+    // Kết quả tay bài thường sau lượt nhà cái (resolveBets)
+    public static double settlementReturn(boolean busted, int playerValue, int dealerValue) {
+        if (busted) {
+            return LOSS_RETURN;
+        } else if (dealerValue > 21 || playerValue > dealerValue) {
+            return WIN_RETURN;
+        } else if (playerValue < dealerValue) {
+            return LOSS_RETURN;
+        }
+        return PUSH_RETURN;
+    }
+
+    // Kết quả khi ít nhất một bên có Blackjack ngay từ đầu (resolveBlackjacks)
+    public double blackjackReturn(boolean playerBlackjack, boolean dealerBlackjack) {
+        return blackjackReturns[playerBlackjack ? 1 : 0][dealerBlackjack ? 1 : 0];
+    }
+
+    /**
+     * Hành động hợp lệ cho tay bài đang chơi. {@code canAffordExtraBet}: số dư còn đủ một lần cược của tay này
+     * (để gấp đôi hoặc tách); {@code handCount}: số tay bài hiện có của người chơi (lớn hơn 1 nghĩa là tay này đến
+     * từ một lần tách); {@code splitAces}: tay tách từ Át. Trả về 0 khi tay bài không còn hành động nào theo luật
+     * (tách Át chỉ được một lá) và phải dừng ngay.
+     */
+    public int playerTurnActions(int cardCount, boolean pair, boolean canAffordExtraBet, int handCount,
+                                 boolean splitAces) {
+        return playerTurnActions[(cardCount == 2 ? TWO_CARDS : 0) | (pair ? PAIR : 0)
+                | (canAffordExtraBet ? CAN_AFFORD : 0) | (handCount < maxHands ? BELOW_HAND_LIMIT : 0)
+                | (handCount > 1 ? SPLIT_HAND : 0) | (splitAces ? SPLIT_ACES : 0)];
+    }
+
+    // Tỉ lệ trả Blackjack để hiển thị, ví dụ 3:2
+    public String blackjackPays() {
+        return profile.blackjackPays();
+    }
+
+    // Tiền hoàn lại của cược bảo hiểm (resolveInsurance)
+    public static double insuranceReturn(boolean dealerBlackjack) {
+        return dealerBlackjack ? INSURANCE_RETURN : 0.0;
+    }
+
+    private static boolean[] buildDealerHits(RuleProfile profile) {
+        boolean[] table = new boolean[2 * SOFT];
+        for (int value = 0; value < SOFT; value++) {
+            table[value] = value < DEALER_STAND_VALUE;
+            table[value | SOFT] = value < DEALER_STAND_VALUE
+                    || (value == DEALER_STAND_VALUE && profile.dealerHitsSoft17());
+        }
+        return table;
+    }
+
+    private static int[] buildPlayerTurnActions(RuleProfile profile) {
+        int[] table = new int[2 * SPLIT_ACES];
+        for (int key = 0; key < table.length; key++) {
+            boolean twoCards = (key & TWO_CARDS) != 0;
+            boolean pair = twoCards && (key & PAIR) != 0;
+            boolean canAffordExtraBet = (key & CAN_AFFORD) != 0;
+            boolean belowHandLimit = (key & BELOW_HAND_LIMIT) != 0;
+            boolean splitHand = (key & SPLIT_HAND) != 0;
+            boolean splitAces = splitHand && (key & SPLIT_ACES) != 0;
+
+            if (splitAces && !profile.hitSplitAces()) {
+                table[key] = 0;
+                continue;
+            }
+            int actions = mask(HIT, STAND);
+            if (twoCards && canAffordExtraBet && (!splitHand || profile.doubleAfterSplit())) {
+                actions |= DOUBLE_DOWN.bit();
+            }
+            if (pair && canAffordExtraBet && belowHandLimit) {
+                actions |= SPLIT.bit();
+            }
+            if (twoCards && !splitHand && profile.surrender()) {
+                actions |= SURRENDER.bit();
+            }
+            table[key] = actions;
+        }
+        return table;
+    }
+}
@@ -2,61 +2,118 @@ package com.example.blackjack.service;
 
 import com.example.blackjack.model.*;
 
+import static com.example.blackjack.service.BlackjackRules.*;
+
+import com.example.blackjack.wallet.Money;
+import com.example.blackjack.wallet.Wallet;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Service
 public class BlackjackService {
 
-    private static final int NUM_OF_DECKS = 8;
-    private static final int DEALER_STAND_VALUE = 17;
+    private final BlackjackRules rules;
+    private final ShoeSource shoes;
+    private final GameEventListener listener;
+    private final Wallet wallet;
+
+    // Số bộ bài của shoe lấy từ shoes phải khớp với rules.decks()
+    public BlackjackService(BlackjackRules rules, ShoeSource shoes, GameEventListener listener, Wallet wallet) {
+        this.rules = rules;
+        this.shoes = shoes;
+        this.listener = listener;
+        this.wallet = wallet;
+    }
+
+    public BlackjackService(ShoeSource shoes, GameEventListener listener, Wallet wallet) {
+        this(BlackjackRules.STANDARD, shoes, listener, wallet);
+    }
 
+    // Ví riêng trong bộ nhớ: mô phỏng, chạy lại nhật ký và test
+    public BlackjackService(BlackjackRules rules, ShoeSource shoes, GameEventListener listener) {
+        this(rules, shoes, listener, Wallet.inMemory());
+    }
+
+    public BlackjackService(ShoeSource shoes, GameEventListener listener) {
+        this(BlackjackRules.STANDARD, shoes, listener);
+    }
+
+    // Mọi listener trong context (metrics, nhật ký ván bài) đều nhận sự kiện; luật là blackjack.rules.game
+    @Autowired
+    public BlackjackService(RuleBook ruleBook, ShoeSource shoes, List<GameEventListener> listeners, Wallet wallet) {
+        this(ruleBook.game(), shoes, GameEventListener.of(listeners), wallet);
+    }
+
+    public BlackjackRules rules() {
+        return rules;
+    }
+
+    // Game của một người chơi không có định danh riêng (mô phỏng, chạy lại nhật ký, test)
     public GameState startGame() {
-        // Chỉ khởi tạo game state với số dư ban đầu
+        return startGame(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    }
+
+    /**
+     * Game mới của người chơi {@code playerId} (tài khoản ví, định danh trong nhật ký ván bài). Người chơi đã có
+     * tài khoản tiếp tục với số dư trong ví, nên mở game mới không tạo thêm tiền.
+     */
+    public GameState startGame(long playerId) {
         GameState gameState = new GameState();
+        gameState.setPlayerId(playerId);
         gameState.setGameMessage("Chào mừng đến với Blackjack! Hãy đặt cược.");
-        gameState.setAvailableActions(List.of("PLACE_BET"));
+        gameState.setActionMask(BETTING_ACTIONS);
+        gameState.setPlayerBalance(wallet.open(playerId, gameState.getPlayerBalance()));
 
         return gameState;
     }
 
-    public GameState placeBet(GameState gameState, double betAmount) {
+    // betAmount tính bằng xu (Money)
+    public GameState placeBet(GameState gameState, long betAmount) {
         if (betAmount <= 0 || betAmount > gameState.getPlayerBalance()) {
             gameState.setGameMessage("Số tiền cược không hợp lệ.");
             return gameState;
         }
 
-        double reshuffleThreshold = NUM_OF_DECKS * 52 * 0.4;
-
-        if (gameState.getDeck() == null || gameState.getDeck().size() < reshuffleThreshold) {
-            log.info("Bài còn lại quá ít, xáo lại bộ bài mới...");
-            gameState.setDeck(new Deck(NUM_OF_DECKS));
-            gameState.getDeck().shuffle();
+        if (gameState.getDeck() == null || rules.needsReshuffle(gameState.getDeck().size())) {
+            log.debug("Bài còn lại quá ít, xáo lại bộ bài mới...");
+            listener.reshuffled();
+            // Lấy shoe đã xáo sẵn từ pool, trả shoe cũ lại để xáo ở nền
+            if (gameState.getDeck() != null) {
+                shoes.recycle(gameState.getDeck());
+            }
+            gameState.setDeck(shoes.take());
+            listener.roundEvent(gameState, RoundEvent.SHOE, -1, -1, 0);
             // Bạn có thể thêm một thông báo cho người chơi biết
             gameState.setGameMessage("Bộ bài đã được xáo lại. ");
         }
 
         // Setup ván bài
-        // gameState.setDeck(new Deck(NUM_OF_DECKS));
+        // gameState.setDeck(new Deck(rules.decks()));
         // gameState.getDeck().shuffle();
+        if (!debit(gameState, betAmount)) {
+            gameState.setGameMessage("Số tiền cược không hợp lệ.");
+            return gameState;
+        }
         gameState.getPlayerHands().clear();
         gameState.getDealerHand().clear();
-        gameState.setPlayerBalance(gameState.getPlayerBalance() - betAmount);
+
+        listener.roundEvent(gameState, RoundEvent.BET, 0, -1, betAmount);
 
         Hand playerHand = new Hand();
         playerHand.setBetAmount(betAmount);
-        playerHand.addCard(gameState.getDeck().deal());
-        playerHand.addCard(gameState.getDeck().deal());
         gameState.getPlayerHands().add(playerHand);
+        deal(gameState, playerHand, RoundEvent.DEAL, 0);
+        deal(gameState, playerHand, RoundEvent.DEAL, 0);
 
         Hand dealerHand = gameState.getDealerHand();
-        dealerHand.addCard(gameState.getDeck().deal());
-        dealerHand.addCard(gameState.getDeck().deal());
+        deal(gameState, dealerHand, RoundEvent.DEAL, -1);
+        deal(gameState, dealerHand, RoundEvent.DEAL, -1);
 
         gameState.setRoundOver(false);
 
@@ -68,10 +125,11 @@ public class BlackjackService {
         // **LOGIC BẢO HIỂM BẮT ĐẦU TỪ ĐÂY**
         // Nếu lá ngửa của nhà cái là Át, đề nghị bảo hiểm
         if (dealerHand.getCards().get(0).getRank() == Rank.ACE) {
-            double insuranceCost = betAmount / 2;
+            long insuranceCost = Money.times(betAmount, INSURANCE_COST);
             if (gameState.getPlayerBalance() >= insuranceCost) {
-                gameState.setGameMessage("Nhà cái có Át! Bạn muốn mua bảo hiểm (giá: " + insuranceCost + ") không?");
-                gameState.setAvailableActions(List.of("BUY_INSURANCE", "NO_INSURANCE"));
+                gameState.setGameMessage("Nhà cái có Át! Bạn muốn mua bảo hiểm (giá: " + Money.toMajor(insuranceCost)
+                        + ") không?");
+                gameState.setActionMask(INSURANCE_ACTIONS);
                 return gameState; // Dừng lại chờ quyết định của người chơi
             }
         }
@@ -84,21 +142,28 @@ public class BlackjackService {
     public GameState resolveInsurance(GameState gameState, boolean playerBuysInsurance) {
         Hand dealerHand = gameState.getDealerHand();
         Hand playerHand = gameState.getPlayerHands().get(0);
-        double bet = playerHand.getBetAmount();
-
-        if (playerBuysInsurance) {
-            double insuranceCost = bet / 2;
-            gameState.setPlayerBalance(gameState.getPlayerBalance() - insuranceCost);
-        }
+        long bet = playerHand.getBetAmount();
 
         // Kiểm tra xem nhà cái có Blackjack không
         boolean dealerHasBlackjack = dealerHand.getHandValue() == 21;
 
+        long insuranceCost = Money.times(bet, INSURANCE_COST);
+        // Không đủ tiền (số dư trong ví đã đổi) thì coi như không mua
+        boolean insured = playerBuysInsurance && debit(gameState, insuranceCost);
+        if (insured) {
+            listener.roundEvent(gameState, RoundEvent.INSURANCE, 0, -1, insuranceCost);
+            listener.settled(insuranceCost, Money.times(bet, insuranceReturn(dealerHasBlackjack)));
+        } else {
+            listener.roundEvent(gameState, RoundEvent.INSURANCE, 0, -1, 0);
+        }
+
         if (dealerHasBlackjack) {
             // Xử lý tiền cược bảo hiểm trước
-            if (playerBuysInsurance) {
+            if (insured) {
                 gameState.setGameMessage("Nhà cái có Blackjack. Bạn thắng cược bảo hiểm! ");
-                gameState.setPlayerBalance(gameState.getPlayerBalance() + playerHand.getBetAmount());
+                long insurancePayout = Money.times(bet, insuranceReturn(true));
+                credit(gameState, insurancePayout);
+                listener.roundEvent(gameState, RoundEvent.SETTLE, -1, -1, insurancePayout);
             } else {
                 gameState.setGameMessage("Nhà cái có Blackjack. Cược bảo hiểm thua. ");
             }
@@ -106,15 +171,22 @@ public class BlackjackService {
             // Bây giờ kiểm tra ván cược chính
             if (playerHand.isBlackjack()) {
                 gameState.setGameMessage(gameState.getGameMessage() + "Ván cược chính hòa (Push).");
-                gameState.setPlayerBalance(gameState.getPlayerBalance() + playerHand.getBetAmount());
+                long returned = Money.times(bet, rules.blackjackReturn(true, true));
+                credit(gameState, returned);
+                listener.roundEvent(gameState, RoundEvent.SETTLE, 0, -1, returned);
+                listener.settled(bet, returned);
             } else {
                 gameState.setGameMessage(gameState.getGameMessage() + "Bạn thua ván cược chính.");
+                long returned = Money.times(bet, LOSS_RETURN);
+                listener.roundEvent(gameState, RoundEvent.SETTLE, 0, -1, returned);
+                listener.settled(bet, returned);
             }
 
             gameState.setRoundOver(true);
-            gameState.setAvailableActions(List.of("PLACE_BET"));
+            listener.roundCompleted();
+            gameState.setActionMask(BETTING_ACTIONS);
         } else {
-            if (playerBuysInsurance) {
+            if (insured) {
                 // Nếu có mua, thông báo cược bảo hiểm thua
                 gameState.setGameMessage("Nhà cái không có Blackjack. Cược bảo hiểm thua. Lượt của bạn.");
             } else {
@@ -144,16 +216,15 @@ public class BlackjackService {
     }
 
     public GameState playerHit(GameState gameState, int handIndex) {
-        log.info("Entering playerHit with gameState: {}", gameState); // Log khi bắt đầu
         if (gameState == null || gameState.getDeck() == null) {
             log.error("GameState or Deck is null at the start of playerHit!");
             return null; // Trả về null nếu có lỗi đầu vào
         }
 
         Hand currentHand = gameState.getPlayerHands().get(handIndex);
-        currentHand.addCard(gameState.getDeck().deal());
+        deal(gameState, currentHand, RoundEvent.HIT, handIndex);
 
-        if (currentHand.getHandValue() > 21) {
+        if (currentHand.isBust()) {
             currentHand.setStatus(HandStatus.BUSTED);
             gameState.setGameMessage("Bạn đã quắc (bust) ở tay bài " + (handIndex + 1) + "!");
             checkIfPlayerTurnIsOver(gameState);
@@ -161,13 +232,13 @@ public class BlackjackService {
             updateAvailableActions(gameState, handIndex);
         }
 
-        log.info("Exiting playerHit with gameState: {}", gameState);
         return gameState;
     }
 
     public GameState playerStand(GameState gameState, int handIndex) {
         Hand currentHand = gameState.getPlayerHands().get(handIndex);
         currentHand.setStatus(HandStatus.STOOD);
+        listener.roundEvent(gameState, RoundEvent.STAND, handIndex, -1, 0);
         gameState.setGameMessage("Bạn đã dừng ở tay bài " + (handIndex + 1) + ".");
         checkIfPlayerTurnIsOver(gameState);
         return gameState;
@@ -175,18 +246,19 @@ public class BlackjackService {
 
     public GameState playerDoubleDown(GameState gameState, int handIndex) {
         Hand currentHand = gameState.getPlayerHands().get(handIndex);
-        double betAmount = currentHand.getBetAmount();
+        long betAmount = currentHand.getBetAmount();
 
-        if (gameState.getPlayerBalance() < betAmount) {
+        if (!debit(gameState, betAmount)) {
             gameState.setGameMessage("Không đủ tiền để cược gấp đôi!");
             return gameState;
         }
 
-        gameState.setPlayerBalance(gameState.getPlayerBalance() - betAmount);
         currentHand.setBetAmount(betAmount * 2);
-        currentHand.addCard(gameState.getDeck().deal());
+        Card card = gameState.getDeck().deal();
+        currentHand.addCard(card);
+        listener.roundEvent(gameState, RoundEvent.DOUBLE, handIndex, card.code(), betAmount);
 
-        if (currentHand.getHandValue() > 21) {
+        if (currentHand.isBust()) {
             currentHand.setStatus(HandStatus.BUSTED);
         } else {
             currentHand.setStatus(HandStatus.STOOD);
@@ -199,42 +271,56 @@ public class BlackjackService {
 
     public GameState playerSplit(GameState gameState, int handIndex) {
         Hand originalHand = gameState.getPlayerHands().get(handIndex);
-        double betAmount = originalHand.getBetAmount();
+        long betAmount = originalHand.getBetAmount();
 
-        if (gameState.getPlayerBalance() < betAmount) {
+        if (!debit(gameState, betAmount)) {
             gameState.setGameMessage("Không đủ tiền để tách bài!");
             return gameState;
         }
 
-        // Lấy rank của lá bài trước khi tách để kiểm tra có phải là Át không
-        Rank splitRank = originalHand.getCards().get(0).getRank();
-
-        // Setup tay bài mới và trừ tiền
-        gameState.setPlayerBalance(gameState.getPlayerBalance() - betAmount);
+        // Setup tay bài mới (tiền đã trừ ở trên)
         Hand newHand = new Hand();
         newHand.setBetAmount(betAmount);
 
         // Chuyển 1 lá bài và chia thêm bài cho cả hai tay
-        newHand.addCard(originalHand.getCards().remove(1));
-        originalHand.addCard(gameState.getDeck().deal());
-        newHand.addCard(gameState.getDeck().deal());
+        newHand.addCard(originalHand.removeCard(1));
         gameState.getPlayerHands().add(handIndex + 1, newHand);
+        listener.roundEvent(gameState, RoundEvent.SPLIT, handIndex, -1, betAmount);
+        deal(gameState, originalHand, RoundEvent.DEAL, handIndex);
+        deal(gameState, newHand, RoundEvent.DEAL, handIndex + 1);
+
+        // Tay không còn hành động nào theo luật (tách Át chỉ được một lá) thì tự động dừng
+        boolean stood = false;
+        for (Hand hand : List.of(originalHand, newHand)) {
+            if (actionsFor(gameState, hand) == 0) {
+                hand.setStatus(HandStatus.STOOD);
+                stood = true;
+            }
+        }
+        gameState.setGameMessage(stood
+                ? "Bạn đã tách Át. Mỗi tay nhận thêm một lá và lượt chơi của hai tay này kết thúc."
+                : "Bạn đã tách bài. Chơi tay bài đầu tiên.");
+        checkIfPlayerTurnIsOver(gameState);
 
-        // KIỂM TRA LUẬT ĐẶC BIỆT KHI TÁCH ÁT
-        if (splitRank == Rank.ACE) {
-            // Tự động cho cả hai tay "Dừng" (Stand) sau khi nhận thêm 1 lá
-            originalHand.setStatus(HandStatus.STOOD);
-            newHand.setStatus(HandStatus.STOOD);
-            gameState.setGameMessage("Bạn đã tách Át. Mỗi tay nhận thêm một lá và lượt chơi của hai tay này kết thúc.");
+        return gameState;
+    }
 
-            // Kiểm tra xem lượt của người chơi đã hết chưa (để chuyển cho nhà cái)
-            checkIfPlayerTurnIsOver(gameState);
-        } else {
-            // Nếu không phải tách Át, thì tiếp tục như bình thường
-            gameState.setGameMessage("Bạn đã tách bài. Chơi tay bài đầu tiên.");
-            updateAvailableActions(gameState, handIndex);
-        }
+    // Đầu hàng: nhận lại nửa cược, nhà cái không rút bài
+    public GameState playerSurrender(GameState gameState, int handIndex) {
+        Hand hand = gameState.getPlayerHands().get(handIndex);
+        long bet = hand.getBetAmount();
+        hand.setStatus(HandStatus.SURRENDERED);
+        listener.roundEvent(gameState, RoundEvent.SURRENDER, handIndex, -1, 0);
 
+        long returned = Money.times(bet, SURRENDER_RETURN);
+        credit(gameState, returned);
+        listener.roundEvent(gameState, RoundEvent.SETTLE, handIndex, -1, returned);
+        listener.settled(bet, returned);
+
+        gameState.setGameMessage("Bạn đã đầu hàng và nhận lại " + Money.toMajor(returned) + ".");
+        gameState.setRoundOver(true);
+        listener.roundCompleted();
+        gameState.setActionMask(BETTING_ACTIONS);
         return gameState;
     }
 
@@ -255,9 +341,9 @@ public class BlackjackService {
         gameState.setGameMessage("Lượt của nhà cái.");
         Hand dealerHand = gameState.getDealerHand();
 
-        // Lật bài và rút cho đến khi đủ hoặc hơn 17
-        while (dealerHand.getHandValue() < DEALER_STAND_VALUE) {
-            dealerHand.addCard(gameState.getDeck().deal());
+        // Lật bài và rút cho đến khi đủ 17 (hoặc 18 nếu luật bắt rút ở 17 mềm)
+        while (rules.dealerMustHit(dealerHand)) {
+            deal(gameState, dealerHand, RoundEvent.DEALER_DRAW, -1);
         }
 
         resolveBets(gameState);
@@ -272,49 +358,81 @@ public class BlackjackService {
 
         for (Hand playerHand : gameState.getPlayerHands()) {
             int playerValue = playerHand.getHandValue();
-            double bet = playerHand.getBetAmount();
+            long bet = playerHand.getBetAmount();
 
             // Thêm định danh cho mỗi tay bài vào tin nhắn
             if (gameState.getPlayerHands().size() > 1) {
                 finalMessage.append("Tay ").append(handNumber).append(": ");
             }
 
-            if (playerHand.getStatus() == HandStatus.BUSTED) {
+            boolean busted = playerHand.getStatus() == HandStatus.BUSTED;
+            double payout = settlementReturn(busted, playerValue, dealerValue);
+            if (busted) {
                 finalMessage.append("Thua (quắc). ");
                 // Tiền đã bị trừ
-            } else if (dealerValue > 21 || playerValue > dealerValue) {
+            } else if (payout == WIN_RETURN) {
                 finalMessage.append("Thắng! ");
-                gameState.setPlayerBalance(gameState.getPlayerBalance() + bet * 2);
-            } else if (playerValue < dealerValue) {
+            } else if (payout == LOSS_RETURN) {
                 finalMessage.append("Thua. ");
             } else { // push
                 finalMessage.append("Hòa (push). ");
-                gameState.setPlayerBalance(gameState.getPlayerBalance() + bet);
             }
+            long returned = Money.times(bet, payout);
+            credit(gameState, returned);
+            listener.roundEvent(gameState, RoundEvent.SETTLE, handNumber - 1, -1, returned);
+            listener.settled(bet, returned);
             handNumber++; // Tăng số đếm cho tay bài tiếp theo
         }
 
         // Đặt thông báo cuối cùng đã được định dạng
         gameState.setGameMessage(finalMessage.toString().trim()); // .trim() để xóa dấu cách thừa ở cuối
         gameState.setRoundOver(true);
-        gameState.setAvailableActions(List.of("PLACE_BET"));
+        listener.roundCompleted();
+        gameState.setActionMask(BETTING_ACTIONS);
     }
 
     private void resolveBlackjacks(GameState gameState, boolean playerBlackjack, boolean dealerBlackjack) {
         Hand playerHand = gameState.getPlayerHands().get(0);
-        double bet = playerHand.getBetAmount();
+        long bet = playerHand.getBetAmount();
 
         if (playerBlackjack && !dealerBlackjack) {
-            gameState.setGameMessage("BLACKJACK! Bạn thắng 3:2!");
-            gameState.setPlayerBalance(gameState.getPlayerBalance() + bet * 2.5); // Cược gốc + 1.5 lần tiền thắng
+            gameState.setGameMessage("BLACKJACK! Bạn thắng " + rules.blackjackPays() + "!");
         } else if (!playerBlackjack && dealerBlackjack) {
             gameState.setGameMessage("Nhà cái có Blackjack. Bạn thua.");
         } else { // cả hai cùng có
             gameState.setGameMessage("Hòa Blackjack (Push).");
-            gameState.setPlayerBalance(gameState.getPlayerBalance() + bet);
         }
+        long returned = Money.times(bet, rules.blackjackReturn(playerBlackjack, dealerBlackjack));
+        credit(gameState, returned);
+        listener.roundEvent(gameState, RoundEvent.SETTLE, 0, -1, returned);
+        listener.settled(bet, returned);
         gameState.setRoundOver(true);
-        gameState.setAvailableActions(List.of("PLACE_BET"));
+        listener.roundCompleted();
+        gameState.setActionMask(BETTING_ACTIONS);
+    }
+
+    /**
+     * Trừ tiền qua ví, nguồn số dư duy nhất; số dư trong {@code gameState} chỉ là bản sao để hiển thị và lưu phiên,
+     * không bao giờ được dùng để mở hay sửa tài khoản. Tài khoản do {@link #startGame(long)} mở; ví chưa có tài khoản
+     * thì ví báo lỗi thay vì dựng lại số dư từ phiên.
+     */
+    private boolean debit(GameState gameState, long amount) {
+        long playerId = gameState.getPlayerId();
+        boolean debited = amount > 0 && wallet.debit(playerId, amount);
+        gameState.setPlayerBalance(wallet.balance(playerId));
+        return debited;
+    }
+
+    private void credit(GameState gameState, long amount) {
+        long playerId = gameState.getPlayerId();
+        gameState.setPlayerBalance(amount > 0 ? wallet.credit(playerId, amount) : wallet.balance(playerId));
+    }
+
+    // Chia một lá từ shoe vào tay bài và báo sự kiện kèm mã lá bài
+    private void deal(GameState gameState, Hand hand, RoundEvent event, int handIndex) {
+        Card card = gameState.getDeck().deal();
+        hand.addCard(card);
+        listener.roundEvent(gameState, event, handIndex, card.code(), 0);
     }
 
     private void updateAvailableActionsForCurrentHand(GameState gameState) {
@@ -327,24 +445,15 @@ public class BlackjackService {
     }
 
     private void updateAvailableActions(GameState gameState, int handIndex) {
-        List<String> actions = new ArrayList<>();
-        Hand currentHand = gameState.getPlayerHands().get(handIndex);
-
-        actions.add("HIT");
-        actions.add("STAND");
-
-        // Kiểm tra điều kiện Double Down
-        if (currentHand.getCards().size() == 2 && gameState.getPlayerBalance() >= currentHand.getBetAmount()) {
-            actions.add("DOUBLE_DOWN");
-        }
-
-        // Kiểm tra điều kiện Split
-        if (currentHand.getCards().size() == 2 &&
-                currentHand.getCards().get(0).getRank() == currentHand.getCards().get(1).getRank() &&
-                gameState.getPlayerBalance() >= currentHand.getBetAmount()) {
-            actions.add("SPLIT");
-        }
+        gameState.setActionMask(actionsFor(gameState, gameState.getPlayerHands().get(handIndex)));
+    }
 
-        gameState.setAvailableActions(actions);
+    private int actionsFor(GameState gameState, Hand hand) {
+        List<Card> cards = hand.getCards();
+        List<Hand> hands = gameState.getPlayerHands();
+        boolean pair = cards.size() == 2 && cards.get(0).getRank() == cards.get(1).getRank();
+        boolean splitAces = hands.size() > 1 && cards.get(0).getRank() == Rank.ACE;
+        return rules.playerTurnActions(cards.size(), pair, gameState.getPlayerBalance() >= hand.getBetAmount(),
+                hands.size(), splitAces);
     }
 }
\ No newline at end of file
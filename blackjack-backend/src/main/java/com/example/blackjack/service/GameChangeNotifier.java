@@ -0,0 +1,42 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.dto.GameView;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Báo cho các request đang chờ (long-poll trạng thái) khi một game được lưu lại. Listener được gọi ngay trên
+ * luồng vừa lưu game, khi vẫn giữ khóa của game, nên chỉ được chuyển kết quả đi chứ không làm việc nặng.
+ * Chỉ có tác dụng trong một node: request chờ phải đến cùng node với request thay đổi game.
+ */
+@Component
+public class GameChangeNotifier {
+
+    private final ConcurrentHashMap<String, Set<BiConsumer<StateTag, GameView>>> listeners = new ConcurrentHashMap<>();
+
+    // Đăng ký listener cho game có khóa key (GameSlot.key); trả về hành động hủy đăng ký
+    public Runnable subscribe(String key, BiConsumer<StateTag, GameView> listener) {
+        listeners.compute(key, (k, set) -> {
+            Set<BiConsumer<StateTag, GameView>> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(listener);
+            return result;
+        });
+        return () -> listeners.computeIfPresent(key, (k, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public void changed(String key, StateTag tag, GameView view) {
+        Set<BiConsumer<StateTag, GameView>> waiting = listeners.get(key);
+        if (waiting != null) {
+            for (BiConsumer<StateTag, GameView> listener : waiting) {
+                listener.accept(tag, view);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.RoundEvent;
+
+import java.util.List;
+
+/**
+ * Các sự kiện của ván bài mà {@link BlackjackService} và bàn nhiều người báo ra ngoài (metrics, nhật ký...).
+ * Được gọi trên luồng đang xử lý hành động nên phải nhanh và không cấp phát.
+ */
+public interface GameEventListener {
+
+    GameEventListener NONE = new GameEventListener() {
+    };
+
+    // Gộp các listener (metrics, nhật ký...) thành một, gọi lần lượt theo thứ tự trong danh sách
+    static GameEventListener of(List<? extends GameEventListener> listeners) {
+        if (listeners.isEmpty()) {
+            return NONE;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        GameEventListener[] all = listeners.toArray(GameEventListener[]::new);
+        return new GameEventListener() {
+            @Override
+            public void reshuffled() {
+                for (GameEventListener listener : all) {
+                    listener.reshuffled();
+                }
+            }
+
+            @Override
+            public void settled(long wagered, long returned) {
+                for (GameEventListener listener : all) {
+                    listener.settled(wagered, returned);
+                }
+            }
+
+            @Override
+            public void roundCompleted() {
+                for (GameEventListener listener : all) {
+                    listener.roundCompleted();
+                }
+            }
+
+            @Override
+            public void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+                for (GameEventListener listener : all) {
+                    listener.roundEvent(state, event, handIndex, cardCode, amount);
+                }
+            }
+        };
+    }
+
+    // Shoe cũ đã hết (theo ngưỡng xáo lại) và được thay bằng shoe mới
+    default void reshuffled() {
+    }
+
+    // Một khoản cược (tay bài hoặc bảo hiểm) đã được thanh toán: tiền cược và tổng tiền trả lại cho người chơi (xu)
+    default void settled(long wagered, long returned) {
+    }
+
+    default void roundCompleted() {
+    }
+
+    /**
+     * Một bước của ván một người chơi, báo sau khi {@code state} đã được cập nhật (số dư là số dư sau bước đó).
+     * {@code cardCode} là mã lá bài vừa chia ({@link com.example.blackjack.model.Card#code()}) hoặc -1,
+     * {@code amount} tính bằng xu.
+     */
+    default void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+    }
+}
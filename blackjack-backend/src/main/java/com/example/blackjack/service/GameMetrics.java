@@ -0,0 +1,85 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.wallet.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics của game, xem qua {@code /actuator/metrics}: độ trễ từng loại hành động (histogram),
+ * số ván, số lần xáo bài, tổng tiền cược/trả thưởng và số phiên mới. Mọi meter được đăng ký sẵn
+ * trong constructor nên việc ghi nhận trên đường nóng không tra cứu registry và không cấp phát.
+ */
+@Component
+public class GameMetrics implements GameEventListener {
+
+    public enum Operation {
+        STATE,
+        BET,
+        INSURANCE,
+        HIT,
+        STAND,
+        DOUBLE_DOWN,
+        SPLIT,
+        SURRENDER,
+        HINT
+    }
+
+    private final Timer[] latency;
+    private final Counter rounds;
+    private final Counter reshuffles;
+    private final Counter wagered;
+    private final Counter returned;
+    private final Counter sessionsStarted;
+
+    public GameMetrics(MeterRegistry meterRegistry) {
+        Operation[] operations = Operation.values();
+        latency = new Timer[operations.length];
+        for (Operation operation : operations) {
+            latency[operation.ordinal()] = Timer.builder("blackjack.action.latency")
+                    .description("Thời gian xử lý một hành động, gồm cả thời gian chờ khóa phiên")
+                    .tag("action", operation.name())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(1))
+                    .register(meterRegistry);
+        }
+        rounds = Counter.builder("blackjack.rounds").register(meterRegistry);
+        reshuffles = Counter.builder("blackjack.reshuffles").register(meterRegistry);
+        wagered = Counter.builder("blackjack.wagered").baseUnit("chips").register(meterRegistry);
+        returned = Counter.builder("blackjack.returned")
+                .description("Tổng tiền trả lại cho người chơi, gồm cả tiền cược gốc")
+                .baseUnit("chips")
+                .register(meterRegistry);
+        sessionsStarted = Counter.builder("blackjack.sessions.started").register(meterRegistry);
+    }
+
+    public void recordLatency(Operation operation, long nanos) {
+        latency[operation.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void sessionStarted() {
+        sessionsStarted.increment();
+    }
+
+    @Override
+    public void reshuffled() {
+        reshuffles.increment();
+    }
+
+    @Override
+    public void settled(long wageredAmount, long returnedAmount) {
+        wagered.increment(Money.toMajor(wageredAmount));
+        returned.increment(Money.toMajor(returnedAmount));
+    }
+
+    @Override
+    public void roundCompleted() {
+        rounds.increment();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.advisor.StrategyAdvisor;
+import com.example.blackjack.dto.GameDelta;
+import com.example.blackjack.dto.GameUpdate;
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.dto.HintView;
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.ShoeComposition;
+import com.example.blackjack.service.GameMetrics.Operation;
+import com.example.blackjack.wallet.Money;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Đọc/ghi {@link GameState} của một người chơi và áp dụng hành động qua {@link BlackjackService}.
+ * Dùng chung cho REST controller và kênh WebSocket. Mọi thao tác trên một game chạy dưới khóa
+ * của game đó ({@link SessionLocks}), nên các request trùng lặp (double-click, retry) không thể
+ * cùng sửa tay bài, số dư hay shoe. Game nằm ở đâu (store theo session id hay token do client giữ)
+ * do {@link GameSlot} quyết định. Hành động không có trong tập hành động hợp lệ của game
+ * bị từ chối bằng {@link ActionNotAllowedException}, trước khi slot được giành ({@link GameSlot#claim}).
+ */
+@Service
+public class GameSessionManager {
+
+    private final BlackjackService blackjackService;
+    private final SessionLocks sessionLocks;
+    private final GameMetrics gameMetrics;
+    private final StrategyAdvisor strategyAdvisor;
+    private final GameChangeNotifier changeNotifier;
+
+    public GameSessionManager(BlackjackService blackjackService, SessionLocks sessionLocks, GameMetrics gameMetrics,
+                              StrategyAdvisor strategyAdvisor, GameChangeNotifier changeNotifier) {
+        this.blackjackService = blackjackService;
+        this.sessionLocks = sessionLocks;
+        this.gameMetrics = gameMetrics;
+        this.strategyAdvisor = strategyAdvisor;
+        this.changeNotifier = changeNotifier;
+    }
+
+    // Lấy trạng thái game, hoặc bắt đầu game mới nếu chưa có
+    public GameView currentState(GameSlot slot) {
+        return currentState(slot, (tag, view) -> view);
+    }
+
+    // Như currentState(slot), response được dựng từ view cùng tag của đúng phiên bản đó (dưới khóa của game)
+    public <T> T currentState(GameSlot slot, BiFunction<StateTag, GameView, T> response) {
+        return locked(slot, Operation.STATE, () -> {
+            GameState gameState = slot.load();
+            if (gameState == null) {
+                gameState = blackjackService.startGame(slot.playerId());
+                gameMetrics.sessionStarted();
+                return response.apply(StateTag.of(gameState), save(slot, gameState));
+            }
+            return response.apply(StateTag.of(gameState), GameView.from(gameState));
+        });
+    }
+
+    // Tag của game hiện tại, không dựng GameView và không giữ khóa; null nếu chưa có game
+    public StateTag stateTag(GameSlot slot) {
+        return slot.tag();
+    }
+
+    /**
+     * Gọi {@code listener} mỗi khi game của slot được lưu lại (trên luồng đã thay đổi game, xem
+     * {@link GameChangeNotifier}); trả về hành động hủy đăng ký.
+     */
+    public Runnable onChange(GameSlot slot, BiConsumer<StateTag, GameView> listener) {
+        return changeNotifier.subscribe(slot.key(), listener);
+    }
+
+    // Đặt cược luôn trả về toàn bộ trạng thái vì bắt đầu một ván mới; amount là số tiền của client (lẻ đến xu)
+    public GameView placeBet(GameSlot slot, double amount) {
+        long bet = Money.toMinor(amount);
+        return locked(slot, Operation.BET, () -> {
+            GameState gameState = slot.load();
+            if (gameState == null) {
+                gameState = blackjackService.startGame(slot.playerId());
+                gameMetrics.sessionStarted();
+            }
+            requireAllowed(gameState, PlayerAction.PLACE_BET);
+            slot.claim();
+            gameState = blackjackService.placeBet(gameState, bet);
+            gameState.bumpVersion();
+            return save(slot, gameState);
+        });
+    }
+
+    public GameUpdate insurance(GameSlot slot, boolean buy, Long since) {
+        return locked(slot, Operation.INSURANCE, () -> {
+            GameState gameState = slot.load();
+            if (gameState == null) {
+                return null;
+            }
+            requireAllowed(gameState, buy ? PlayerAction.BUY_INSURANCE : PlayerAction.NO_INSURANCE);
+            return apply(slot, gameState, since, state -> blackjackService.resolveInsurance(state, buy));
+        });
+    }
+
+    public GameUpdate hit(GameSlot slot, Integer handIndex, Long since) {
+        return playerAction(slot, PlayerAction.HIT, Operation.HIT, handIndex, since, blackjackService::playerHit);
+    }
+
+    public GameUpdate stand(GameSlot slot, Integer handIndex, Long since) {
+        return playerAction(slot, PlayerAction.STAND, Operation.STAND, handIndex, since, blackjackService::playerStand);
+    }
+
+    public GameUpdate doubleDown(GameSlot slot, Integer handIndex, Long since) {
+        return playerAction(slot, PlayerAction.DOUBLE_DOWN, Operation.DOUBLE_DOWN, handIndex, since,
+                blackjackService::playerDoubleDown);
+    }
+
+    public GameUpdate split(GameSlot slot, Integer handIndex, Long since) {
+        return playerAction(slot, PlayerAction.SPLIT, Operation.SPLIT, handIndex, since, blackjackService::playerSplit);
+    }
+
+    public GameUpdate surrender(GameSlot slot, Integer handIndex, Long since) {
+        return playerAction(slot, PlayerAction.SURRENDER, Operation.SURRENDER, handIndex, since,
+                blackjackService::playerSurrender);
+    }
+
+    // Gợi ý cho tay bài đang chơi: chỉ đọc trạng thái dưới khóa, phần tính EV chạy sau khi đã nhả khóa
+    public HintView hint(GameSlot slot) {
+        long start = System.nanoTime();
+        try {
+            Supplier<HintView> advice = sessionLocks.withLock(slot.key(), () -> {
+                GameState gameState = slot.load();
+                if (gameState == null || !gameState.allows(PlayerAction.HIT)) {
+                    throw new ActionNotAllowedException("Chỉ có gợi ý khi đang đến lượt bạn.");
+                }
+                Hand hand = gameState.getPlayerHands().get(activeHand(gameState));
+                List<Card> cards = hand.getCards();
+                List<Card> dealerCards = gameState.getDealerHand().getCards();
+
+                // Lá úp của nhà cái người chơi chưa thấy nên vẫn được tính là còn trong shoe
+                long shoe = ShoeComposition.add(gameState.getDeck().composition(),
+                        ShoeComposition.classOf(dealerCards.get(1).getRank()));
+                int total = hand.getHandValue();
+                boolean soft = hand.isSoft();
+                boolean pair = cards.size() == 2 && cards.get(0).getRank() == cards.get(1).getRank();
+                boolean canDouble = gameState.allows(PlayerAction.DOUBLE_DOWN);
+                boolean canSplit = gameState.allows(PlayerAction.SPLIT);
+                boolean canSurrender = gameState.allows(PlayerAction.SURRENDER);
+                return () -> strategyAdvisor.advise(shoe, total, soft, pair ? cards.get(0).getRank() : null,
+                        dealerCards.get(0).getRank(), canDouble, canSplit, canSurrender);
+            });
+            return advice.get();
+        } finally {
+            gameMetrics.recordLatency(Operation.HINT, System.nanoTime() - start);
+        }
+    }
+
+    // Chạy dưới khóa của phiên và ghi nhận độ trễ (gồm cả thời gian chờ khóa)
+    private <T> T locked(GameSlot slot, Operation operation, Supplier<T> body) {
+        long start = System.nanoTime();
+        try {
+            return sessionLocks.withLock(slot.key(), body);
+        } finally {
+            gameMetrics.recordLatency(operation, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Hành động trong ván: bỏ qua nếu chưa có game hoặc ván đã kết thúc (khi đó trả về trạng thái hiện tại).
+     * Chỉ áp dụng cho tay bài đang chơi; không truyền {@code handIndex} thì dùng tay đó (cho phép client
+     * gửi liên tiếp nhiều hành động).
+     */
+    private GameUpdate playerAction(GameSlot slot, PlayerAction playerAction, Operation operation,
+                                    Integer handIndex, Long since, BiFunction<GameState, Integer, GameState> action) {
+        return locked(slot, operation, () -> {
+            GameState gameState = slot.load();
+            if (gameState == null) {
+                return null;
+            }
+            if (gameState.isRoundOver()) {
+                return GameView.from(gameState);
+            }
+            requireAllowed(gameState, playerAction);
+            int activeHand = activeHand(gameState);
+            if (handIndex != null && handIndex != activeHand) {
+                throw new ActionNotAllowedException("Tay bài " + (handIndex + 1) + " không phải tay đang chơi.");
+            }
+            return apply(slot, gameState, since, state -> action.apply(state, activeHand));
+        });
+    }
+
+    private static void requireAllowed(GameState gameState, PlayerAction action) {
+        if (!gameState.allows(action)) {
+            throw new ActionNotAllowedException("Không thể thực hiện " + action + " lúc này.");
+        }
+    }
+
+    /**
+     * Thực hiện hành động và trả về bản vá nếu client đang ở đúng phiên bản {@code since},
+     * ngược lại trả về toàn bộ trạng thái.
+     */
+    private GameUpdate apply(GameSlot slot, GameState gameState, Long since, UnaryOperator<GameState> action) {
+        GameView before = since != null && since == gameState.getVersion() ? GameView.from(gameState) : null;
+
+        slot.claim();
+        GameState updated = action.apply(gameState);
+        if (updated == null) {
+            return null;
+        }
+        updated.bumpVersion();
+        GameView after = save(slot, updated);
+        return before != null ? GameDelta.between(before, after) : after;
+    }
+
+    // Lưu game rồi báo cho các request đang chờ thay đổi của game này
+    private GameView save(GameSlot slot, GameState gameState) {
+        String key = slot.key();
+        slot.save(gameState);
+        GameView view = GameView.from(gameState);
+        changeNotifier.changed(key, StateTag.of(gameState), view);
+        return view;
+    }
+
+    private static int activeHand(GameState gameState) {
+        List<Hand> hands = gameState.getPlayerHands();
+        for (int i = 0; i < hands.size(); i++) {
+            if (hands.get(i).getStatus() == HandStatus.PLAYING) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
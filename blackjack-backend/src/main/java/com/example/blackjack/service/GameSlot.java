@@ -0,0 +1,35 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.GameState;
+
+/**
+ * Nơi giữ game của một người chơi mà {@link GameSessionManager} đọc và ghi: game trên server theo session id
+ * ({@code GameSessionStore}) hoặc token đã ký do client giữ ({@code GameStateTokens}, chế độ không trạng thái).
+ */
+public interface GameSlot {
+
+    // Khóa để tuần tự hóa các hành động trên cùng một game (xem SessionLocks)
+    String key();
+
+    // Định danh ổn định của người chơi (tài khoản ví) dùng khi bắt đầu game mới trong slot này
+    long playerId();
+
+    // Bản sao của game để sửa rồi save; null nếu chưa có game
+    GameState load();
+
+    /**
+     * Giành quyền sửa game vừa {@link #load}; gọi ngay trước khi game hoặc ví bị thay đổi, {@link #save} tự gọi nếu
+     * chưa gọi. Với token do client giữ, từ đây token đã load không còn dùng được (kể cả khi request thất bại sau
+     * đó), nên hai request gửi cùng một token đến hai node chỉ có một request được sửa game.
+     */
+    default void claim() {
+    }
+
+    void save(GameState gameState);
+
+    // Tag của game hiện tại mà không cần trả về bản sao để sửa; null nếu chưa có game
+    default StateTag tag() {
+        GameState gameState = load();
+        return gameState != null ? StateTag.of(gameState) : null;
+    }
+}
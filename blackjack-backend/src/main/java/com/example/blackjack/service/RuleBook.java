@@ -0,0 +1,77 @@
+package com.example.blackjack.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Các bộ luật có tên khai báo trong {@code blackjack.rules.profiles}, mỗi bộ được dịch sẵn thành
+ * {@link BlackjackRules} lúc khởi động (cấu hình sai thì ứng dụng không khởi động). Profile {@code standard}
+ * luôn có, mặc định là luật trước khi có cấu hình. {@code blackjack.rules.game} là luật của ván một người chơi,
+ * {@code blackjack.rules.table} là luật mặc định của bàn nhiều người chơi mới.
+ */
+@Slf4j
+@Component
+public class RuleBook {
+
+    private final Map<String, BlackjackRules> rules;
+    private final BlackjackRules game;
+    private final BlackjackRules table;
+
+    public RuleBook(List<String> names, UnaryOperator<String> properties, String game, String table) {
+        Map<String, BlackjackRules> compiled = new LinkedHashMap<>();
+        compiled.put(RuleProfile.STANDARD.name(), BlackjackRules.STANDARD);
+        for (String name : names) {
+            if (!name.isBlank()) {
+                compiled.put(name.trim(), BlackjackRules.compile(RuleProfile.from(name.trim(), properties)));
+            }
+        }
+        this.rules = Collections.unmodifiableMap(compiled);
+        this.game = require(game);
+        this.table = require(table);
+        compiled.values().forEach(r -> log.info("Rule profile {}", r.profile()));
+    }
+
+    @Autowired
+    public RuleBook(@Value("${blackjack.rules.profiles:standard}") List<String> names, Environment environment,
+                    @Value("${blackjack.rules.game:standard}") String game,
+                    @Value("${blackjack.rules.table:standard}") String table) {
+        this(names, environment::getProperty, game, table);
+    }
+
+    // Chỉ có profile standard
+    public static RuleBook standard() {
+        return new RuleBook(List.of(), key -> null, RuleProfile.STANDARD.name(), RuleProfile.STANDARD.name());
+    }
+
+    public BlackjackRules game() {
+        return game;
+    }
+
+    public BlackjackRules table() {
+        return table;
+    }
+
+    // Profile không tồn tại: NoSuchElementException
+    public BlackjackRules require(String name) {
+        BlackjackRules found = rules.get(name);
+        if (found == null) {
+            throw new NoSuchElementException("Không có bộ luật " + name + ".");
+        }
+        return found;
+    }
+
+    public List<String> names() {
+        return List.copyOf(rules.keySet());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.blackjack.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.function.UnaryOperator;
+
+/**
+ * Một bộ luật có tên (loại bàn), đọc từ cấu hình {@code blackjack.rules.profile.<tên>.*}. Chỉ là mô tả;
+ * {@link BlackjackRules#compile} biến nó thành các bảng tra cứu dùng trên đường xử lý hành động.
+ *
+ * @param name                 tên profile, cũng là tên loại bàn mà client thấy
+ * @param decks                số bộ bài trong shoe
+ * @param reshufflePenetration xáo lại khi số lá còn lại dưới tỉ lệ này của shoe
+ * @param dealerHitsSoft17     nhà cái rút ở 17 mềm (H17); false là dừng ở mọi 17 (S17)
+ * @param blackjackPays        tỉ lệ trả Blackjack, dạng {@code 3:2} hoặc {@code 6:5}
+ * @param doubleAfterSplit     được gấp đôi trên tay đã tách
+ * @param maxHands             số tay tối đa sau khi tách (1 là không được tách, 2 là không tách lại),
+ *                             không quá {@link BlackjackRules#MAX_HANDS}
+ * @param hitSplitAces         tay tách từ Át được chơi tiếp; false là mỗi tay chỉ nhận một lá
+ * @param surrender            được đầu hàng (mất nửa cược) trên hai lá đầu, sau khi nhà cái đã kiểm tra Blackjack
+ */
+public record RuleProfile(
+        String name,
+        int decks,
+        double reshufflePenetration,
+        boolean dealerHitsSoft17,
+        String blackjackPays,
+        boolean doubleAfterSplit,
+        int maxHands,
+        boolean hitSplitAces,
+        boolean surrender) {
+
+    public static final String PREFIX = "blackjack.rules.profile.";
+
+    // Luật trước khi có cấu hình: 8 bộ, S17, 3:2, gấp đôi sau khi tách, tách lại đến 16 tay, tách Át một lá
+    public static final RuleProfile STANDARD =
+            new RuleProfile("standard", 8, 0.4, false, "3:2", true, BlackjackRules.MAX_HANDS, false, false);
+
+    public RuleProfile {
+        if (decks < 1 || decks > 8) {
+            throw new IllegalArgumentException("Rule profile " + name + ": invalid decks " + decks);
+        }
+        if (reshufflePenetration <= 0 || reshufflePenetration >= 1) {
+            throw new IllegalArgumentException("Rule profile " + name + ": invalid reshuffle penetration "
+                    + reshufflePenetration);
+        }
+        if (maxHands < 1 || maxHands > BlackjackRules.MAX_HANDS) {
+            throw new IllegalArgumentException("Rule profile " + name + ": invalid max hands " + maxHands);
+        }
+        blackjackPayout(name, blackjackPays);
+    }
+
+    // Tiền thắng trên mỗi đơn vị cược khi có Blackjack (3:2 là 1.5)
+    public double blackjackPayout() {
+        return blackjackPayout(name, blackjackPays);
+    }
+
+    /**
+     * Đọc profile {@code name} từ cấu hình, khóa thiếu lấy theo {@link #STANDARD}. {@code properties} trả về giá trị
+     * của một khóa hoặc null: {@code Environment::getProperty} trên server, {@code Properties::getProperty} khi
+     * chạy từ dòng lệnh.
+     */
+    public static RuleProfile from(String name, UnaryOperator<String> properties) {
+        String prefix = PREFIX + name + ".";
+        RuleProfile defaults = STANDARD;
+        return new RuleProfile(name,
+                intValue(properties.apply(prefix + "decks"), defaults.decks()),
+                doubleValue(properties.apply(prefix + "reshuffle-penetration"), defaults.reshufflePenetration()),
+                booleanValue(properties.apply(prefix + "dealer-hits-soft17"), defaults.dealerHitsSoft17()),
+                stringValue(properties.apply(prefix + "blackjack-pays"), defaults.blackjackPays()),
+                booleanValue(properties.apply(prefix + "double-after-split"), defaults.doubleAfterSplit()),
+                intValue(properties.apply(prefix + "max-hands"), defaults.maxHands()),
+                booleanValue(properties.apply(prefix + "hit-split-aces"), defaults.hitSplitAces()),
+                booleanValue(properties.apply(prefix + "surrender"), defaults.surrender()));
+    }
+
+    /**
+     * Đọc profile {@code name} từ {@code application.properties} trên classpath, cho các công cụ dòng lệnh chạy
+     * không có Spring (mô phỏng, chạy lại nhật ký). Profile phải được khai báo trong {@code blackjack.rules.profiles},
+     * trừ {@code standard}.
+     */
+    public static RuleProfile load(String name) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = RuleProfile.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (in != null) {
+                properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        }
+        boolean declared = Arrays.stream(properties.getProperty("blackjack.rules.profiles", "").split(","))
+                .map(String::trim)
+                .anyMatch(name::equals);
+        if (!declared && !name.equals(STANDARD.name())) {
+            throw new IllegalArgumentException("Unknown rule profile " + name);
+        }
+        return from(name, properties::getProperty);
+    }
+
+    private static double blackjackPayout(String name, String pays) {
+        int colon = pays == null ? -1 : pays.indexOf(':');
+        try {
+            if (colon > 0) {
+                int win = Integer.parseInt(pays.substring(0, colon).trim());
+                int stake = Integer.parseInt(pays.substring(colon + 1).trim());
+                if (win > 0 && stake > 0) {
+                    return (double) win / stake;
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Báo lỗi chung bên dưới
+        }
+        throw new IllegalArgumentException("Rule profile " + name + ": invalid blackjack payout " + pays);
+    }
+
+    private static String stringValue(String value, String defaultValue) {
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    private static double doubleValue(String value, double defaultValue) {
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    private static int intValue(String value, int defaultValue) {
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static boolean booleanValue(String value, boolean defaultValue) {
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.blackjack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Khóa phân dải (striped) theo session id: các hành động của cùng một phiên chạy lần lượt,
+ * các phiên khác nhau hầu như không bao giờ tranh chấp nhau. Số khóa cố định nên bộ nhớ không tăng
+ * theo số phiên và không cần dọn dẹp. Dùng {@link ReentrantLock} thay cho {@code synchronized}
+ * để không ghim (pin) virtual thread khi chờ.
+ */
+@Component
+public class SessionLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public SessionLocks(@Value("${blackjack.session.lock-stripes:4096}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    public <T> T withLock(String sessionId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(sessionId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String sessionId) {
+        int h = sessionId.hashCode();
+        return locks[(h ^ (h >>> 16)) & mask];
+    }
+}
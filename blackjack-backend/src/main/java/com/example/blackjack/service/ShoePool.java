@@ -0,0 +1,132 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.Deck;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hàng đợi có giới hạn các shoe đã xáo sẵn. Một luồng nền liên tục lấy shoe đã dùng (hoặc tạo mới khi
+ * chưa có), gom bài lại, xáo và đưa vào hàng đợi, nên request thread chỉ lấy ra trong O(1)
+ * mà không phải xáo hay cấp phát. Chỉ khi pool cạn request mới phải chờ; số lần chờ được ghi lại.
+ * Mỗi shoe được xáo bằng một seed 64 bit lấy từ {@link SecureRandom} (không đoán trước được) và lưu trong shoe,
+ * để ván chơi có thể được dựng lại. Mọi shoe trong pool có cùng số bộ bài, theo bộ luật của ván một người chơi.
+ */
+@Slf4j
+@Component
+public class ShoePool implements ShoeSource, AutoCloseable {
+
+    // Chờ tối đa chừng này trước khi tự xáo trên request thread
+    private static final long MAX_WAIT_MILLIS = 500;
+
+    private final int decks;
+    private final BlockingQueue<Deck> ready;
+    private final BlockingQueue<Deck> spent;
+    private final SecureRandom seeds = new SecureRandom();
+    private final Thread refiller;
+    private final Counter taken;
+    private final Counter waits;
+    private final Counter inlineShuffles;
+    private volatile boolean running = true;
+
+    public ShoePool(int capacity, MeterRegistry meterRegistry) {
+        this(capacity, BlackjackRules.STANDARD.decks(), meterRegistry);
+    }
+
+    @Autowired
+    public ShoePool(@Value("${blackjack.shoe-pool.capacity:64}") int capacity, RuleBook ruleBook,
+                    MeterRegistry meterRegistry) {
+        this(capacity, ruleBook.game().decks(), meterRegistry);
+    }
+
+    public ShoePool(int capacity, int decks, MeterRegistry meterRegistry) {
+        this.decks = decks;
+        ready = new ArrayBlockingQueue<>(capacity);
+        spent = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("blackjack.shoe.pool.depth", ready, BlockingQueue::size)
+                .description("Số shoe đã xáo sẵn trong pool")
+                .register(meterRegistry);
+        taken = Counter.builder("blackjack.shoe.pool.taken").register(meterRegistry);
+        waits = Counter.builder("blackjack.shoe.pool.waits")
+                .description("Số lần request phải chờ vì pool rỗng")
+                .register(meterRegistry);
+        inlineShuffles = Counter.builder("blackjack.shoe.pool.inline.shuffles")
+                .description("Số lần phải tự xáo trên request thread vì chờ quá lâu")
+                .register(meterRegistry);
+
+        refiller = Thread.ofPlatform().daemon().name("shoe-pool-refill").start(this::refill);
+    }
+
+    // Lấy một shoe đã xáo; chỉ chờ khi pool rỗng
+    @Override
+    public Deck take() {
+        taken.increment();
+        Deck deck = ready.poll();
+        if (deck != null) {
+            return deck;
+        }
+        waits.increment();
+        try {
+            deck = ready.poll(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (deck == null) {
+            inlineShuffles.increment();
+            deck = new Deck(decks);
+            deck.shuffle(seeds.nextLong());
+        }
+        return deck;
+    }
+
+    // Trả shoe đã dùng để xáo lại ở nền; pool tái chế đầy thì bỏ đi
+    @Override
+    public void recycle(Deck deck) {
+        spent.offer(deck);
+    }
+
+    public int decks() {
+        return decks;
+    }
+
+    public int depth() {
+        return ready.size();
+    }
+
+    private void refill() {
+        while (running) {
+            try {
+                Deck deck = spent.poll();
+                if (deck == null) {
+                    deck = new Deck(decks);
+                }
+                deck.shuffle(seeds.nextLong());
+                ready.put(deck);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Shoe pool refill failed", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        refiller.interrupt();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.Deck;
+
+import java.security.SecureRandom;
+
+/**
+ * Nơi {@link BlackjackService} lấy shoe mới khi cần xáo lại. Trên server là {@link ShoePool};
+ * khi chạy lại các ván đã ghi là shoe được xáo lại từ seed đã ghi; bàn có số bộ bài khác với pool dùng
+ * {@link #shuffling(int)}.
+ */
+public interface ShoeSource {
+
+    // Shoe đã xáo, seed của lần xáo nằm trong Deck#seed()
+    Deck take();
+
+    // Trả shoe đã dùng xong; mặc định bỏ đi
+    default void recycle(Deck deck) {
+    }
+
+    // Xáo shoe mới ngay trên luồng gọi, seed từ SecureRandom như ShoePool
+    static ShoeSource shuffling(int decks) {
+        SecureRandom seeds = new SecureRandom();
+        return () -> {
+            Deck deck = new Deck(decks);
+            deck.shuffle(seeds.nextLong());
+            return deck;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.blackjack.service;
+
+import com.example.blackjack.model.GameState;
+
+/**
+ * Định danh một phiên bản của game: người chơi và {@code version} (tăng sau mỗi hành động).
+ * Hai trạng thái có cùng tag thì giống nhau, nên tag được dùng làm ETag mạnh của {@code /api/game/state}.
+ */
+public record StateTag(long playerId, long version) {
+
+    public static StateTag of(GameState gameState) {
+        return new StateTag(gameState.getPlayerId(), gameState.getVersion());
+    }
+
+    // Dạng header ETag, ví dụ "1f3a9c0b2d4e5f60-12"
+    public String etag() {
+        return "\"" + Long.toHexString(playerId) + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.blackjack.session;
+
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+import org.springframework.stereotype.Component;
+
+// Xóa game khỏi store khi HttpSession hết hạn hoặc bị hủy
+@Component
+public class GameSessionCleanup implements HttpSessionListener {
+
+    private final GameSessionStore gameSessionStore;
+
+    public GameSessionCleanup(GameSessionStore gameSessionStore) {
+        this.gameSessionStore = gameSessionStore;
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        gameSessionStore.remove(event.getSession().getId());
+    }
+}
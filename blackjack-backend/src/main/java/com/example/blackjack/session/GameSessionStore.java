@@ -0,0 +1,247 @@
+package com.example.blackjack.session;
+
+import com.example.blackjack.cache.BoundedLruCache;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.service.StateTag;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Nơi lưu game của các phiên, thay cho thuộc tính trong {@code HttpSession}. Mỗi game là một bản ghi
+ * nhị phân ({@link GameStateCodec}) trong cache LRU có giới hạn; phiên bị đẩy ra khỏi cache hoặc để yên
+ * quá lâu được ghi xuống thư mục tạm (mỗi phiên một file {@code .bin}) và được nạp lại khi phiên quay lại.
+ * <p>
+ * Bản ghi bị đẩy ra chỉ được chuyển vào hàng chờ trong khóa của cache; luồng nền ghi file sau đó, nên request không
+ * chờ đĩa và lỗi ghi không làm hỏng request nào. Bản ghi chưa ghi được (đĩa đầy...) vẫn nằm trong hàng chờ, nạp lại
+ * được và được ghi lại ở lần sau. Mặc định mỗi instance dùng một thư mục tạm riêng, xóa khi tắt.
+ */
+@Slf4j
+@Component
+public class GameSessionStore implements AutoCloseable {
+
+    private final BoundedLruCache<String, byte[]> active;
+    private final Path spillDirectory;
+    // Thư mục tạm do store tự tạo, xóa khi tắt; false nếu thư mục do cấu hình chỉ định
+    private final boolean ownsDirectory;
+    // Bản ghi đã bị đẩy khỏi cache nhưng chưa nằm trên đĩa
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService sweeper;
+    private final Counter spills;
+    private final Counter spillFailures;
+    private final Counter restores;
+
+    /**
+     * {@code spillDirectory} trống thì tạo một thư mục tạm mới cho riêng instance này. Thư mục được chỉ định phải
+     * dành riêng cho một instance: các file {@code .bin} trong đó (của lần chạy trước) bị xóa khi khởi động.
+     */
+    public GameSessionStore(
+            @Value("${blackjack.session.store.max-active:100000}") int maxActive,
+            @Value("${blackjack.session.store.idle-spill:5m}") Duration idleSpill,
+            @Value("${blackjack.session.store.spill-dir:}") String spillDirectory,
+            MeterRegistry meterRegistry) throws IOException {
+        this.ownsDirectory = spillDirectory.isBlank();
+        this.spillDirectory = ownsDirectory
+                ? Files.createTempDirectory("blackjack-sessions-")
+                : Files.createDirectories(Path.of(spillDirectory));
+        this.active = new BoundedLruCache<>(maxActive, 64, this::spill);
+
+        // Các file còn lại thuộc về những HttpSession đã mất khi tắt server
+        deleteSpilledFiles();
+
+        Gauge.builder("blackjack.sessions.active", active, BoundedLruCache::size)
+                .description("Số game đang nằm trong bộ nhớ")
+                .register(meterRegistry);
+        spills = Counter.builder("blackjack.sessions.spilled").register(meterRegistry);
+        spillFailures = Counter.builder("blackjack.sessions.spill.failures")
+                .description("Số lần ghi game ra đĩa thất bại (game vẫn ở trong bộ nhớ)")
+                .register(meterRegistry);
+        restores = Counter.builder("blackjack.sessions.restored").register(meterRegistry);
+
+        long idleNanos = idleSpill.toNanos();
+        sweeper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("session-spill").factory());
+        sweeper.scheduleWithFixedDelay(() -> active.evictIdle(idleNanos), 30, 30, TimeUnit.SECONDS);
+        // Thử lại các bản ghi chưa ghi được
+        sweeper.scheduleWithFixedDelay(this::writeQuietly, 30, 30, TimeUnit.SECONDS);
+    }
+
+    public GameState load(String sessionId) {
+        byte[] bytes = active.getOrLoad(sessionId, this::restore);
+        return bytes != null ? GameStateCodec.decode(bytes) : null;
+    }
+
+    public StateTag tag(String sessionId) {
+        byte[] bytes = active.getOrLoad(sessionId, this::restore);
+        return bytes != null ? GameStateCodec.tag(bytes) : null;
+    }
+
+    public void save(String sessionId, GameState gameState) {
+        active.put(sessionId, GameStateCodec.encode(gameState));
+    }
+
+    // Game của một HttpSession của người chơi playerId, dùng cho GameSessionManager
+    public GameSlot slot(String sessionId, long playerId) {
+        return new GameSlot() {
+            @Override
+            public String key() {
+                return sessionId;
+            }
+
+            @Override
+            public long playerId() {
+                return playerId;
+            }
+
+            @Override
+            public GameState load() {
+                return GameSessionStore.this.load(sessionId);
+            }
+
+            @Override
+            public void save(GameState gameState) {
+                GameSessionStore.this.save(sessionId, gameState);
+            }
+
+            @Override
+            public StateTag tag() {
+                return GameSessionStore.this.tag(sessionId);
+            }
+        };
+    }
+
+    public void remove(String sessionId) {
+        active.remove(sessionId);
+        pending.remove(sessionId);
+        try {
+            Files.deleteIfExists(fileFor(sessionId));
+        } catch (IOException e) {
+            log.warn("Could not delete spilled session {}", sessionId, e);
+        }
+    }
+
+    // Gọi trong khóa segment của cache: chỉ xếp hàng, file được ghi trên luồng nền (writePending)
+    private void spill(String sessionId, byte[] bytes) {
+        pending.put(sessionId, bytes);
+        if (writeScheduled.compareAndSet(false, true)) {
+            try {
+                sweeper.execute(this::writeQuietly);
+            } catch (RejectedExecutionException e) {
+                // Store đã đóng: bản ghi ở lại trong bộ nhớ
+            }
+        }
+    }
+
+    /**
+     * Ghi các bản ghi trong hàng chờ, chỉ chạy trên luồng nền nên các lần ghi không chồng lên nhau. Bản ghi được nạp
+     * lại hoặc bị xóa trong lúc ghi thì file vừa ghi bị bỏ; ghi lỗi thì bản ghi ở lại hàng chờ cho lần sau.
+     */
+    private void writePending() {
+        writeScheduled.set(false);
+        int failed = 0;
+        for (Map.Entry<String, byte[]> entry : pending.entrySet()) {
+            String sessionId = entry.getKey();
+            byte[] bytes = entry.getValue();
+            Path file = fileFor(sessionId);
+            try {
+                Files.write(file, bytes);
+                if (pending.remove(sessionId, bytes)) {
+                    spills.increment();
+                } else if (!pending.containsKey(sessionId)) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                failed++;
+                spillFailures.increment();
+                log.debug("Could not spill session {}", sessionId, e);
+            }
+        }
+        if (failed > 0) {
+            log.warn("Could not spill {} sessions to {}, keeping them in memory", failed, spillDirectory);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            writePending();
+        } catch (RuntimeException e) {
+            log.error("Could not spill sessions", e);
+        }
+    }
+
+    // Gọi trong khóa segment của cache nên không chạy song song với spill của cùng phiên
+    private byte[] restore(String sessionId) {
+        byte[] waiting = pending.remove(sessionId);
+        if (waiting != null) {
+            restores.increment();
+            return waiting;
+        }
+        Path file = fileFor(sessionId);
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.delete(file);
+            restores.increment();
+            return bytes;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore session " + sessionId, e);
+        }
+    }
+
+    // Session id của Tomcat chỉ gồm ký tự hex (có thể kèm ".jvmRoute"), vẫn lọc lại cho an toàn
+    private Path fileFor(String sessionId) {
+        return spillDirectory.resolve(sessionId.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    }
+
+    private void deleteSpilledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".bin")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        try {
+            // Đợi lần ghi đang chạy xong để không còn file nào xuất hiện sau khi đóng
+            sweeper.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownsDirectory) {
+            try {
+                deleteSpilledFiles();
+                Files.deleteIfExists(spillDirectory);
+            } catch (IOException e) {
+                log.warn("Could not delete session spill directory {}", spillDirectory, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.blackjack.session;
+
+import com.example.blackjack.service.GameSlot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Chọn nơi giữ game cho mỗi request theo {@code blackjack.state.mode}: {@code session} (mặc định) dùng
+ * {@link GameSessionStore} theo cookie phiên; {@code token} dùng token đã ký do client giữ
+ * ({@link GameStateTokens}), không tạo HttpSession. Ở cả hai chế độ game mới thuộc về định danh ổn định của người
+ * chơi ({@link PlayerIdentity}), không phải phiên hay token.
+ */
+@Component
+public class GameSlots {
+
+    public enum Mode {
+        SESSION,
+        TOKEN
+    }
+
+    // Token mới nhất của một kết nối WebSocket ở chế độ token
+    public static final String TOKEN_ATTRIBUTE = "gameStateToken";
+
+    private final Mode mode;
+    private final GameSessionStore gameSessionStore;
+    private final GameStateTokens gameStateTokens;
+    private final PlayerIdentity playerIdentity;
+
+    public GameSlots(@Value("${blackjack.state.mode:session}") Mode mode, GameSessionStore gameSessionStore,
+                     GameStateTokens gameStateTokens, PlayerIdentity playerIdentity) {
+        this.mode = mode;
+        this.gameSessionStore = gameSessionStore;
+        this.gameStateTokens = gameStateTokens;
+        this.playerIdentity = playerIdentity;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    // Token gửi lên qua header, token mới trả về qua header của response
+    public GameSlot forRequest(HttpServletRequest request, HttpServletResponse response) {
+        long playerId = playerIdentity.resolve(request, response);
+        if (mode == Mode.TOKEN) {
+            return gameStateTokens.slot(request.getHeader(GameStateTokens.HEADER), playerId,
+                    token -> response.setHeader(GameStateTokens.HEADER, token));
+        }
+        return gameSessionStore.slot(request.getSession().getId(), playerId);
+    }
+
+    /**
+     * Game của một kết nối WebSocket. Ở chế độ token, token ban đầu lấy từ query {@code state} của handshake
+     * và token mới nhất được giữ trong {@code attributes} của kết nối để gửi kèm mỗi sự kiện. Người chơi chưa có
+     * cookie định danh nhận cookie qua response của handshake.
+     */
+    public GameSlot forConnection(HttpServletRequest handshake, HttpServletResponse response,
+                                  Map<String, Object> attributes) {
+        long playerId = playerIdentity.resolve(handshake, response);
+        if (mode == Mode.TOKEN) {
+            return gameStateTokens.slot(handshake.getParameter("state"), playerId,
+                    token -> attributes.put(TOKEN_ATTRIBUTE, token));
+        }
+        return gameSessionStore.slot(handshake.getSession().getId(), playerId);
+    }
+}
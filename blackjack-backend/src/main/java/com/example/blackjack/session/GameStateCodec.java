@@ -0,0 +1,140 @@
+package com.example.blackjack.session;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.service.StateTag;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Mã hóa {@link GameState} thành bản ghi nhị phân gọn để lưu trong session store:
+ * shoe là mảng mã lá bài + con trỏ, mỗi tay bài là mảng mã lá bài, số dư và tiền cược là long (xu),
+ * các hành động hợp lệ là bitmask một byte.
+ * Một game đang chơi với shoe 8 bộ chiếm khoảng 500 byte.
+ */
+public final class GameStateCodec {
+
+    private static final byte FORMAT_VERSION = 4;
+
+    private static final byte FLAG_ROUND_OVER = 1;
+    private static final byte FLAG_HAS_DECK = 2;
+
+    private static final HandStatus[] STATUSES = HandStatus.values();
+
+    private GameStateCodec() {
+    }
+
+    public static byte[] encode(GameState gameState) {
+        byte[] message = gameState.getGameMessage() != null
+                ? gameState.getGameMessage().getBytes(StandardCharsets.UTF_8)
+                : null;
+        Deck deck = gameState.getDeck();
+
+        int size = 1 + 8 + 8 + 8 + 1
+                + (deck != null ? 4 + 8 + deck.capacity() : 0)
+                + handSize(gameState.getDealerHand())
+                + 1 + gameState.getPlayerHands().stream().mapToInt(GameStateCodec::handSize).sum()
+                + 1
+                + 2 + (message != null ? message.length : 0);
+        ByteBuffer out = ByteBuffer.allocate(size);
+
+        out.put(FORMAT_VERSION);
+        out.putLong(gameState.getVersion());
+        out.putLong(gameState.getPlayerId());
+        out.putLong(gameState.getPlayerBalance());
+        out.put((byte) ((gameState.isRoundOver() ? FLAG_ROUND_OVER : 0) | (deck != null ? FLAG_HAS_DECK : 0)));
+        if (deck != null) {
+            deck.writeTo(out);
+        }
+
+        writeHand(out, gameState.getDealerHand());
+        out.put((byte) gameState.getPlayerHands().size());
+        for (Hand hand : gameState.getPlayerHands()) {
+            writeHand(out, hand);
+        }
+
+        out.put((byte) gameState.getActionMask());
+
+        // Độ dài 0xFFFF nghĩa là không có thông báo
+        if (message == null) {
+            out.putShort((short) 0xFFFF);
+        } else {
+            out.putShort((short) message.length);
+            out.put(message);
+        }
+        return out.array();
+    }
+
+    // Chỉ đọc phần đầu bản ghi (phiên bản game và người chơi), không dựng lại GameState
+    public static StateTag tag(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte format = in.get();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported game state format " + format);
+        }
+        long version = in.getLong();
+        return new StateTag(in.getLong(), version);
+    }
+
+    public static GameState decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte format = in.get();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported game state format " + format);
+        }
+
+        GameState gameState = new GameState();
+        gameState.setVersion(in.getLong());
+        gameState.setPlayerId(in.getLong());
+        gameState.setPlayerBalance(in.getLong());
+        byte flags = in.get();
+        gameState.setRoundOver((flags & FLAG_ROUND_OVER) != 0);
+        if ((flags & FLAG_HAS_DECK) != 0) {
+            gameState.setDeck(Deck.readFrom(in));
+        }
+
+        gameState.setDealerHand(readHand(in));
+        int hands = Byte.toUnsignedInt(in.get());
+        for (int i = 0; i < hands; i++) {
+            gameState.getPlayerHands().add(readHand(in));
+        }
+
+        gameState.setActionMask(Byte.toUnsignedInt(in.get()));
+
+        int messageLength = Short.toUnsignedInt(in.getShort());
+        if (messageLength != 0xFFFF) {
+            byte[] message = new byte[messageLength];
+            in.get(message);
+            gameState.setGameMessage(new String(message, StandardCharsets.UTF_8));
+        }
+        return gameState;
+    }
+
+    private static int handSize(Hand hand) {
+        return 1 + hand.getCards().size() + 8 + 1;
+    }
+
+    private static void writeHand(ByteBuffer out, Hand hand) {
+        out.put((byte) hand.getCards().size());
+        for (Card card : hand.getCards()) {
+            out.put((byte) card.code());
+        }
+        out.putLong(hand.getBetAmount());
+        out.put((byte) hand.getStatus().ordinal());
+    }
+
+    private static Hand readHand(ByteBuffer in) {
+        Hand hand = new Hand();
+        int cards = Byte.toUnsignedInt(in.get());
+        for (int i = 0; i < cards; i++) {
+            hand.addCard(Card.fromCode(in.get()));
+        }
+        hand.setBetAmount(in.getLong());
+        hand.setStatus(STATUSES[in.get()]);
+        return hand;
+    }
+}
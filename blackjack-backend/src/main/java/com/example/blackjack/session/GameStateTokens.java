@@ -0,0 +1,379 @@
+package com.example.blackjack.session;
+
+import com.example.blackjack.cache.BoundedLruCache;
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.service.RuleBook;
+import com.example.blackjack.service.StateTag;
+import com.example.blackjack.wallet.Wallet;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Chế độ token: game được mã hóa thành token nhị phân gọn (base64url) do client giữ và gửi lại ở mỗi request
+ * qua header {@value #HEADER}, nên server không giữ game hay HttpSession. Shoe chỉ được lưu bằng seed và số lá
+ * còn lại ({@link Deck#fromSeed}); seed được che bằng mặt nạ khóa bí mật nên client không biết trước thứ tự lá.
+ * Token được ký bằng HMAC-SHA256 (cắt còn 128 bit); mọi node phải dùng chung {@code blackjack.state.token-key}.
+ * <p>
+ * Xáo lại shoe từ seed là phần đắt nhất khi đọc token, nên mỗi node giữ một cache nhỏ seed -> shoe đã xáo;
+ * cache chỉ để tăng tốc, node không có cache vẫn dựng lại được đúng shoe.
+ * <p>
+ * Mỗi token mang một dấu phiên bản ngẫu nhiên, cũng được ghi trong tài khoản ví của người chơi
+ * ({@link Wallet#stateStamp}); chỉ token mang dấu hiện tại được nhận. Trước khi sửa game, slot đổi dấu trong ví từ
+ * dấu của token sang dấu của token kế tiếp bằng một bước so sánh rồi ghi ({@link Wallet#compareAndSetStateStamp}),
+ * nên mỗi token chỉ sửa game được một lần. Gửi lại token cũ hơn (ví dụ token trước khi ván được thanh toán) bị từ
+ * chối bằng {@link InvalidStateTokenException}, nên không nhân đôi được tiền thắng hay chọn lại nước đi sau khi đã
+ * thấy lá kế tiếp. Ví là nguồn duy nhất của cả số dư và dấu phiên bản (một node giữ sổ, các node khác gọi tới,
+ * xem {@link Wallet}), nên request đến node nào cũng được kiểm như nhau, không cần đưa người chơi về cùng node.
+ * Số dư và thông báo của game không lấy từ token.
+ */
+@Slf4j
+@Component
+public class GameStateTokens {
+
+    public static final String HEADER = "X-Game-State";
+
+    private static final byte FORMAT_VERSION = 3;
+    private static final int TAG_LENGTH = 16;
+    private static final byte FLAG_ROUND_OVER = 1;
+    private static final byte FLAG_HAS_DECK = 2;
+    private static final byte[] SEED_MASK_DOMAIN = {'s', 'e', 'e', 'd'};
+    private static final HandStatus[] STATUSES = HandStatus.values();
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Mac đã khởi tạo khóa; mỗi lần dùng clone ra một bản (rẻ hơn Mac.getInstance, không phụ thuộc luồng)
+    private final Mac prototype;
+    // Shoe đã xáo (còn đủ lá) theo seed; một shoe được dùng cho nhiều ván liên tiếp của cùng người chơi
+    private final BoundedLruCache<Long, Deck> shuffledShoes;
+    // Số bộ bài của shoe theo luật của ván một người chơi; đổi luật thì token cũ không còn dựng lại đúng shoe
+    private final int decks;
+    // Giữ dấu phiên bản mới nhất của mỗi người chơi
+    private final Wallet wallet;
+
+    // Token đã kiểm chữ ký cùng dấu phiên bản của nó
+    private record Token(GameState gameState, long stamp) {
+    }
+
+    // Ví riêng trong bộ nhớ: benchmark và test
+    public GameStateTokens(String key, int shoeCacheEntries) throws GeneralSecurityException {
+        this(key, shoeCacheEntries, BlackjackRules.STANDARD.decks(), Wallet.inMemory());
+    }
+
+    @Autowired
+    public GameStateTokens(@Value("${blackjack.state.token-key:}") String key,
+            @Value("${blackjack.state.shoe-cache-entries:4096}") int shoeCacheEntries,
+            RuleBook ruleBook, Wallet wallet) throws GeneralSecurityException {
+        this(key, shoeCacheEntries, ruleBook.game().decks(), wallet);
+    }
+
+    public GameStateTokens(String key, int shoeCacheEntries, int decks, Wallet wallet)
+            throws GeneralSecurityException {
+        this.decks = decks;
+        this.wallet = wallet;
+        byte[] secret;
+        if (key.isBlank()) {
+            log.warn("blackjack.state.token-key is not set, using a random key: state tokens only work on this node");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(key);
+        }
+        prototype = Mac.getInstance("HmacSHA256");
+        prototype.init(new SecretKeySpec(secret, "HmacSHA256"));
+        shuffledShoes = new BoundedLruCache<>(shoeCacheEntries, 16);
+    }
+
+    // stamp là dấu phiên bản của token (xem slot); token chỉ dùng được trong slot khi khớp dấu trong ví
+    public String encode(GameState gameState, long stamp) {
+        Mac mac = mac();
+        Deck deck = gameState.getDeck();
+        ByteBuffer out = ByteBuffer.allocate(size(gameState) + TAG_LENGTH);
+
+        out.put(FORMAT_VERSION);
+        out.putLong(gameState.getPlayerId());
+        out.putLong(gameState.getVersion());
+        out.putLong(stamp);
+        out.putLong(gameState.getPlayerBalance());
+        out.put((byte) ((gameState.isRoundOver() ? FLAG_ROUND_OVER : 0) | (deck != null ? FLAG_HAS_DECK : 0)));
+        if (deck != null) {
+            out.putLong(deck.seed() ^ seedMask(mac, gameState.getPlayerId(), gameState.getVersion()));
+            out.putShort((short) deck.size());
+        }
+        out.put((byte) gameState.getActionMask());
+        writeHand(out, gameState.getDealerHand());
+        out.put((byte) gameState.getPlayerHands().size());
+        for (Hand hand : gameState.getPlayerHands()) {
+            writeHand(out, hand);
+            out.putLong(hand.getBetAmount());
+        }
+
+        int length = out.position();
+        mac.update(out.array(), 0, length);
+        out.put(mac.doFinal(), 0, TAG_LENGTH);
+        return ENCODER.encodeToString(out.array());
+    }
+
+    // Token sai chữ ký, sai định dạng hoặc ký bằng khóa khác đều bị từ chối bằng InvalidStateTokenException
+    public GameState decode(String token) {
+        return read(token).gameState();
+    }
+
+    /**
+     * playerId đã ký trong token, -1 nếu token sai chữ ký hoặc định dạng. Chỉ kiểm chữ ký, không dựng lại game
+     * hay kiểm dấu phiên bản: đủ để phân biệt người chơi trước khi request vào đến slot (AdmissionFilter).
+     */
+    public long playerId(String token) {
+        try {
+            byte[] bytes = verified(token);
+            ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - TAG_LENGTH);
+            return in.get() == FORMAT_VERSION ? in.getLong() : -1;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private Token read(String token) {
+        byte[] bytes = verified(token);
+        Mac mac = mac();
+        int length = bytes.length - TAG_LENGTH;
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 0, length);
+            if (in.get() != FORMAT_VERSION) {
+                throw invalid();
+            }
+            GameState gameState = new GameState();
+            gameState.setPlayerId(in.getLong());
+            gameState.setVersion(in.getLong());
+            long stamp = in.getLong();
+            gameState.setPlayerBalance(in.getLong());
+            byte flags = in.get();
+            gameState.setRoundOver((flags & FLAG_ROUND_OVER) != 0);
+            if ((flags & FLAG_HAS_DECK) != 0) {
+                long seed = in.getLong() ^ seedMask(mac, gameState.getPlayerId(), gameState.getVersion());
+                gameState.setDeck(shoe(seed).copyAt(Short.toUnsignedInt(in.getShort())));
+            }
+            gameState.setActionMask(Byte.toUnsignedInt(in.get()));
+            gameState.setDealerHand(readHand(in));
+            int hands = in.get();
+            if (hands < 0 || hands > BlackjackRules.MAX_HANDS) {
+                throw invalid();
+            }
+            for (int i = 0; i < hands; i++) {
+                Hand hand = readHand(in);
+                hand.setBetAmount(in.getLong());
+                gameState.getPlayerHands().add(hand);
+            }
+            return new Token(gameState, stamp);
+        } catch (RuntimeException e) {
+            // Chữ ký đúng nhưng không đọc được: token của phiên bản định dạng khác
+            throw invalid();
+        }
+    }
+
+    /**
+     * Game do client giữ: {@code token} là token client gửi lên (null nếu chưa có game), token mới sau mỗi
+     * lần lưu được đưa cho {@code issued}. Game mới được mở cho người chơi {@code playerId}; game trong token
+     * giữ playerId đã ký trong token. Dùng được cho nhiều request liên tiếp (kênh WebSocket).
+     * <p>
+     * {@code load} chỉ so dấu của token với ví. {@code claim} đổi dấu trong ví sang dấu của token kế tiếp nếu
+     * dấu vẫn là của token đã load, nên trong các request (trên bất kỳ node nào) cùng gửi một token chỉ một request
+     * được sửa game, các request còn lại bị từ chối như token cũ. {@code save} phát token mang dấu đã giành; game
+     * mới (không load từ token) ghi thẳng dấu mới vào ví, làm mọi token cũ của người chơi hết hiệu lực.
+     */
+    public GameSlot slot(String token, long playerId, Consumer<String> issued) {
+        return new GameSlot() {
+            private String current = token;
+            private Token decoded;
+            // Token của game vừa load, chưa giành
+            private Token loaded;
+            // Dấu của token kế tiếp đã giành được trong ví; 0 nếu chưa giành
+            private long claimed;
+
+            @Override
+            public String key() {
+                // Khóa theo người chơi để các request đồng thời của người chơi trên node này chạy lần lượt
+                return "token:" + playerId();
+            }
+
+            @Override
+            public long playerId() {
+                Token peeked = peek();
+                return peeked != null ? peeked.gameState().getPlayerId() : playerId;
+            }
+
+            @Override
+            public GameState load() {
+                Token peeked = peek();
+                decoded = null;
+                loaded = peeked;
+                return peeked != null ? fresh(peeked) : null;
+            }
+
+            @Override
+            public void claim() {
+                if (loaded == null) {
+                    return;
+                }
+                long next = nextStamp();
+                if (!wallet.compareAndSetStateStamp(loaded.gameState().getPlayerId(), loaded.stamp(), next)) {
+                    throw stale();
+                }
+                loaded = null;
+                claimed = next;
+            }
+
+            @Override
+            public void save(GameState gameState) {
+                claim();
+                long stamp = claimed;
+                if (stamp == 0) {
+                    stamp = nextStamp();
+                    wallet.setStateStamp(gameState.getPlayerId(), stamp);
+                }
+                claimed = 0;
+                current = encode(gameState, stamp);
+                decoded = null;
+                issued.accept(current);
+            }
+
+            @Override
+            public StateTag tag() {
+                Token peeked = peek();
+                return peeked != null ? StateTag.of(fresh(peeked)) : null;
+            }
+
+            private Token peek() {
+                if (decoded == null && current != null) {
+                    decoded = read(current);
+                }
+                return decoded;
+            }
+        };
+    }
+
+    // Game trong token nếu token mang dấu phiên bản mới nhất của người chơi, với số dư lấy từ ví
+    private GameState fresh(Token token) {
+        long playerId = token.gameState().getPlayerId();
+        if (token.stamp() == 0 || wallet.stateStamp(playerId) != token.stamp()) {
+            throw stale();
+        }
+        token.gameState().setPlayerBalance(wallet.balance(playerId));
+        return token.gameState();
+    }
+
+    private static long nextStamp() {
+        long stamp;
+        do {
+            stamp = ThreadLocalRandom.current().nextLong();
+        } while (stamp == 0);
+        return stamp;
+    }
+
+    private Deck shoe(long seed) {
+        Deck shoe = shuffledShoes.get(seed);
+        if (shoe == null) {
+            shoe = Deck.fromSeed(decks, seed, decks * 52);
+            shuffledShoes.put(seed, shoe);
+        }
+        return shoe;
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Mặt nạ của seed, khác nhau ở mỗi phiên bản game nên hai token không lộ quan hệ giữa các seed
+    private static long seedMask(Mac mac, long playerId, long version) {
+        mac.update(SEED_MASK_DOMAIN);
+        mac.update(ByteBuffer.allocate(16).putLong(playerId).putLong(version).array());
+        return ByteBuffer.wrap(mac.doFinal()).getLong();
+    }
+
+    private static int size(GameState gameState) {
+        int size = 1 + 8 + 8 + 8 + 8 + 1 + (gameState.getDeck() != null ? 8 + 2 : 0) + 1
+                + handSize(gameState.getDealerHand()) + 1;
+        for (Hand hand : gameState.getPlayerHands()) {
+            size += handSize(hand) + 8;
+        }
+        return size;
+    }
+
+    private static int handSize(Hand hand) {
+        return 1 + hand.getCards().size() + 1;
+    }
+
+    private static void writeHand(ByteBuffer out, Hand hand) {
+        out.put((byte) hand.getCards().size());
+        for (Card card : hand.getCards()) {
+            out.put((byte) card.code());
+        }
+        out.put((byte) hand.getStatus().ordinal());
+    }
+
+    private static Hand readHand(ByteBuffer in) {
+        Hand hand = new Hand();
+        int cards = in.get();
+        for (int i = 0; i < cards; i++) {
+            hand.addCard(Card.fromCode(in.get()));
+        }
+        hand.setStatus(STATUSES[in.get()]);
+        return hand;
+    }
+
+    // Nội dung token (kèm chữ ký ở cuối) nếu chữ ký đúng
+    private byte[] verified(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (bytes.length <= TAG_LENGTH) {
+            throw invalid();
+        }
+        Mac mac = mac();
+        int length = bytes.length - TAG_LENGTH;
+        mac.update(bytes, 0, length);
+        byte[] tag = mac.doFinal();
+        // So sánh không rẽ nhánh theo nội dung, tránh lộ vị trí byte sai qua thời gian phản hồi
+        int diff = 0;
+        for (int i = 0; i < TAG_LENGTH; i++) {
+            diff |= tag[i] ^ bytes[length + i];
+        }
+        if (diff != 0) {
+            throw invalid();
+        }
+        return bytes;
+    }
+
+    private static InvalidStateTokenException stale() {
+        return new InvalidStateTokenException("Token trạng thái game đã cũ.");
+    }
+
+    private static InvalidStateTokenException invalid() {
+        return new InvalidStateTokenException("Token trạng thái game không hợp lệ.");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.blackjack.session;
+
+/**
+ * Token trạng thái game (chế độ token) không dùng được: sai chữ ký, sai định dạng hoặc không còn là token mới nhất
+ * của người chơi. Controller trả {@value #STATUS} kèm {@code code} {@value #CODE}; chỉ khi nhận tín hiệu này client
+ * mới bỏ token đã lưu (lỗi 400 thông thường, như số tiền cược sai, không làm mất game đang chơi).
+ */
+public class InvalidStateTokenException extends RuntimeException {
+
+    // 412 Precondition Failed: game mà request dựa vào không còn là game hiện tại
+    public static final int STATUS = 412;
+    public static final String CODE = "STATE_TOKEN_REJECTED";
+
+    public InvalidStateTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.blackjack.session;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Định danh ổn định của người chơi, khóa tài khoản ví ({@link com.example.blackjack.wallet.Wallet}) và thống kê.
+ * Định danh nằm trong cookie dài hạn {@value #COOKIE} (playerId kèm HMAC-SHA256 cắt còn 128 bit), độc lập với
+ * HttpSession, nên người chơi quay lại sau khi phiên hết hạn vẫn là cùng một tài khoản. Chữ ký ngăn việc đổi cookie
+ * để dùng tài khoản của người khác (playerId hiện công khai trên bảng xếp hạng). Chạy nhiều node thì mọi node phải
+ * dùng chung {@code blackjack.player.key}.
+ */
+@Slf4j
+@Component
+public class PlayerIdentity {
+
+    public static final String COOKIE = "BJ_PLAYER";
+
+    private static final String ATTRIBUTE = PlayerIdentity.class.getName();
+    private static final int TAG_LENGTH = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Mac đã khởi tạo khóa; mỗi lần dùng clone ra một bản (xem GameStateTokens)
+    private final Mac prototype;
+    private final Duration maxAge;
+
+    public PlayerIdentity(@Value("${blackjack.player.key:}") String key,
+            @Value("${blackjack.player.cookie-max-age:400d}") Duration maxAge) throws GeneralSecurityException {
+        this.maxAge = maxAge;
+        byte[] secret;
+        if (key.isBlank()) {
+            log.warn("blackjack.player.key is not set, using a random key: players get a new wallet after a restart");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(key);
+        }
+        prototype = Mac.getInstance("HmacSHA256");
+        prototype.init(new SecretKeySpec(secret, "HmacSHA256"));
+    }
+
+    /**
+     * Định danh của người gửi request: lấy từ cookie nếu chữ ký đúng, ngược lại cấp định danh mới và gửi cookie
+     * qua {@code response} (null thì không gửi được, định danh chỉ dùng cho request này). Gọi nhiều lần trong cùng
+     * request trả về cùng một định danh.
+     */
+    public long resolve(HttpServletRequest request, HttpServletResponse response) {
+        if (request.getAttribute(ATTRIBUTE) instanceof Long playerId) {
+            return playerId;
+        }
+        long playerId = read(request.getCookies());
+        if (playerId < 0) {
+            playerId = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+            if (response != null) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, sign(playerId))
+                        .path("/").httpOnly(true).sameSite("Lax").maxAge(maxAge).build().toString());
+            }
+        }
+        request.setAttribute(ATTRIBUTE, playerId);
+        return playerId;
+    }
+
+    // Giá trị cookie cho playerId: 8 byte playerId và 16 byte chữ ký, base64url
+    String sign(long playerId) {
+        ByteBuffer value = ByteBuffer.allocate(8 + TAG_LENGTH).putLong(playerId);
+        value.put(tag(playerId), 0, TAG_LENGTH);
+        return ENCODER.encodeToString(value.array());
+    }
+
+    // playerId trong cookie; -1 nếu không có cookie hoặc chữ ký sai
+    private long read(Cookie[] cookies) {
+        if (cookies == null) {
+            return -1;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return -1;
+    }
+
+    long verify(String value) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        if (bytes.length != 8 + TAG_LENGTH) {
+            return -1;
+        }
+        long playerId = ByteBuffer.wrap(bytes).getLong();
+        // So sánh thời gian hằng, không lộ vị trí byte sai
+        boolean valid = MessageDigest.isEqual(Arrays.copyOf(tag(playerId), TAG_LENGTH),
+                Arrays.copyOfRange(bytes, 8, 8 + TAG_LENGTH));
+        return playerId >= 0 && valid ? playerId : -1;
+    }
+
+    private byte[] tag(long playerId) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(ByteBuffer.allocate(8).putLong(playerId).array());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
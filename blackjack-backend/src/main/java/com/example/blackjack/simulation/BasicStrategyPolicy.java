@@ -0,0 +1,87 @@
+package com.example.blackjack.simulation;
+
+import com.example.blackjack.model.Rank;
+
+/**
+ * Chiến lược cơ bản cho nhiều bộ bài, nhà cái dừng ở mọi 17, được gấp đôi sau khi tách. Khi luật cho phép
+ * đầu hàng muộn: 16 cứng gặp 9, 10, Át và 15 cứng gặp 10.
+ */
+public class BasicStrategyPolicy implements PlayerPolicy {
+
+    public static final BasicStrategyPolicy INSTANCE = new BasicStrategyPolicy();
+
+    @Override
+    public Decision decide(int total, boolean soft, Rank pairRank, Rank upcard, boolean canDouble, boolean canSplit) {
+        int up = upcard.getValue(); // 2..11, Át là 11
+
+        if (pairRank != null && canSplit && shouldSplit(pairRank, up)) {
+            return Decision.SPLIT;
+        }
+        return soft ? softTotal(total, up, canDouble) : hardTotal(total, up, canDouble);
+    }
+
+    @Override
+    public boolean surrender(int total, boolean soft, Rank upcard) {
+        int up = upcard.getValue();
+        return !soft && (total == 16 && up >= 9 || total == 15 && up == 10);
+    }
+
+    private static boolean shouldSplit(Rank pairRank, int up) {
+        return switch (pairRank) {
+            case ACE, EIGHT -> true;
+            case TWO, THREE, SEVEN -> up <= 7;
+            case FOUR -> up == 5 || up == 6;
+            case SIX -> up <= 6;
+            case NINE -> up <= 9 && up != 7;
+            default -> false; // 5 và các lá 10 không bao giờ tách
+        };
+    }
+
+    private static Decision hardTotal(int total, int up, boolean canDouble) {
+        if (total >= 17) {
+            return Decision.STAND;
+        }
+        if (total >= 13) {
+            return up <= 6 ? Decision.STAND : Decision.HIT;
+        }
+        if (total == 12) {
+            return up >= 4 && up <= 6 ? Decision.STAND : Decision.HIT;
+        }
+        if (total == 11) {
+            return up <= 10 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        if (total == 10) {
+            return up <= 9 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        if (total == 9) {
+            return up >= 3 && up <= 6 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        return Decision.HIT;
+    }
+
+    private static Decision softTotal(int total, int up, boolean canDouble) {
+        if (total >= 19) {
+            return Decision.STAND;
+        }
+        if (total == 18) {
+            if (up >= 3 && up <= 6) {
+                return doubleOr(Decision.STAND, canDouble);
+            }
+            return up <= 8 ? Decision.STAND : Decision.HIT;
+        }
+        if (total == 17) {
+            return up >= 3 && up <= 6 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        if (total >= 15) {
+            return up >= 4 && up <= 6 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        if (total >= 13) {
+            return up == 5 || up == 6 ? doubleOr(Decision.HIT, canDouble) : Decision.HIT;
+        }
+        return Decision.HIT; // A-A không tách
+    }
+
+    private static Decision doubleOr(Decision fallback, boolean canDouble) {
+        return canDouble ? Decision.DOUBLE_DOWN : fallback;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.blackjack.simulation;
+
+import com.example.blackjack.model.Rank;
+
+/**
+ * Chiến lược của người chơi trong chế độ mô phỏng.
+ * Một instance được dùng chung cho mọi luồng nên phải thread-safe (thường là không có trạng thái).
+ */
+public interface PlayerPolicy {
+
+    enum Decision {
+        HIT,
+        STAND,
+        DOUBLE_DOWN,
+        SPLIT,
+        SURRENDER
+    }
+
+    /**
+     * @param total     điểm hiện tại của tay bài (Át đã được tính 1 hoặc 11 như {@code Hand.getHandValue})
+     * @param soft      true nếu có một Át đang được tính là 11
+     * @param pairRank  rank của đôi nếu tay bài gồm đúng hai lá cùng rank, ngược lại null
+     * @param upcard    lá ngửa của nhà cái
+     * @param canDouble được phép cược gấp đôi
+     * @param canSplit  được phép tách bài
+     */
+    Decision decide(int total, boolean soft, Rank pairRank, Rank upcard, boolean canDouble, boolean canSplit);
+
+    // Mặc định không mua bảo hiểm
+    default boolean takeInsurance(int total, boolean soft) {
+        return false;
+    }
+
+    // Đầu hàng trên hai lá đầu, chỉ được hỏi khi luật cho phép; mặc định không đầu hàng
+    default boolean surrender(int total, boolean soft, Rank upcard) {
+        return false;
+    }
+}
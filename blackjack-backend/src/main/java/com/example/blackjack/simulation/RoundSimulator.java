@@ -0,0 +1,233 @@
+package com.example.blackjack.simulation;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.simulation.PlayerPolicy.Decision;
+
+import java.util.random.RandomGenerator;
+
+import static com.example.blackjack.service.BlackjackRules.*;
+
+/**
+ * Chơi từng ván không giao diện trên một shoe riêng, theo đúng trình tự của {@code BlackjackService}:
+ * chia 2 lá cho người chơi rồi 2 lá cho nhà cái, bảo hiểm khi lá ngửa là Át, kiểm tra Blackjack,
+ * đầu hàng, lượt người chơi, nhà cái rút theo luật rồi thanh toán. Hành động hợp lệ và luật rút bài lấy từ cùng
+ * bảng của {@link BlackjackRules}. Tiền được tính bằng một phần mười đơn vị cược (mọi hệ số trả thưởng, kể cả
+ * 6:5, đều là bội của 0.1) để tổng luôn chính xác và tái lập được.
+ * Không thread-safe: mỗi luồng dùng một instance.
+ */
+final class RoundSimulator {
+
+    // Một đơn vị cược = 10 phần mười đơn vị
+    static final long BASE_BET = 10;
+
+    private static final int[] HARD_VALUE = new int[Rank.values().length];
+
+    static {
+        for (Rank rank : Rank.values()) {
+            HARD_VALUE[rank.ordinal()] = rank == Rank.ACE ? 1 : rank.getValue();
+        }
+    }
+
+    private final BlackjackRules rules;
+    private final Deck shoe;
+    private final RandomGenerator rng;
+    private final PlayerPolicy policy;
+
+    private final int[] hard = new int[MAX_HANDS];
+    private final int[] aces = new int[MAX_HANDS];
+    private final int[] cardCount = new int[MAX_HANDS];
+    private final long[] bet = new long[MAX_HANDS];
+    private final boolean[] done = new boolean[MAX_HANDS];
+    private final boolean[] busted = new boolean[MAX_HANDS];
+    private final Rank[] firstRank = new Rank[MAX_HANDS];
+    private final Rank[] secondRank = new Rank[MAX_HANDS];
+    private int hands;
+
+    RoundSimulator(BlackjackRules rules, RandomGenerator rng, PlayerPolicy policy) {
+        this.rules = rules;
+        this.shoe = new Deck(rules.decks());
+        this.rng = rng;
+        this.policy = policy;
+        shoe.shuffle(rng);
+    }
+
+    /** Chơi một ván cược 1 đơn vị, trả về tiền thắng/thua ròng tính bằng phần mười đơn vị. */
+    long playRound() {
+        if (rules.needsReshuffle(shoe.size())) {
+            shoe.reset();
+            shoe.shuffle(rng);
+        }
+
+        Card p1 = shoe.deal();
+        Card p2 = shoe.deal();
+        Card upcard = shoe.deal();
+        Card hole = shoe.deal();
+
+        hands = 1;
+        startHand(0, p1.getRank(), BASE_BET);
+        addCard(0, p2.getRank());
+        long net = -BASE_BET;
+
+        int dealerHard = hardValue(upcard.getRank()) + hardValue(hole.getRank());
+        int dealerAces = aceCount(upcard.getRank()) + aceCount(hole.getRank());
+        boolean dealerBlackjack = value(dealerHard, dealerAces) == 21;
+        boolean playerBlackjack = value(0) == 21;
+
+        if (upcard.getRank() == Rank.ACE && policy.takeInsurance(value(0), isSoft(0))) {
+            net += scaled(insuranceReturn(dealerBlackjack) - INSURANCE_COST, BASE_BET);
+        }
+        if (playerBlackjack || dealerBlackjack) {
+            return net + scaled(rules.blackjackReturn(playerBlackjack, dealerBlackjack), BASE_BET);
+        }
+        // Đầu hàng kết thúc ván ngay, nhà cái không rút
+        if (PlayerAction.SURRENDER.in(actions(0)) && policy.surrender(value(0), isSoft(0), upcard.getRank())) {
+            return net + scaled(SURRENDER_RETURN, BASE_BET);
+        }
+
+        net += playHands(upcard.getRank());
+
+        // Nhà cái luôn lật bài và rút như dealerTurn, kể cả khi mọi tay đã quắc
+        while (rules.dealerMustHit(value(dealerHard, dealerAces), dealerAces > 0 && dealerHard + 10 <= 21)) {
+            Rank rank = shoe.deal().getRank();
+            dealerHard += hardValue(rank);
+            dealerAces += aceCount(rank);
+        }
+        int dealerValue = value(dealerHard, dealerAces);
+
+        for (int i = 0; i < hands; i++) {
+            net += scaled(settlementReturn(busted[i], value(i), dealerValue), bet[i]);
+        }
+        return net;
+    }
+
+    // Lượt người chơi, trả về phần tiền cược thêm (gấp đôi, tách) dưới dạng số âm
+    private long playHands(Rank upcard) {
+        long extraStake = 0;
+        int i = 0;
+        while (i < hands) {
+            if (done[i]) {
+                i++;
+                continue;
+            }
+            int actions = actions(i);
+            if (actions == 0) {
+                // Tách Át chỉ được một lá
+                done[i] = true;
+                continue;
+            }
+            Rank pairRank = cardCount[i] == 2 && firstRank[i] == secondRank[i] ? firstRank[i] : null;
+            boolean canDouble = PlayerAction.DOUBLE_DOWN.in(actions);
+            boolean canSplit = PlayerAction.SPLIT.in(actions);
+
+            Decision decision = policy.decide(value(i), isSoft(i), pairRank, upcard, canDouble, canSplit);
+            switch (decision) {
+                case HIT -> {
+                    addCard(i, shoe.deal().getRank());
+                    if (value(i) > 21) {
+                        busted[i] = true;
+                        done[i] = true;
+                    }
+                }
+                case STAND -> done[i] = true;
+                case DOUBLE_DOWN -> {
+                    if (!canDouble) {
+                        throw new IllegalStateException("Double down is not allowed on this hand");
+                    }
+                    extraStake -= bet[i];
+                    bet[i] *= 2;
+                    addCard(i, shoe.deal().getRank());
+                    busted[i] = value(i) > 21;
+                    done[i] = true;
+                }
+                case SPLIT -> {
+                    if (!canSplit) {
+                        throw new IllegalStateException("Split requires a pair");
+                    }
+                    extraStake -= bet[i];
+                    split(i);
+                }
+                case SURRENDER -> throw new IllegalStateException("Surrender is only offered on the first two cards");
+            }
+        }
+        return extraStake;
+    }
+
+    private void split(int i) {
+        int last = hands++;
+        for (int j = last; j > i + 1; j--) {
+            copyHand(j - 1, j);
+        }
+        Rank rank = firstRank[i];
+        Rank moved = secondRank[i];
+        long stake = bet[i];
+        startHand(i, rank, stake);
+        startHand(i + 1, moved, stake);
+        addCard(i, shoe.deal().getRank());
+        addCard(i + 1, shoe.deal().getRank());
+    }
+
+    // Như BlackjackService: tiền cược luôn đủ, tay tách từ Át tra theo luật tách Át
+    private int actions(int i) {
+        boolean pair = cardCount[i] == 2 && firstRank[i] == secondRank[i];
+        return rules.playerTurnActions(cardCount[i], pair, true, hands, hands > 1 && firstRank[i] == Rank.ACE);
+    }
+
+    private void startHand(int i, Rank rank, long stake) {
+        hard[i] = hardValue(rank);
+        aces[i] = aceCount(rank);
+        cardCount[i] = 1;
+        firstRank[i] = rank;
+        secondRank[i] = null;
+        bet[i] = stake;
+        done[i] = false;
+        busted[i] = false;
+    }
+
+    private void addCard(int i, Rank rank) {
+        hard[i] += hardValue(rank);
+        aces[i] += aceCount(rank);
+        if (++cardCount[i] == 2) {
+            secondRank[i] = rank;
+        }
+    }
+
+    private void copyHand(int from, int to) {
+        hard[to] = hard[from];
+        aces[to] = aces[from];
+        cardCount[to] = cardCount[from];
+        firstRank[to] = firstRank[from];
+        secondRank[to] = secondRank[from];
+        bet[to] = bet[from];
+        done[to] = done[from];
+        busted[to] = busted[from];
+    }
+
+    private int value(int i) {
+        return value(hard[i], aces[i]);
+    }
+
+    private boolean isSoft(int i) {
+        return aces[i] > 0 && hard[i] + 10 <= 21;
+    }
+
+    // Giống Hand.getHandValue: một Át được tính 11 nếu không làm quắc
+    private static int value(int hardTotal, int aceCount) {
+        return aceCount > 0 && hardTotal + 10 <= 21 ? hardTotal + 10 : hardTotal;
+    }
+
+    private static int hardValue(Rank rank) {
+        return HARD_VALUE[rank.ordinal()];
+    }
+
+    private static int aceCount(Rank rank) {
+        return rank == Rank.ACE ? 1 : 0;
+    }
+
+    private static long scaled(double multiplier, long stake) {
+        return Math.round(multiplier * stake);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.blackjack.simulation;
+
+import com.example.blackjack.service.BlackjackRules;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Mô phỏng Monte Carlo song song theo fork-join trên đúng luật thanh toán của {@code BlackjackService},
+ * theo một bộ luật đã dịch ({@link BlackjackRules}, mặc định là {@link BlackjackRules#STANDARD}).
+ * Số ván được chia thành các "làn" cố định; mỗi làn có shoe và SplittableRandom riêng sinh từ seed,
+ * và tổng được cộng bằng số nguyên, nên kết quả chỉ phụ thuộc vào seed, không phụ thuộc số luồng.
+ */
+public class SimulationEngine {
+
+    static final long ROUNDS_PER_LANE = 1L << 18;
+
+    private final ForkJoinPool pool;
+
+    public SimulationEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SimulationEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public SimulationResult run(long rounds, long seed, PlayerPolicy policy) {
+        return run(rounds, seed, policy, BlackjackRules.STANDARD);
+    }
+
+    public SimulationResult run(long rounds, long seed, PlayerPolicy policy, BlackjackRules rules) {
+        if (rounds <= 0) {
+            throw new IllegalArgumentException("rounds must be positive");
+        }
+        long lanes = (rounds + ROUNDS_PER_LANE - 1) / ROUNDS_PER_LANE;
+
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new LaneTask(rules, rounds, seed, policy, 0, lanes));
+        long elapsed = System.nanoTime() - start;
+
+        // Tally tính bằng phần đơn vị cược của RoundSimulator
+        double unit = RoundSimulator.BASE_BET;
+        double mean = tally.sum / (unit * rounds);
+        double variance = tally.sumSquares / (unit * unit * rounds) - mean * mean;
+        return new SimulationResult(rounds, seed, mean, variance, Math.sqrt(variance / rounds), elapsed);
+    }
+
+    static long laneSeed(long seed, long lane) {
+        // Bộ trộn của SplitMix64
+        long z = seed + (lane + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Tally {
+        long sum;
+        long sumSquares;
+
+        Tally add(Tally other) {
+            sum += other.sum;
+            sumSquares += other.sumSquares;
+            return this;
+        }
+    }
+
+    private static final class LaneTask extends RecursiveTask<Tally> {
+        private final BlackjackRules rules;
+        private final long totalRounds;
+        private final long seed;
+        private final PlayerPolicy policy;
+        private final long fromLane;
+        private final long toLane;
+
+        LaneTask(BlackjackRules rules, long totalRounds, long seed, PlayerPolicy policy, long fromLane, long toLane) {
+            this.rules = rules;
+            this.totalRounds = totalRounds;
+            this.seed = seed;
+            this.policy = policy;
+            this.fromLane = fromLane;
+            this.toLane = toLane;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toLane - fromLane == 1) {
+                return runLane(fromLane);
+            }
+            long mid = (fromLane + toLane) >>> 1;
+            LaneTask left = new LaneTask(rules, totalRounds, seed, policy, fromLane, mid);
+            left.fork();
+            Tally right = new LaneTask(rules, totalRounds, seed, policy, mid, toLane).compute();
+            return left.join().add(right);
+        }
+
+        private Tally runLane(long lane) {
+            long first = lane * ROUNDS_PER_LANE;
+            long rounds = Math.min(ROUNDS_PER_LANE, totalRounds - first);
+            RoundSimulator simulator = new RoundSimulator(rules, new SplittableRandom(laneSeed(seed, lane)),
+                    policy);
+
+            Tally tally = new Tally();
+            for (long r = 0; r < rounds; r++) {
+                long net = simulator.playRound();
+                tally.sum += net;
+                tally.sumSquares += net * net;
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.blackjack.simulation;
+
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.RuleProfile;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Chạy mô phỏng từ dòng lệnh, không khởi động Spring:
+ * {@code java -cp target/classes com.example.blackjack.simulation.SimulationMain --rounds=100000000 --seed=42 --threads=16}.
+ * {@code --rules=vegas} chọn một bộ luật khai báo trong {@code application.properties} (mặc định {@code standard}).
+ */
+public class SimulationMain {
+
+    public static void main(String[] args) throws IOException {
+        long rounds = 10_000_000L;
+        long seed = 42L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String rules = RuleProfile.STANDARD.name();
+
+        for (String arg : args) {
+            if (arg.startsWith("--rounds=")) {
+                rounds = Long.parseLong(arg.substring("--rounds=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--rules=")) {
+                rules = arg.substring("--rules=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SimulationResult result = new SimulationEngine(pool).run(rounds, seed, BasicStrategyPolicy.INSTANCE,
+                    BlackjackRules.compile(RuleProfile.load(rules)));
+            System.out.println(result);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.blackjack.simulation;
+
+/**
+ * Kết quả mô phỏng. EV và phương sai tính theo đơn vị cược ban đầu của mỗi ván
+ * (EV âm nghĩa là lợi thế nhà cái).
+ */
+public record SimulationResult(
+        long rounds,
+        long seed,
+        double expectedValue,
+        double variance,
+        double standardError,
+        long elapsedNanos) {
+
+    public double houseEdge() {
+        return -expectedValue;
+    }
+
+    public double roundsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rounds * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rounds=%,d seed=%d EV=%.5f%% (+/-%.5f%%) variance=%.4f houseEdge=%.4f%% rounds/s=%,.0f",
+                rounds, seed, expectedValue * 100, standardError * 196, variance, houseEdge() * 100, roundsPerSecond());
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.blackjack.stats;
+
+import com.example.blackjack.dto.LeaderboardView;
+import com.example.blackjack.dto.PlayerStatsView;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.wallet.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thống kê trực tiếp theo người chơi và bảng xếp hạng top-K theo tiền thắng ròng, lấy từ các điểm thanh toán của
+ * {@code BlackjackService} (sự kiện BET, INSURANCE và SETTLE của ván một người chơi).
+ * <p>
+ * Bộ đếm của mỗi người chơi là {@link LongAdder}, nên luồng xử lý request chỉ cộng dồn, không khóa. Người chơi mới
+ * hoặc vừa đổi tiền ròng được đánh dấu và xếp hàng một lần; luồng nền mỗi {@code blackjack.stats.leaderboard-interval}
+ * cập nhật vị trí của riêng họ trong một cây xếp hạng mọi người chơi rồi công bố một bảng xếp hạng bất biến mới từ
+ * đầu cây. Chi phí mỗi lần công bố theo số người vừa thay đổi, không bao giờ quét toàn bộ người chơi. Đọc bảng xếp
+ * hạng chỉ là đọc một tham chiếu.
+ * <p>
+ * Người chơi không có ván nào quá {@code blackjack.stats.idle-expiry} bị xóa khỏi thống kê và bảng xếp hạng, nên bộ
+ * nhớ theo số người chơi còn hoạt động (như tài khoản ví, xem {@code WalletLedger}).
+ */
+@Slf4j
+@Component
+public class PlayerStatsTracker implements GameEventListener, AutoCloseable {
+
+    // Tiền ròng giảm dần; bằng nhau thì playerId nhỏ hơn đứng trước
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingLong(Ranked::net).reversed()
+            .thenComparingLong(ranked -> ranked.counters().playerId);
+
+    private static final class Counters {
+        final long playerId;
+        final LongAdder rounds = new LongAdder();
+        final LongAdder wins = new LongAdder();
+        final LongAdder losses = new LongAdder();
+        final LongAdder pushes = new LongAdder();
+        final LongAdder blackjacks = new LongAdder();
+        final LongAdder busts = new LongAdder();
+        final LongAdder net = new LongAdder();
+        final LongAccumulator biggestWin = new LongAccumulator(Math::max, 0);
+        // true khi đang nằm trong hàng chờ công bố
+        final AtomicBoolean dirty = new AtomicBoolean();
+        volatile int lastActiveDay;
+        // Chỉ luồng công bố dùng: vị trí hiện tại trong cây xếp hạng
+        Ranked ranked;
+
+        Counters(long playerId, int today) {
+            this.playerId = playerId;
+            this.lastActiveDay = today;
+        }
+
+        PlayerStatsView view() {
+            return new PlayerStatsView(playerId, rounds.sum(), wins.sum(), losses.sum(), pushes.sum(),
+                    blackjacks.sum(), busts.sum(), Money.toMajor(net.sum()), Money.toMajor(biggestWin.get()));
+        }
+    }
+
+    // Tiền ròng của người chơi tại lần công bố gần nhất; không đổi khi đang nằm trong cây
+    private record Ranked(Counters counters, long net) {
+    }
+
+    private final Map<Long, Counters> players = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Counters> changed = new ConcurrentLinkedQueue<>();
+    private final int size;
+    private final long idleExpiryDays;
+    private final ScheduledExecutorService publisher;
+    private final Timer publishes;
+    private volatile LeaderboardView leaderboard = new LeaderboardView(Instant.EPOCH, List.of());
+
+    // Chỉ luồng công bố dùng: mọi người chơi đã xếp hàng ít nhất một lần, tốt nhất trước
+    private final TreeSet<Ranked> ranking = new TreeSet<>(BEST_FIRST);
+
+    public PlayerStatsTracker(
+            @Value("${blackjack.stats.leaderboard-size:10}") int size,
+            @Value("${blackjack.stats.leaderboard-interval:1s}") Duration interval,
+            @Value("${blackjack.stats.idle-expiry:90d}") Duration idleExpiry,
+            MeterRegistry meterRegistry) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid leaderboard size " + size);
+        }
+        this.size = size;
+        this.idleExpiryDays = idleExpiry.toDays();
+        this.publishes = Timer.builder("blackjack.stats.leaderboard.publish")
+                .description("Thời gian dựng lại bảng xếp hạng")
+                .register(meterRegistry);
+        Gauge.builder("blackjack.stats.players", players, Map::size).register(meterRegistry);
+
+        long intervalNanos = interval.toNanos();
+        publisher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("leaderboard-publish").factory());
+        publisher.scheduleWithFixedDelay(this::publishQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        publisher.scheduleWithFixedDelay(this::expireQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+        switch (event) {
+            case BET -> {
+                Counters counters = counters(state.getPlayerId());
+                counters.rounds.increment();
+                touch(counters);
+            }
+            case INSURANCE -> {
+                if (amount > 0) {
+                    addNet(counters(state.getPlayerId()), -amount);
+                }
+            }
+            case SETTLE -> settle(counters(state.getPlayerId()), state, handIndex, amount);
+            default -> {
+            }
+        }
+    }
+
+    // handIndex -1 là tiền thắng bảo hiểm; phí bảo hiểm đã được trừ ở sự kiện INSURANCE
+    private void settle(Counters counters, GameState state, int handIndex, long returned) {
+        if (handIndex < 0) {
+            addNet(counters, returned);
+            return;
+        }
+        Hand hand = state.getPlayerHands().get(handIndex);
+        long won = returned - hand.getBetAmount();
+        if (won > 0) {
+            counters.wins.increment();
+            counters.biggestWin.accumulate(won);
+            if (hand.isBlackjack() && state.getPlayerHands().size() == 1) {
+                counters.blackjacks.increment();
+            }
+        } else if (won < 0) {
+            counters.losses.increment();
+            if (hand.getStatus() == HandStatus.BUSTED) {
+                counters.busts.increment();
+            }
+        } else {
+            counters.pushes.increment();
+        }
+        addNet(counters, won);
+    }
+
+    private void addNet(Counters counters, long amount) {
+        if (amount == 0) {
+            return;
+        }
+        counters.net.add(amount);
+        markChanged(counters);
+    }
+
+    private void markChanged(Counters counters) {
+        if (counters.dirty.compareAndSet(false, true)) {
+            changed.add(counters);
+        }
+    }
+
+    // Người chơi mới được xếp hàng ngay để có mặt trong cây xếp hạng với tiền ròng 0
+    private Counters counters(long playerId) {
+        Counters counters = players.get(playerId);
+        if (counters != null) {
+            return counters;
+        }
+        Counters created = new Counters(playerId, today());
+        counters = players.putIfAbsent(playerId, created);
+        if (counters != null) {
+            return counters;
+        }
+        markChanged(created);
+        return created;
+    }
+
+    // Ngày hoạt động chỉ được ghi lại khi sang ngày mới, mỗi ván một lần (sự kiện BET)
+    private static void touch(Counters counters) {
+        int today = today();
+        if (counters.lastActiveDay != today) {
+            counters.lastActiveDay = today;
+        }
+    }
+
+    // Thống kê hiện tại (không chờ lần công bố tiếp theo); người chơi chưa có ván nào có mọi số liệu bằng 0
+    public PlayerStatsView view(long playerId) {
+        Counters counters = players.get(playerId);
+        return counters != null ? counters.view() : new Counters(playerId, 0).view();
+    }
+
+    public LeaderboardView leaderboard() {
+        return leaderboard;
+    }
+
+    // Cập nhật vị trí của những người vừa thay đổi trong cây xếp hạng và công bố bảng xếp hạng mới
+    synchronized void publish() {
+        long start = System.nanoTime();
+        Counters counters;
+        while ((counters = changed.poll()) != null) {
+            // Bỏ dấu trước khi đọc tiền ròng, để thay đổi xảy ra sau đó được xếp hàng lại
+            counters.dirty.set(false);
+            unrank(counters);
+            // Bộ đếm vừa bị xóa vì không hoạt động (sự kiện đến đúng lúc dọn) không được đưa lại vào cây
+            if (players.get(counters.playerId) == counters) {
+                counters.ranked = new Ranked(counters, counters.net.sum());
+                ranking.add(counters.ranked);
+            }
+        }
+
+        List<PlayerStatsView> views = new ArrayList<>(Math.min(size, ranking.size()));
+        for (Ranked ranked : ranking) {
+            if (views.size() == size) {
+                break;
+            }
+            views.add(ranked.counters().view());
+        }
+        leaderboard = new LeaderboardView(Instant.now(), List.copyOf(views));
+        publishes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void unrank(Counters counters) {
+        if (counters.ranked != null) {
+            ranking.remove(counters.ranked);
+            counters.ranked = null;
+        }
+    }
+
+    /**
+     * Xóa thống kê của người chơi không có ván nào quá {@code blackjack.stats.idle-expiry} tính đến ngày
+     * {@code today}; họ rời bảng xếp hạng ở lần công bố kế tiếp. Người chơi vừa hoạt động lại đúng lúc bị xóa được
+     * đưa trở lại.
+     */
+    synchronized int expireIdle(int today) {
+        int expired = 0;
+        for (Counters counters : players.values()) {
+            if (!isIdle(counters.lastActiveDay, today) || !players.remove(counters.playerId, counters)) {
+                continue;
+            }
+            if (!isIdle(counters.lastActiveDay, today) && players.putIfAbsent(counters.playerId, counters) == null) {
+                continue;
+            }
+            unrank(counters);
+            expired++;
+        }
+        return expired;
+    }
+
+    private boolean isIdle(int lastActiveDay, int today) {
+        return today - lastActiveDay > idleExpiryDays;
+    }
+
+    private static int today() {
+        return (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            log.error("Could not publish leaderboard", e);
+        }
+    }
+
+    private void expireQuietly() {
+        try {
+            int expired = expireIdle(today());
+            if (expired > 0) {
+                log.info("Expired stats of {} idle players", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not expire idle player stats", e);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        publisher.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.blackjack.table;
+
+import com.example.blackjack.model.Hand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một ghế tại bàn. Chỉ được truy cập từ event loop của bàn.
+ */
+class Seat {
+
+    final String playerId;   // Người đang ngồi (phiên)
+    final long account;      // Tài khoản ví của người chơi; số dư không nằm ở ghế
+    final List<Hand> hands = new ArrayList<>();
+
+    long pendingBet;         // Cược cho ván sắp chia (xu), đã trừ khỏi ví
+    boolean inRound;         // Có tham gia ván hiện tại
+    boolean insuranceDecided;
+    boolean insuranceBought;
+
+    Seat(String playerId, long account) {
+        this.playerId = playerId;
+        this.account = account;
+    }
+}
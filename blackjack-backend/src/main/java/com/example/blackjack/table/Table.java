@@ -0,0 +1,612 @@
+package com.example.blackjack.table;
+
+import com.example.blackjack.dto.HandView;
+import com.example.blackjack.dto.SeatView;
+import com.example.blackjack.dto.TableSummary;
+import com.example.blackjack.dto.TableView;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.service.ActionNotAllowedException;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.ShoeSource;
+import com.example.blackjack.wallet.Money;
+import com.example.blackjack.wallet.Wallet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.example.blackjack.service.BlackjackRules.*;
+
+/**
+ * Bàn nhiều người chơi: tối đa 7 ghế dùng chung một shoe và một tay nhà cái.
+ * Ván bắt đầu khi mọi người đang ngồi đã đặt cược; người chơi lần lượt theo thứ tự ghế,
+ * nhà cái chơi một lần cho cả bàn. Người chơi không phản hồi không giữ được cả bàn: sau {@code betTimeout} kể từ
+ * cược đầu tiên ván bắt đầu với các ghế đã cược, mỗi tay bài có {@code turnTimeout} để chơi (hết giờ thì tự dừng)
+ * và bảo hiểm không chọn kịp thì coi như từ chối. Mỗi bàn có bộ luật riêng ({@link BlackjackRules}), chọn khi tạo bàn;
+ * trả thưởng giống {@code BlackjackService}. Tiền cược và tiền thưởng đi thẳng qua ví ({@link Wallet}) của người
+ * chơi, cùng tài khoản với ván một người, nên rời bàn hay ngồi lại không đổi số dư.
+ * Không thread-safe: chỉ được gọi từ {@link TableEventLoop} của bàn, trừ {@link #summary()} (ảnh chụp do event loop
+ * công bố sau mỗi lệnh qua {@link #publish()}).
+ */
+class Table {
+
+    static final int MAX_SEATS = 7;
+
+    enum Phase {
+        BETTING,
+        INSURANCE,
+        PLAYER_TURNS
+    }
+
+    private final String id;
+    private final BlackjackRules rules;
+    private final ShoeSource shoes;
+    private final GameEventListener listener;
+    private final Wallet wallet;
+    private final TableTimer timer;
+    private final Duration turnTimeout;
+    private final Duration betTimeout;
+    private final Seat[] seats = new Seat[MAX_SEATS];
+    private Deck deck;
+    private Hand dealerHand = new Hand();
+
+    private Phase phase = Phase.BETTING;
+    private boolean roundOver;
+    private int activeSeat = -1;
+    private int activeHand = -1;
+    private String message = "Chào mừng đến bàn Blackjack! Hãy đặt cược.";
+    private long version;
+    private long round;
+    private boolean closed;
+    private volatile TableSummary summary;
+
+    // Bước đang chờ người chơi và hẹn giờ của nó (xem updateTimeout)
+    private record Step(Phase phase, long round, int seat, int hand) {
+    }
+
+    private Step armedStep;
+    private Runnable cancelTimeout = () -> { };
+
+    // Số bộ bài của shoe lấy từ shoes phải khớp với rules.decks()
+    Table(String id, BlackjackRules rules, ShoeSource shoes, GameEventListener listener, Wallet wallet,
+          TableTimer timer, Duration turnTimeout, Duration betTimeout) {
+        this.id = id;
+        this.rules = rules;
+        this.shoes = shoes;
+        this.listener = listener;
+        this.wallet = wallet;
+        this.timer = timer;
+        this.turnTimeout = turnTimeout;
+        this.betTimeout = betTimeout;
+        publish();
+    }
+
+    String id() {
+        return id;
+    }
+
+    int occupiedSeats() {
+        int count = 0;
+        for (Seat seat : seats) {
+            if (seat != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    // Ảnh chụp gần nhất cho danh sách bàn; đọc được từ mọi luồng mà không phải xếp hàng vào event loop
+    TableSummary summary() {
+        return summary;
+    }
+
+    // Công bố ảnh chụp mới; event loop gọi sau mỗi lệnh và mỗi lần hết giờ
+    void publish() {
+        summary = new TableSummary(id, rules.name(), phase.name(), roundOver, occupiedSeats(), MAX_SEATS, false);
+    }
+
+    // account là tài khoản ví của người chơi, mở với số dư ban đầu nếu chưa có
+    void join(String playerId, long account) {
+        if (closed) {
+            throw new NoSuchElementException("Bàn " + id + " đã đóng.");
+        }
+        if (seatIndexOf(playerId) >= 0) {
+            return;
+        }
+        for (int i = 0; i < MAX_SEATS; i++) {
+            if (seats[i] == null) {
+                wallet.open(account, Wallet.INITIAL_BALANCE);
+                seats[i] = new Seat(playerId, account);
+                changed("Người chơi mới ngồi vào ghế " + (i + 1) + ".");
+                return;
+            }
+        }
+        throw new ActionNotAllowedException("Bàn đã đủ " + MAX_SEATS + " người.");
+    }
+
+    // Rời bàn khi chưa chia bài thì được hoàn cược; rời giữa ván thì các tay bài chưa thanh toán bị tính là thua
+    void leave(String playerId) {
+        int index = seatIndexOf(playerId);
+        if (index < 0) {
+            return;
+        }
+        Seat seat = seats[index];
+        if (seat.pendingBet > 0) {
+            wallet.credit(seat.account, seat.pendingBet);
+            seat.pendingBet = 0;
+        }
+        if (seat.inRound) {
+            forfeit(seat);
+        }
+        seats[index] = null;
+        changed("Ghế " + (index + 1) + " đã rời bàn.");
+        // Bàn trống thì đóng lại, không nhận thêm người
+        closed = occupiedSeats() == 0;
+
+        if (phase == Phase.BETTING) {
+            startRoundIfAllBet();
+        } else if (phase == Phase.INSURANCE) {
+            resolveInsuranceIfAllDecided();
+        } else if (activeSeat == index) {
+            advanceTurn();
+        }
+        updateTimeout();
+    }
+
+    void bet(String playerId, long amount) {
+        Seat seat = requireSeat(playerId);
+        if (phase != Phase.BETTING) {
+            throw new ActionNotAllowedException("Ván đang diễn ra, hãy chờ ván sau.");
+        }
+        if (seat.pendingBet > 0) {
+            throw new ActionNotAllowedException("Bạn đã đặt cược cho ván này.");
+        }
+        if (amount <= 0 || !wallet.debit(seat.account, amount)) {
+            throw new IllegalArgumentException("Số tiền cược không hợp lệ.");
+        }
+        seat.pendingBet = amount;
+        changed("Ghế " + (seatIndexOf(playerId) + 1) + " đã đặt cược " + Money.toMajor(amount) + ".");
+        startRoundIfAllBet();
+        updateTimeout();
+    }
+
+    void insurance(String playerId, boolean buy) {
+        Seat seat = requireSeat(playerId);
+        if (phase != Phase.INSURANCE || !seat.inRound || seat.insuranceDecided) {
+            throw new ActionNotAllowedException("Không thể mua bảo hiểm lúc này.");
+        }
+        if (buy) {
+            if (!wallet.debit(seat.account, Money.times(seat.hands.get(0).getBetAmount(), INSURANCE_COST))) {
+                throw new ActionNotAllowedException("Không đủ tiền mua bảo hiểm.");
+            }
+            seat.insuranceBought = true;
+        }
+        seat.insuranceDecided = true;
+        changed(message);
+        resolveInsuranceIfAllDecided();
+        updateTimeout();
+    }
+
+    void hit(String playerId) {
+        Hand hand = requireTurn(playerId);
+        hand.addCard(deck.deal());
+        if (hand.isBust()) {
+            hand.setStatus(HandStatus.BUSTED);
+            changed("Ghế " + (activeSeat + 1) + " quắc (bust) ở tay bài " + (activeHand + 1) + "!");
+        } else {
+            changed("Ghế " + (activeSeat + 1) + " rút bài.");
+        }
+        advanceTurn();
+        updateTimeout();
+    }
+
+    void stand(String playerId) {
+        Hand hand = requireTurn(playerId);
+        hand.setStatus(HandStatus.STOOD);
+        changed("Ghế " + (activeSeat + 1) + " dừng ở tay bài " + (activeHand + 1) + ".");
+        advanceTurn();
+        updateTimeout();
+    }
+
+    void doubleDown(String playerId) {
+        Hand hand = requireTurn(playerId);
+        Seat seat = seats[activeSeat];
+        long betAmount = hand.getBetAmount();
+        if (!PlayerAction.DOUBLE_DOWN.in(actionMask(activeSeat)) || !wallet.debit(seat.account, betAmount)) {
+            throw new ActionNotAllowedException("Không thể cược gấp đôi!");
+        }
+        hand.setBetAmount(betAmount * 2);
+        hand.addCard(deck.deal());
+        hand.setStatus(hand.isBust() ? HandStatus.BUSTED : HandStatus.STOOD);
+        changed("Ghế " + (activeSeat + 1) + " cược gấp đôi.");
+        advanceTurn();
+        updateTimeout();
+    }
+
+    void split(String playerId) {
+        Hand originalHand = requireTurn(playerId);
+        Seat seat = seats[activeSeat];
+        long betAmount = originalHand.getBetAmount();
+        if (!PlayerAction.SPLIT.in(actionMask(activeSeat)) || !wallet.debit(seat.account, betAmount)) {
+            throw new ActionNotAllowedException("Không thể tách bài!");
+        }
+
+        Hand newHand = new Hand();
+        newHand.setBetAmount(betAmount);
+        newHand.addCard(originalHand.removeCard(1));
+        originalHand.addCard(deck.deal());
+        newHand.addCard(deck.deal());
+        seat.hands.add(activeHand + 1, newHand);
+
+        // Tay không còn hành động nào theo luật (tách Át chỉ được một lá) thì tự động dừng
+        for (Hand hand : List.of(originalHand, newHand)) {
+            if (handActions(seat, hand) == 0) {
+                hand.setStatus(HandStatus.STOOD);
+            }
+        }
+        changed("Ghế " + (activeSeat + 1) + " tách bài.");
+        advanceTurn();
+        updateTimeout();
+    }
+
+    // Đầu hàng: nhận lại nửa cược ngay, tay bài không chờ nhà cái
+    void surrender(String playerId) {
+        Hand hand = requireTurn(playerId);
+        Seat seat = seats[activeSeat];
+        if (!PlayerAction.SURRENDER.in(actionMask(activeSeat))) {
+            throw new ActionNotAllowedException("Không thể đầu hàng!");
+        }
+        long returned = Money.times(hand.getBetAmount(), SURRENDER_RETURN);
+        wallet.credit(seat.account, returned);
+        listener.settled(hand.getBetAmount(), returned);
+        hand.setStatus(HandStatus.SURRENDERED);
+        changed("Ghế " + (activeSeat + 1) + " đầu hàng.");
+        advanceTurn();
+        updateTimeout();
+    }
+
+    TableView view(String playerId) {
+        List<SeatView> seatViews = new ArrayList<>(MAX_SEATS);
+        for (int i = 0; i < MAX_SEATS; i++) {
+            Seat seat = seats[i];
+            if (seat == null) {
+                seatViews.add(SeatView.empty(i));
+                continue;
+            }
+            List<HandView> hands = new ArrayList<>(seat.hands.size());
+            for (Hand hand : seat.hands) {
+                hands.add(HandView.of(hand));
+            }
+            // Số dư là của riêng người chơi: chỉ hiện ở ghế của chính người đang xem
+            Double balance = seat.playerId.equals(playerId) ? Money.toMajor(wallet.balance(seat.account)) : null;
+            seatViews.add(new SeatView(i, true, balance, Money.toMajor(seat.pendingBet), hands));
+        }
+
+        int yourSeat = seatIndexOf(playerId);
+        HandView dealer = phase == Phase.BETTING ? HandView.of(dealerHand) : HandView.withHoleCardHidden(dealerHand);
+        return new TableView(id, rules.name(), version, phase.name(), roundOver, seatViews, dealer, activeSeat,
+                activeHand, message, yourSeat >= 0 ? yourSeat : null, PlayerAction.names(actionMask(yourSeat)));
+    }
+
+    // Hành động hợp lệ của một ghế, cùng bảng với ván một người (BlackjackRules.playerTurnActions)
+    private int actionMask(int seatIndex) {
+        if (seatIndex < 0) {
+            return 0;
+        }
+        Seat seat = seats[seatIndex];
+        switch (phase) {
+            case BETTING:
+                return seat.pendingBet > 0 ? 0 : BETTING_ACTIONS;
+            case INSURANCE:
+                return seat.inRound && !seat.insuranceDecided ? INSURANCE_ACTIONS : 0;
+            default:
+                if (seatIndex != activeSeat) {
+                    return 0;
+                }
+                return handActions(seat, seat.hands.get(activeHand));
+        }
+    }
+
+    private int handActions(Seat seat, Hand hand) {
+        boolean splitAces = seat.hands.size() > 1 && hand.getCards().get(0).getRank() == Rank.ACE;
+        return rules.playerTurnActions(hand.getCards().size(), isPair(hand),
+                wallet.balance(seat.account) >= hand.getBetAmount(), seat.hands.size(), splitAces);
+    }
+
+    private void startRoundIfAllBet() {
+        boolean anyBet = false;
+        for (Seat seat : seats) {
+            if (seat != null) {
+                if (seat.pendingBet <= 0) {
+                    return;
+                }
+                anyBet = true;
+            }
+        }
+        if (anyBet) {
+            startRound();
+        }
+    }
+
+    private void startRound() {
+        String prefix = "";
+        if (deck == null || rules.needsReshuffle(deck.size())) {
+            if (deck != null) {
+                shoes.recycle(deck);
+            }
+            deck = shoes.take();
+            listener.reshuffled();
+            prefix = "Bộ bài đã được xáo lại. ";
+        }
+
+        round++;
+        dealerHand = new Hand();
+        for (Seat seat : seats) {
+            if (seat != null && seat.pendingBet <= 0) {
+                // Ghế chưa cược khi hết giờ đặt cược: ngồi ngoài ván này
+                seat.hands.clear();
+                seat.inRound = false;
+            } else if (seat != null) {
+                Hand hand = new Hand();
+                hand.setBetAmount(seat.pendingBet);
+                seat.hands.clear();
+                seat.hands.add(hand);
+                seat.pendingBet = 0;
+                seat.inRound = true;
+                seat.insuranceDecided = false;
+                seat.insuranceBought = false;
+            }
+        }
+
+        // Chia lần lượt: mỗi ghế một lá, nhà cái một lá, rồi vòng thứ hai
+        for (int round = 0; round < 2; round++) {
+            for (Seat seat : seats) {
+                if (seat != null && seat.inRound) {
+                    seat.hands.get(0).addCard(deck.deal());
+                }
+            }
+            dealerHand.addCard(deck.deal());
+        }
+        roundOver = false;
+        changed(prefix + "Ván bài bắt đầu!");
+
+        if (dealerHand.getCards().get(0).getRank() == Rank.ACE) {
+            phase = Phase.INSURANCE;
+            for (Seat seat : seats) {
+                // Không đủ tiền mua bảo hiểm thì coi như từ chối
+                if (seat != null && seat.inRound && wallet.balance(seat.account)
+                        < Money.times(seat.hands.get(0).getBetAmount(), INSURANCE_COST)) {
+                    seat.insuranceDecided = true;
+                }
+            }
+            changed("Nhà cái có Át! Bạn muốn mua bảo hiểm không?");
+            resolveInsuranceIfAllDecided();
+        } else {
+            checkInitialBlackjacks();
+        }
+    }
+
+    private void resolveInsuranceIfAllDecided() {
+        for (Seat seat : seats) {
+            if (seat != null && seat.inRound && !seat.insuranceDecided) {
+                return;
+            }
+        }
+        boolean dealerHasBlackjack = dealerHand.isBlackjack();
+        for (Seat seat : seats) {
+            if (seat != null && seat.inRound && seat.insuranceBought) {
+                long bet = seat.hands.get(0).getBetAmount();
+                long returned = Money.times(bet, insuranceReturn(dealerHasBlackjack));
+                wallet.credit(seat.account, returned);
+                listener.settled(Money.times(bet, INSURANCE_COST), returned);
+            }
+        }
+        checkInitialBlackjacks();
+    }
+
+    private void checkInitialBlackjacks() {
+        boolean dealerHasBlackjack = dealerHand.isBlackjack();
+        for (Seat seat : seats) {
+            if (seat == null || !seat.inRound) {
+                continue;
+            }
+            Hand hand = seat.hands.get(0);
+            boolean playerHasBlackjack = hand.isBlackjack();
+            if (playerHasBlackjack || dealerHasBlackjack) {
+                long returned = Money.times(hand.getBetAmount(),
+                        rules.blackjackReturn(playerHasBlackjack, dealerHasBlackjack));
+                wallet.credit(seat.account, returned);
+                listener.settled(hand.getBetAmount(), returned);
+                hand.setStatus(playerHasBlackjack ? HandStatus.BLACKJACK : HandStatus.STOOD);
+            }
+        }
+
+        if (dealerHasBlackjack) {
+            finishRound("Nhà cái có Blackjack.");
+        } else {
+            phase = Phase.PLAYER_TURNS;
+            advanceTurn();
+        }
+    }
+
+    // Chuyển lượt đến tay bài đang chơi tiếp theo theo thứ tự ghế; hết thì đến lượt nhà cái
+    private void advanceTurn() {
+        for (int s = 0; s < MAX_SEATS; s++) {
+            Seat seat = seats[s];
+            if (seat == null || !seat.inRound) {
+                continue;
+            }
+            for (int h = 0; h < seat.hands.size(); h++) {
+                if (seat.hands.get(h).getStatus() == HandStatus.PLAYING) {
+                    activeSeat = s;
+                    activeHand = h;
+                    return;
+                }
+            }
+        }
+        dealerTurn();
+    }
+
+    private void dealerTurn() {
+        while (rules.dealerMustHit(dealerHand)) {
+            dealerHand.addCard(deck.deal());
+        }
+
+        int dealerValue = dealerHand.getHandValue();
+        for (Seat seat : seats) {
+            if (seat == null || !seat.inRound) {
+                continue;
+            }
+            for (Hand hand : seat.hands) {
+                // Tay Blackjack và tay đầu hàng đã được thanh toán trước đó
+                if (hand.getStatus() != HandStatus.BLACKJACK && hand.getStatus() != HandStatus.SURRENDERED) {
+                    boolean busted = hand.getStatus() == HandStatus.BUSTED;
+                    long returned = Money.times(hand.getBetAmount(),
+                            settlementReturn(busted, hand.getHandValue(), dealerValue));
+                    wallet.credit(seat.account, returned);
+                    listener.settled(hand.getBetAmount(), returned);
+                }
+            }
+        }
+        finishRound("Nhà cái được " + dealerValue + " điểm. Ván bài kết thúc.");
+    }
+
+    private void finishRound(String finalMessage) {
+        phase = Phase.BETTING;
+        roundOver = true;
+        listener.roundCompleted();
+        activeSeat = -1;
+        activeHand = -1;
+        for (Seat seat : seats) {
+            if (seat != null) {
+                seat.inRound = false;
+            }
+        }
+        changed(finalMessage);
+    }
+
+    // Tay bài và bảo hiểm chưa thanh toán của người rời bàn giữa ván: mất tiền cược
+    private void forfeit(Seat seat) {
+        for (Hand hand : seat.hands) {
+            if (hand.getStatus() != HandStatus.BLACKJACK && hand.getStatus() != HandStatus.SURRENDERED) {
+                listener.settled(hand.getBetAmount(), 0);
+            }
+        }
+        if (phase == Phase.INSURANCE && seat.insuranceBought) {
+            listener.settled(Money.times(seat.hands.get(0).getBetAmount(), INSURANCE_COST), 0);
+        }
+        seat.inRound = false;
+    }
+
+    /**
+     * Hẹn giờ cho bước bàn đang chờ (đặt cược khi đã có người cược, bảo hiểm, hoặc tay bài đang đến lượt); gọi sau
+     * mỗi thay đổi. Hẹn cũ bị hủy khi bàn chuyển sang bước khác, nên hết giờ chỉ áp dụng cho đúng bước đã hẹn.
+     */
+    private void updateTimeout() {
+        Step step = currentStep();
+        if (step == null ? armedStep == null : step.equals(armedStep)) {
+            return;
+        }
+        cancelTimeout.run();
+        armedStep = step;
+        if (step == null) {
+            cancelTimeout = () -> { };
+            return;
+        }
+        Duration delay = step.phase() == Phase.BETTING ? betTimeout : turnTimeout;
+        cancelTimeout = timer.schedule(delay, () -> {
+            if (step.equals(armedStep)) {
+                armedStep = null;
+                expire(step);
+                updateTimeout();
+                publish();
+            }
+        });
+    }
+
+    private Step currentStep() {
+        if (closed) {
+            return null;
+        }
+        switch (phase) {
+            case BETTING:
+                for (Seat seat : seats) {
+                    if (seat != null && seat.pendingBet > 0) {
+                        return new Step(phase, round, -1, -1);
+                    }
+                }
+                return null;
+            case INSURANCE:
+                return new Step(phase, round, -1, -1);
+            default:
+                return new Step(phase, round, activeSeat, activeHand);
+        }
+    }
+
+    private void expire(Step step) {
+        switch (step.phase()) {
+            case BETTING:
+                changed("Hết giờ đặt cược.");
+                startRound();
+                break;
+            case INSURANCE:
+                for (Seat seat : seats) {
+                    if (seat != null && seat.inRound) {
+                        seat.insuranceDecided = true;
+                    }
+                }
+                changed("Hết giờ mua bảo hiểm.");
+                resolveInsuranceIfAllDecided();
+                break;
+            default:
+                seats[activeSeat].hands.get(activeHand).setStatus(HandStatus.STOOD);
+                changed("Ghế " + (activeSeat + 1) + " hết giờ, tự động dừng ở tay bài " + (activeHand + 1) + ".");
+                advanceTurn();
+        }
+    }
+
+    private Hand requireTurn(String playerId) {
+        int index = seatIndexOf(playerId);
+        if (phase != Phase.PLAYER_TURNS || index < 0 || index != activeSeat) {
+            throw new ActionNotAllowedException("Chưa đến lượt của bạn.");
+        }
+        return seats[index].hands.get(activeHand);
+    }
+
+    private Seat requireSeat(String playerId) {
+        int index = seatIndexOf(playerId);
+        if (index < 0) {
+            throw new ActionNotAllowedException("Bạn chưa ngồi vào bàn này.");
+        }
+        return seats[index];
+    }
+
+    private int seatIndexOf(String playerId) {
+        for (int i = 0; i < MAX_SEATS; i++) {
+            if (seats[i] != null && seats[i].playerId.equals(playerId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPair(Hand hand) {
+        return hand.getCards().size() == 2
+                && hand.getCards().get(0).getRank() == hand.getCards().get(1).getRank();
+    }
+
+    private void changed(String newMessage) {
+        message = newMessage;
+        version++;
+    }
+}
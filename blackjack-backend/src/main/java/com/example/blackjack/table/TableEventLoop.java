@@ -0,0 +1,49 @@
+package com.example.blackjack.table;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Event loop đơn luồng của một bàn: mọi thay đổi trạng thái bàn chạy lần lượt trên một virtual thread
+ * riêng, nên {@link Table} không cần khóa và hàng nghìn bàn có thể chạy song song.
+ */
+class TableEventLoop implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    TableEventLoop(String tableId) {
+        executor = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("table-" + tableId).factory());
+    }
+
+    // Gửi công việc vào hàng đợi của bàn và chờ kết quả
+    <T> T call(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the table", e);
+        }
+    }
+
+    // Gửi công việc vào hàng đợi mà không chờ (hẹn giờ của bàn); bỏ qua nếu bàn đã đóng
+    void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Bàn vừa đóng
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.blackjack.table;
+
+import com.example.blackjack.dto.TableSummary;
+import com.example.blackjack.dto.TableView;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.RuleBook;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.service.ShoeSource;
+import com.example.blackjack.wallet.Money;
+import com.example.blackjack.wallet.Wallet;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Quản lý các bàn nhiều người chơi. Mỗi bàn có event loop riêng ({@link TableEventLoop});
+ * service chỉ chuyển lệnh vào hàng đợi của bàn và trả về view sau khi lệnh chạy xong.
+ * Bàn lấy shoe từ {@link ShoePool} khi bộ luật của bàn có cùng số bộ bài với pool, ngược lại tự xáo.
+ * {@code playerId} là người đang ngồi (phiên), {@code account} là tài khoản ví của người đó. Phiên hết hạn thì
+ * người chơi rời mọi bàn ({@link TableSessionCleanup}); hẹn giờ của các bàn chạy trên một luồng chung rồi chuyển
+ * vào event loop của bàn.
+ */
+@Service
+public class TableService implements AutoCloseable {
+
+    private final Map<String, TableHandle> tables = new ConcurrentHashMap<>();
+    // Các bàn mỗi người chơi đang ngồi, để rời bàn khi phiên hết hạn mà không phải hỏi mọi bàn
+    private final Map<String, Set<String>> seatedAt = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timers;
+    private final ShoePool shoePool;
+    private final RuleBook ruleBook;
+    private final GameEventListener listener;
+    private final Wallet wallet;
+    private final Duration turnTimeout;
+    private final Duration betTimeout;
+
+    public TableService(ShoePool shoePool, RuleBook ruleBook, GameEventListener listener, Wallet wallet,
+                        Duration turnTimeout, Duration betTimeout) {
+        this.shoePool = shoePool;
+        this.ruleBook = ruleBook;
+        this.listener = listener;
+        this.wallet = wallet;
+        this.turnTimeout = turnTimeout;
+        this.betTimeout = betTimeout;
+        this.timers = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().daemon().name("table-timers").factory());
+        timers.setRemoveOnCancelPolicy(true);
+    }
+
+    @Autowired
+    public TableService(ShoePool shoePool, RuleBook ruleBook, List<GameEventListener> listeners, Wallet wallet,
+                        @Value("${blackjack.table.turn-timeout:30s}") Duration turnTimeout,
+                        @Value("${blackjack.table.bet-timeout:20s}") Duration betTimeout) {
+        this(shoePool, ruleBook, GameEventListener.of(listeners), wallet, turnTimeout, betTimeout);
+    }
+
+    private record TableHandle(Table table, TableEventLoop loop) {
+    }
+
+    // rulesName null thì dùng blackjack.rules.table; bộ luật không tồn tại: NoSuchElementException
+    public TableView create(String playerId, long account, String rulesName) {
+        BlackjackRules rules = rulesName != null ? ruleBook.require(rulesName) : ruleBook.table();
+        ShoeSource shoes = rules.decks() == shoePool.decks() ? shoePool : ShoeSource.shuffling(rules.decks());
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        TableEventLoop loop = new TableEventLoop(id);
+        TableTimer timer = (delay, task) -> {
+            ScheduledFuture<?> future = timers.schedule(() -> loop.execute(task), delay.toNanos(), TimeUnit.NANOSECONDS);
+            return () -> future.cancel(false);
+        };
+        TableHandle handle = new TableHandle(
+                new Table(id, rules, shoes, listener, wallet, timer, turnTimeout, betTimeout), loop);
+        tables.put(id, handle);
+        return join(id, playerId, account);
+    }
+
+    // Đọc ảnh chụp do event loop của từng bàn công bố, không chờ bàn nào; bàn chưa có hoặc không còn ai ngồi bị bỏ qua
+    public List<TableSummary> list(String playerId) {
+        Set<String> seated = seatedAt.getOrDefault(playerId, Set.of());
+        List<TableSummary> summaries = new ArrayList<>(tables.size());
+        for (TableHandle handle : tables.values()) {
+            TableSummary summary = handle.table().summary();
+            if (summary.players() > 0) {
+                summaries.add(seated.contains(summary.id()) ? summary.asSeated() : summary);
+            }
+        }
+        return summaries;
+    }
+
+    public TableView view(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> { });
+    }
+
+    public TableView join(String tableId, String playerId, long account) {
+        TableView view = execute(tableId, playerId, table -> table.join(playerId, account));
+        seatedAt.computeIfAbsent(playerId, id -> ConcurrentHashMap.newKeySet()).add(tableId);
+        return view;
+    }
+
+    // Bàn không còn ai thì đóng event loop và xóa bàn
+    public TableView leave(String tableId, String playerId) {
+        TableHandle handle = handle(tableId);
+        TableView view = handle.loop().call(() -> {
+            handle.table().leave(playerId);
+            handle.table().publish();
+            return handle.table().view(playerId);
+        });
+        seatedAt.computeIfPresent(playerId, (id, seated) -> seated.remove(tableId) && seated.isEmpty() ? null : seated);
+        if (handle.loop().call(handle.table()::isClosed) && tables.remove(tableId, handle)) {
+            handle.loop().close();
+        }
+        return view;
+    }
+
+    // Người chơi rời mọi bàn đang ngồi (phiên hết hạn hoặc bị hủy): cược chưa chia được hoàn, ghế được giải phóng
+    public void leaveAll(String playerId) {
+        Set<String> seated = seatedAt.get(playerId);
+        if (seated == null) {
+            return;
+        }
+        for (String tableId : List.copyOf(seated)) {
+            try {
+                leave(tableId, playerId);
+            } catch (NoSuchElementException e) {
+                seated.remove(tableId);
+            }
+        }
+        seatedAt.remove(playerId, Set.of());
+    }
+
+    public TableView bet(String tableId, String playerId, double amount) {
+        long bet = Money.toMinor(amount);
+        return execute(tableId, playerId, table -> table.bet(playerId, bet));
+    }
+
+    public TableView insurance(String tableId, String playerId, boolean buy) {
+        return execute(tableId, playerId, table -> table.insurance(playerId, buy));
+    }
+
+    public TableView hit(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> table.hit(playerId));
+    }
+
+    public TableView stand(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> table.stand(playerId));
+    }
+
+    public TableView doubleDown(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> table.doubleDown(playerId));
+    }
+
+    public TableView split(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> table.split(playerId));
+    }
+
+    public TableView surrender(String tableId, String playerId) {
+        return execute(tableId, playerId, table -> table.surrender(playerId));
+    }
+
+    private TableView execute(String tableId, String playerId, Consumer<Table> action) {
+        TableHandle handle = handle(tableId);
+        return handle.loop().call(() -> {
+            action.accept(handle.table());
+            handle.table().publish();
+            return handle.table().view(playerId);
+        });
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        timers.shutdownNow();
+        tables.values().forEach(handle -> handle.loop().close());
+        tables.clear();
+    }
+
+    private TableHandle handle(String tableId) {
+        TableHandle handle = tables.get(tableId);
+        if (handle == null) {
+            throw new NoSuchElementException("Không tìm thấy bàn " + tableId + ".");
+        }
+        return handle;
+    }
+}
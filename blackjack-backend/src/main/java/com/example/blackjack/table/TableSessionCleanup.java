@@ -0,0 +1,22 @@
+package com.example.blackjack.table;
+
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+import org.springframework.stereotype.Component;
+
+// Giải phóng ghế ở mọi bàn khi HttpSession hết hạn hoặc bị hủy, để người đã bỏ đi không giữ bàn
+@Component
+public class TableSessionCleanup implements HttpSessionListener {
+
+    private final TableService tableService;
+
+    public TableSessionCleanup(TableService tableService) {
+        this.tableService = tableService;
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        tableService.leaveAll(event.getSession().getId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.blackjack.table;
+
+import java.time.Duration;
+
+/**
+ * Hẹn giờ của một bàn: {@code task} chạy trên event loop của bàn sau {@code delay}. Trả về hành động hủy hẹn.
+ */
+interface TableTimer {
+
+    Runnable schedule(Duration delay, Runnable task);
+}
@@ -0,0 +1,35 @@
+package com.example.blackjack.wallet;
+
+/**
+ * Tiền được tính bằng số nguyên đơn vị nhỏ nhất (xu, 1/100 đơn vị) trong mọi phép cộng trừ, để số dư
+ * không bị sai lệch dần như khi dùng double. Chỉ đổi sang double ở biên: tham số request và JSON gửi cho client.
+ */
+public final class Money {
+
+    public static final long MINOR_PER_UNIT = 100;
+
+    // Hệ số trả thưởng được tính chính xác đến 1/1000 (đủ cho 3:2, 6:5, 2:1...)
+    private static final long FACTOR_SCALE = 1000;
+
+    private Money() {
+    }
+
+    // Số tiền từ client; không được lẻ dưới một xu
+    public static long toMinor(double amount) {
+        double minor = amount * MINOR_PER_UNIT;
+        long rounded = Math.round(minor);
+        if (!Double.isFinite(minor) || Math.abs(minor - rounded) > 1e-6 || Math.abs(minor) >= 1e15) {
+            throw new IllegalArgumentException("Số tiền không hợp lệ: " + amount);
+        }
+        return rounded;
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_UNIT;
+    }
+
+    // amount × hệ số (ví dụ BlackjackRules.SURRENDER_RETURN), phần lẻ dưới một xu được làm tròn xuống
+    public static long times(long amount, double factor) {
+        return Math.floorDiv(amount * Math.round(factor * FACTOR_SCALE), FACTOR_SCALE);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.blackjack.wallet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Ví của các node không giữ sổ: mọi thao tác là một request HTTP tới {@code WalletController} của node giữ sổ
+ * ({@code blackjack.wallet.url}), nên số dư của một người chơi chỉ có một nguồn dù request đến node nào.
+ * Request mang khóa chung {@code blackjack.wallet.secret}.
+ * <p>
+ * Trừ và cộng tiền không idempotent nên không được thử lại: lỗi mạng hoặc node giữ sổ trả lỗi thì thao tác ném
+ * ngoại lệ và request của người chơi thất bại (500), không đoán kết quả.
+ */
+@Component
+@ConditionalOnExpression("!'${blackjack.wallet.url:}'.isEmpty()")
+public class RemoteWallet implements Wallet {
+
+    public static final String SECRET_HEADER = "X-Wallet-Secret";
+    public static final String PATH = "/internal/wallet";
+
+    private final HttpClient client;
+    private final String base;
+    private final String secret;
+    private final Duration timeout;
+
+    @Autowired
+    public RemoteWallet(
+            @Value("${blackjack.wallet.url}") String url,
+            @Value("${blackjack.wallet.secret:}") String secret,
+            @Value("${blackjack.wallet.timeout:2s}") Duration timeout) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("blackjack.wallet.secret is required when blackjack.wallet.url is set");
+        }
+        this.base = url.replaceAll("/+$", "") + PATH + "/";
+        this.secret = secret;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public long open(long playerId, long initialBalance) {
+        return Long.parseLong(call(playerId, "open?initial=" + initialBalance, true));
+    }
+
+    @Override
+    public long balance(long playerId) {
+        return Long.parseLong(call(playerId, "balance", false));
+    }
+
+    @Override
+    public boolean debit(long playerId, long amount) {
+        return Boolean.parseBoolean(call(playerId, "debit?amount=" + amount, true));
+    }
+
+    @Override
+    public long credit(long playerId, long amount) {
+        return Long.parseLong(call(playerId, "credit?amount=" + amount, true));
+    }
+
+    @Override
+    public long stateStamp(long playerId) {
+        return Long.parseLong(call(playerId, "stamp", false));
+    }
+
+    @Override
+    public void setStateStamp(long playerId, long stamp) {
+        call(playerId, "stamp?value=" + stamp, true);
+    }
+
+    @Override
+    public boolean compareAndSetStateStamp(long playerId, long expected, long stamp) {
+        return Boolean.parseBoolean(call(playerId, "stamp/swap?expected=" + expected + "&value=" + stamp, true));
+    }
+
+    // Thân response là một giá trị dạng chữ; mã khác 200 là lỗi của node giữ sổ (thông báo nằm trong thân)
+    private String call(long playerId, String operation, boolean post) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + playerId + "/" + operation))
+                .timeout(timeout)
+                .header(SECRET_HEADER, secret);
+        request = post ? request.POST(HttpRequest.BodyPublishers.noBody()) : request.GET();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Wallet authority unreachable", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling wallet authority", e);
+        }
+        if (response.statusCode() == 400) {
+            throw new IllegalArgumentException(response.body());
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Wallet authority returned " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return response.body();
+    }
+}
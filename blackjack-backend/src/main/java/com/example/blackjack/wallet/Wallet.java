@@ -0,0 +1,50 @@
+package com.example.blackjack.wallet;
+
+/**
+ * Ví của người chơi: mỗi {@code playerId} một tài khoản, số dư tính bằng xu ({@link Money}).
+ * Trừ tiền không bao giờ làm số dư âm. Mọi phương thức an toàn khi gọi đồng thời.
+ * <p>
+ * {@code playerId} là định danh ổn định của người chơi ({@code PlayerIdentity}), dùng chung cho ván một người
+ * và bàn nhiều người, nên người chơi quay lại sau khi hết phiên vẫn giữ số dư. Ví của server
+ * <p>
+ * Mỗi tài khoản chỉ có một nguồn số dư: sổ {@link WalletLedger} của một node. Chạy nhiều node thì các node khác
+ * dùng {@link RemoteWallet} gọi tới node giữ sổ ({@code blackjack.wallet.url}), nên request của một người chơi đến
+ * node nào cũng thấy cùng số dư. Số dư trong {@code GameState} chỉ là bản sao để hiển thị, không mở hay sửa tài khoản.
+ */
+public interface Wallet {
+
+    // Số dư của tài khoản mới (xu), giống số dư khởi tạo của GameState
+    long INITIAL_BALANCE = 100_000;
+
+    // Mở tài khoản với số dư ban đầu nếu chưa có; trả về số dư hiện tại
+    long open(long playerId, long initialBalance);
+
+    // Số dư của tài khoản đã mở
+    long balance(long playerId);
+
+    // Trừ amount nếu đủ tiền; false (không đổi gì) nếu số dư nhỏ hơn amount
+    boolean debit(long playerId, long amount);
+
+    // Cộng amount, trả về số dư mới
+    long credit(long playerId, long amount);
+
+    /**
+     * Dấu phiên bản của game do client giữ ({@code GameStateTokens}): đổi mỗi lần game được lưu, token mang dấu khác
+     * là token cũ. 0 nếu chưa có tài khoản.
+     */
+    long stateStamp(long playerId);
+
+    // Ghi dấu phiên bản mới cho tài khoản đã mở (game mới, không cần biết dấu trước đó)
+    void setStateStamp(long playerId, long stamp);
+
+    /**
+     * Đổi dấu phiên bản sang {@code stamp} chỉ khi dấu hiện tại là {@code expected}, trong một bước nguyên tử; false
+     * (không đổi gì) nếu dấu đã khác hoặc chưa có tài khoản. Hai node cùng đổi từ một dấu thì chỉ một node thành công.
+     */
+    boolean compareAndSetStateStamp(long playerId, long expected, long stamp);
+
+    // Ví chỉ trong bộ nhớ, cho mô phỏng, chạy lại nhật ký và test
+    static Wallet inMemory() {
+        return new WalletLedger();
+    }
+}
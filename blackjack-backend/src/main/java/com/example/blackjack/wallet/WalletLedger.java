@@ -0,0 +1,307 @@
+package com.example.blackjack.wallet;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sổ cái của ví: mỗi tài khoản là một {@link AtomicLong}, trừ tiền bằng vòng compare-and-set nên không có khóa
+ * nào trên đường đặt cược và trả thưởng, và hai request đồng thời không thể cùng tiêu một khoản tiền.
+ * <p>
+ * Tài khoản vừa đổi số dư được đánh dấu và xếp hàng một lần; luồng nền ghi số dư mới nhất của chúng vào
+ * {@link WalletStore} theo lô, một lần fsync mỗi {@code blackjack.wallet.flush-interval} (group commit). Tài khoản
+ * đổi nhiều lần trong một khoảng chỉ được ghi một bản ghi. Khi máy sập chỉ mất các thay đổi của khoảng cuối.
+ * Tài khoản mới còn nguyên số dư ban đầu không được ghi.
+ * <p>
+ * Tài khoản không hoạt động quá {@code blackjack.wallet.idle-expiry} bị xóa khỏi bộ nhớ và ghi một bản ghi xóa
+ * (tombstone); lần viết lại log kế tiếp bỏ hẳn chúng, nên bộ nhớ và log chỉ lớn theo số người chơi còn hoạt động.
+ * <p>
+ * Là ví của server khi {@code blackjack.wallet.url} để trống. Chạy nhiều node thì chỉ một node (node giữ ví) giữ sổ
+ * này và mở nó cho các node khác qua {@code WalletController}; các node còn lại dùng {@link RemoteWallet}.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${blackjack.wallet.url:}'.isEmpty()")
+public class WalletLedger implements Wallet, AutoCloseable {
+
+    private static final int BATCH_RECORDS = 4096;
+
+    private static final class Account {
+        final long playerId;
+        final AtomicLong balance;
+        // true khi đang nằm trong hàng chờ ghi
+        final AtomicBoolean dirty = new AtomicBoolean();
+        // Ngày hoạt động gần nhất (epoch day), chỉ cần chính xác đến ngày
+        volatile int lastActiveDay;
+        final AtomicLong stateStamp;
+        // Đã bị xóa khỏi sổ vì không hoạt động; lần ghi kế tiếp ghi tombstone
+        volatile boolean expired;
+
+        Account(long playerId, long balance, long stateStamp, int lastActiveDay) {
+            this.playerId = playerId;
+            this.balance = new AtomicLong(balance);
+            this.stateStamp = new AtomicLong(stateStamp);
+            this.lastActiveDay = lastActiveDay;
+        }
+    }
+
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Account> pending = new ConcurrentLinkedQueue<>();
+    private final WalletStore store;
+    private final ScheduledExecutorService flusher;
+    private final Timer flushes;
+    private final long idleExpiryDays;
+
+    // Chỉ trong bộ nhớ, không ghi đĩa, tài khoản không hết hạn
+    public WalletLedger() {
+        this.store = null;
+        this.flusher = null;
+        this.flushes = null;
+        this.idleExpiryDays = Long.MAX_VALUE;
+    }
+
+    @Autowired
+    public WalletLedger(
+            @Value("${blackjack.wallet.dir:data/wallet}") Path directory,
+            @Value("${blackjack.wallet.flush-interval:200ms}") Duration flushInterval,
+            @Value("${blackjack.wallet.idle-expiry:90d}") Duration idleExpiry,
+            MeterRegistry meterRegistry) throws IOException {
+        this.store = new WalletStore(directory);
+        this.idleExpiryDays = Math.max(idleExpiry.toDays(), 1);
+        int today = today();
+        store.load().forEach((playerId, saved) -> {
+            if (!isIdle(saved.lastActiveDay(), today)) {
+                accounts.put(playerId,
+                        new Account(playerId, saved.balance(), saved.stateStamp(), saved.lastActiveDay()));
+            }
+        });
+        if (!accounts.isEmpty()) {
+            log.info("Loaded {} wallet accounts from {}", accounts.size(), directory);
+        }
+        this.flushes = Timer.builder("blackjack.wallet.flush")
+                .description("Thời gian ghi và fsync một lô số dư ví")
+                .register(meterRegistry);
+        Gauge.builder("blackjack.wallet.accounts", accounts, Map::size).register(meterRegistry);
+
+        long intervalNanos = flushInterval.toNanos();
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("wallet-flush").factory());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        flusher.scheduleWithFixedDelay(this::expireQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    // Tài khoản mới chỉ được ghi khi số dư đổi lần đầu; người chơi mở game rồi bỏ đi không để lại gì trên đĩa
+    @Override
+    public long open(long playerId, long initialBalance) {
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            account = accounts.computeIfAbsent(playerId, id -> new Account(id, initialBalance, 0, today()));
+        } else {
+            touch(account);
+        }
+        return account.balance.get();
+    }
+
+    @Override
+    public long balance(long playerId) {
+        return account(playerId).balance.get();
+    }
+
+    @Override
+    public boolean debit(long playerId, long amount) {
+        checkAmount(amount);
+        Account account = account(playerId);
+        account.lastActiveDay = today();
+        long current;
+        do {
+            current = account.balance.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!account.balance.compareAndSet(current, current - amount));
+        changed(account);
+        return true;
+    }
+
+    @Override
+    public long credit(long playerId, long amount) {
+        checkAmount(amount);
+        Account account = account(playerId);
+        account.lastActiveDay = today();
+        long balance = account.balance.addAndGet(amount);
+        changed(account);
+        return balance;
+    }
+
+    @Override
+    public long stateStamp(long playerId) {
+        Account account = accounts.get(playerId);
+        return account != null ? account.stateStamp.get() : 0;
+    }
+
+    @Override
+    public void setStateStamp(long playerId, long stamp) {
+        Account account = account(playerId);
+        account.lastActiveDay = today();
+        account.stateStamp.set(stamp);
+        changed(account);
+    }
+
+    @Override
+    public boolean compareAndSetStateStamp(long playerId, long expected, long stamp) {
+        Account account = accounts.get(playerId);
+        if (account == null || !account.stateStamp.compareAndSet(expected, stamp)) {
+            return false;
+        }
+        account.lastActiveDay = today();
+        changed(account);
+        return true;
+    }
+
+    private Account account(long playerId) {
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            throw new IllegalStateException("Ví của người chơi " + playerId + " chưa được mở");
+        }
+        return account;
+    }
+
+    // Ngày hoạt động chỉ được ghi lại khi sang ngày mới
+    private void touch(Account account) {
+        int today = today();
+        if (account.lastActiveDay != today) {
+            account.lastActiveDay = today;
+            changed(account);
+        }
+    }
+
+    /**
+     * Xóa các tài khoản không hoạt động quá {@code blackjack.wallet.idle-expiry} tính đến ngày {@code today}; bản ghi
+     * xóa được ghi ở lần flush kế tiếp. Tài khoản vừa hoạt động lại đúng lúc bị xóa được đưa trở lại sổ.
+     */
+    int expireIdle(int today) {
+        int expired = 0;
+        for (Account account : accounts.values()) {
+            if (!isIdle(account.lastActiveDay, today) || !accounts.remove(account.playerId, account)) {
+                continue;
+            }
+            if (!isIdle(account.lastActiveDay, today) && accounts.putIfAbsent(account.playerId, account) == null) {
+                continue;
+            }
+            account.expired = true;
+            changed(account);
+            expired++;
+        }
+        return expired;
+    }
+
+    private boolean isIdle(int lastActiveDay, int today) {
+        return today - lastActiveDay > idleExpiryDays;
+    }
+
+    private static int today() {
+        return (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+    }
+
+    private static void checkAmount(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Số tiền không được âm: " + amount);
+        }
+    }
+
+    // Xếp hàng ghi nếu tài khoản chưa nằm trong hàng; luồng flush bỏ dấu trước khi đọc số dư nên không lỡ thay đổi nào
+    private void changed(Account account) {
+        if (store != null && account.dirty.compareAndSet(false, true)) {
+            pending.add(account);
+        }
+    }
+
+    // Ghi số dư mới nhất của các tài khoản đã đổi từ lần trước, fsync một lần cho cả lô
+    synchronized void flush() {
+        if (store == null || pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Account> batch = new ArrayList<>();
+        ByteBuffer records = WalletStore.newBatch(BATCH_RECORDS);
+        try {
+            Account account;
+            while ((account = pending.poll()) != null) {
+                account.dirty.set(false);
+                batch.add(account);
+                store.put(records, account.playerId, account.expired ? WalletStore.TOMBSTONE : account.balance.get(),
+                        account.stateStamp.get(), account.lastActiveDay);
+                if (!records.hasRemaining()) {
+                    store.append(records);
+                    records.clear();
+                    batch.clear();
+                }
+            }
+            if (records.position() > 0) {
+                store.append(records);
+            }
+            if (store.needsCompaction(accounts.size())) {
+                store.compact(accounts.size(), sink -> accounts.values()
+                        .forEach(a -> sink.accept(a.playerId, a.balance.get(), a.stateStamp.get(), a.lastActiveDay)));
+            }
+        } catch (IOException e) {
+            // Lô chưa chắc đã xuống đĩa: xếp hàng lại để lần sau ghi lại
+            batch.forEach(this::changed);
+            throw new UncheckedIOException("Could not write wallet balances", e);
+        }
+        flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Could not sync wallet", e);
+        }
+    }
+
+    private void expireQuietly() {
+        try {
+            int expired = expireIdle(today());
+            if (expired > 0) {
+                log.info("Expired {} idle wallet accounts", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not expire idle wallet accounts", e);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws InterruptedException, IOException {
+        if (store == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        store.close();
+    }
+}
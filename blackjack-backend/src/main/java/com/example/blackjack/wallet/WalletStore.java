@@ -0,0 +1,186 @@
+package com.example.blackjack.wallet;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Nơi lưu số dư trên đĩa của {@link WalletLedger}: một file log chỉ ghi thêm {@value #FILE_NAME}, mỗi bản ghi
+ * {@value #RECORD_SIZE} byte (little-endian) là số dư mới nhất của một tài khoản:
+ * <pre>
+ *  0  long  playerId
+ *  8  long  số dư (xu); {@value #TOMBSTONE} là tài khoản đã hết hạn
+ * 16  long  dấu phiên bản của game do client giữ (xem {@link Wallet#stateStamp})
+ * 24  int   ngày hoạt động gần nhất (epoch day)
+ * 28  int   CRC32C của 28 byte đầu
+ * </pre>
+ * Bản ghi sau thắng bản ghi trước của cùng tài khoản; bản ghi sai checksum (ghi dở khi máy sập) và mọi thứ sau nó
+ * bị cắt bỏ khi mở. Log được viết lại gọn (mỗi tài khoản còn hạn một bản ghi) khi đã dài gấp nhiều lần số tài khoản.
+ * Chỉ một luồng được gọi các phương thức ghi.
+ */
+@Slf4j
+final class WalletStore implements AutoCloseable {
+
+    static final String FILE_NAME = "wallet.log";
+    static final int RECORD_SIZE = 32;
+    static final long TOMBSTONE = -1;
+
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int CHECKSUM_OFFSET = 28;
+    // Viết lại log khi số bản ghi vượt số tài khoản nhân hệ số này (và tối thiểu MIN_COMPACT_RECORDS)
+    private static final int COMPACT_RATIO = 4;
+    private static final long MIN_COMPACT_RECORDS = 1 << 16;
+
+    // Số dư, dấu phiên bản và ngày hoạt động gần nhất của một tài khoản trong log
+    record Saved(long balance, long stateStamp, int lastActiveDay) {
+    }
+
+    // Nhận từng tài khoản khi viết lại log (xem compact)
+    interface Sink {
+        void accept(long playerId, long balance, long stateStamp, int lastActiveDay);
+    }
+
+    private final Path file;
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private long records;
+
+    WalletStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    // Bản ghi mới nhất của mọi tài khoản còn hạn trong log; cắt phần đuôi hỏng để ghi tiếp ngay sau bản ghi hợp lệ cuối
+    Map<Long, Saved> load() throws IOException {
+        Map<Long, Saved> balances = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096).order(ORDER);
+        long valid = 0;
+        channel.position(0);
+        read:
+        while (channel.read(buffer) > 0 || buffer.position() > 0) {
+            buffer.flip();
+            if (buffer.remaining() < RECORD_SIZE && channel.position() == channel.size()) {
+                break;
+            }
+            while (buffer.remaining() >= RECORD_SIZE) {
+                int offset = buffer.position();
+                crc.reset();
+                crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+                if ((int) crc.getValue() != buffer.getInt(offset + CHECKSUM_OFFSET)) {
+                    break read;
+                }
+                long balance = buffer.getLong(offset + 8);
+                if (balance == TOMBSTONE) {
+                    balances.remove(buffer.getLong(offset));
+                } else {
+                    balances.put(buffer.getLong(offset),
+                            new Saved(balance, buffer.getLong(offset + 16), buffer.getInt(offset + 24)));
+                }
+                buffer.position(offset + RECORD_SIZE);
+                valid++;
+            }
+            buffer.compact();
+        }
+        if (valid * RECORD_SIZE < channel.size()) {
+            log.warn("Truncating wallet log {} after {} valid records", file, valid);
+            channel.truncate(valid * RECORD_SIZE);
+        }
+        channel.position(valid * RECORD_SIZE);
+        records = valid;
+        return balances;
+    }
+
+    // Ghi thêm một lô bản ghi đã mã hóa bằng put rồi fsync một lần
+    void append(ByteBuffer batch) throws IOException {
+        batch.flip();
+        int count = batch.remaining() / RECORD_SIZE;
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        channel.force(false);
+        records += count;
+    }
+
+    // Thêm một bản ghi vào lô (buffer có thứ tự byte ORDER, xem newBatch)
+    void put(ByteBuffer batch, long playerId, long balance, long stateStamp, int lastActiveDay) {
+        int offset = batch.position();
+        batch.putLong(playerId).putLong(balance).putLong(stateStamp).putInt(lastActiveDay);
+        crc.reset();
+        crc.update(batch.slice(offset, CHECKSUM_OFFSET));
+        batch.putInt((int) crc.getValue());
+    }
+
+    static ByteBuffer newBatch(int records) {
+        return ByteBuffer.allocate(records * RECORD_SIZE).order(ORDER);
+    }
+
+    boolean needsCompaction(long accounts) {
+        return records > Math.max(MIN_COMPACT_RECORDS, accounts * COMPACT_RATIO);
+    }
+
+    /**
+     * Viết lại log từ số dư hiện tại của mọi tài khoản còn hạn ({@code snapshot} gọi lại cho từng tài khoản), rồi thay
+     * file cũ bằng thao tác đổi tên nguyên tử; tài khoản đã hết hạn không còn bản ghi nào. Số dư đổi trong lúc viết
+     * vẫn được ghi thêm ở các lô sau.
+     */
+    void compact(long accounts, Consumer<Sink> snapshot) throws IOException {
+        Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+        long written;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer batch = newBatch((int) Math.min(Math.max(accounts, 1), 4096));
+            long[] count = new long[1];
+            IOException[] failure = new IOException[1];
+            snapshot.accept((playerId, balance, stateStamp, lastActiveDay) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    if (!batch.hasRemaining()) {
+                        batch.flip();
+                        while (batch.hasRemaining()) {
+                            out.write(batch);
+                        }
+                        batch.clear();
+                    }
+                    put(batch, playerId, balance, stateStamp, lastActiveDay);
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                out.write(batch);
+            }
+            out.force(true);
+            written = count[0];
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        records = written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.blackjack.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.session.GameSlots;
+import com.example.blackjack.session.GameStateTokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionFilterTest {
+
+	@Test
+	void sessionsAreLimitedIndependentlyWithRetryAfter() throws Exception {
+		AdmissionFilter filter = newFilter(GameSlots.Mode.SESSION, new GameStateTokens("", 16));
+		for (int i = 0; i < 5; i++) {
+			assertEquals(200, send(filter, "/api/game/hit", "a").getStatus());
+		}
+		MockHttpServletResponse rejected = send(filter, "/api/game/hit", "a");
+		assertEquals(429, rejected.getStatus());
+		assertEquals("1", rejected.getHeader("Retry-After"));
+
+		assertEquals(200, send(filter, "/api/game/hit", "b").getStatus());
+		// Ngoài /api/game không bị giới hạn
+		assertEquals(200, send(filter, "/api/stats/leaderboard", "a").getStatus());
+	}
+
+	@Test
+	void forgedSessionIdsAndTokensFallBackToTheClientAddress() throws Exception {
+		GameStateTokens tokens = new GameStateTokens("", 16);
+		AdmissionFilter sessions = newFilter(GameSlots.Mode.SESSION, tokens);
+		AdmissionFilter tokenMode = newFilter(GameSlots.Mode.TOKEN, tokens);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/game/hit");
+		request.setRemoteAddr("10.0.0.7");
+		request.setRequestedSessionId("made-up");
+		request.setRequestedSessionIdValid(false);
+		assertEquals("10.0.0.7", sessions.clientKey(request));
+
+		GameState gameState = new GameState();
+		gameState.setPlayerId(42);
+		request.addHeader(GameStateTokens.HEADER, tokens.encode(gameState, 1));
+		assertEquals("player:42", tokenMode.clientKey(request));
+		assertEquals("10.0.0.7", sessions.clientKey(request));
+
+		// Token sửa tay (chữ ký sai) không tạo được khóa mới
+		MockHttpServletRequest forged = new MockHttpServletRequest("POST", "/api/game/hit");
+		forged.setRemoteAddr("10.0.0.7");
+		forged.addHeader(GameStateTokens.HEADER, tokens.encode(gameState, 1).substring(1));
+		assertEquals("10.0.0.7", tokenMode.clientKey(forged));
+	}
+
+	@Test
+	void tokensRefillAtTheConfiguredRate() {
+		SessionRateLimiter limiter = new SessionRateLimiter(10, 3, 16);
+		long second = TimeUnit.SECONDS.toNanos(1);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("a", second));
+		}
+		assertEquals(second / 10, limiter.tryAcquire("a", second));
+		assertEquals(0, limiter.tryAcquire("a", second + second / 10));
+		assertTrue(limiter.tryAcquire("a", second + second / 10) > 0);
+		// Để yên lâu thì chỉ đầy lại đến burst
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("a", 100 * second));
+		}
+		assertTrue(limiter.tryAcquire("a", 100 * second) > 0);
+	}
+
+	@Test
+	void sessionsNeverShareAQuota() {
+		SessionRateLimiter limiter = new SessionRateLimiter(10, 3, 1_000_000);
+		long second = TimeUnit.SECONDS.toNanos(1);
+		// Nhiều phiên hơn số bucket cũ: mọi phiên vẫn được đủ burst của mình
+		for (int session = 0; session < 200_000; session++) {
+			for (int i = 0; i < 3; i++) {
+				assertEquals(0, limiter.tryAcquire("s" + session, second));
+			}
+		}
+		assertTrue(limiter.tryAcquire("s42", second) > 0);
+
+		// Bucket đã đầy lại được dọn mà không đổi hạn mức
+		assertEquals(0, limiter.evictIdle(second));
+		assertEquals(200_000, limiter.evictIdle(2 * second));
+		assertEquals(0, limiter.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("s42", 2 * second));
+		}
+		assertTrue(limiter.tryAcquire("s42", 2 * second) > 0);
+	}
+
+	@Test
+	void aFullTableAdmitsNewSessionsInsteadOfRejectingThem() {
+		SessionRateLimiter limiter = new SessionRateLimiter(10, 1, 2);
+		long second = TimeUnit.SECONDS.toNanos(1);
+		assertEquals(0, limiter.tryAcquire("a", second));
+		assertEquals(0, limiter.tryAcquire("b", second));
+		assertTrue(limiter.tryAcquire("a", second) > 0);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("c", second));
+		}
+		assertEquals(2, limiter.size());
+	}
+
+	@Test
+	void newRoundsGiveWayToRoundsInProgress() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 2.0, Duration.ofHours(1), 1);
+		for (int i = 0; i < 8; i++) {
+			assertTrue(limit.tryAcquire(0.8));
+		}
+		assertFalse(limit.tryAcquire(0.8));
+		assertTrue(limit.tryAcquire(1));
+		assertTrue(limit.tryAcquire(1));
+		assertFalse(limit.tryAcquire(1));
+	}
+
+	@Test
+	void limitShrinksWhenLatencyRisesAndGrowsBackWhenSaturated() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000, 2.0, Duration.ofHours(1), 1);
+		window(limit, 100, 1_000);
+		assertEquals(110, limit.limit());
+
+		window(limit, 100, 5_000);
+		assertEquals(99, limit.limit());
+		for (int i = 0; i < 50; i++) {
+			window(limit, 100, 5_000);
+		}
+		assertEquals(10, limit.limit());
+
+		// Độ trễ về lại mức nền: giới hạn tăng dần lên khi được dùng hết
+		for (int i = 0; i < 20; i++) {
+			window(limit, limit.limit(), 1_000);
+		}
+		assertTrue(limit.limit() > 100, "limit " + limit.limit());
+	}
+
+	// Một cửa sổ có concurrency request chạy cùng lúc, mỗi request mất latencyNanos
+	private static void window(AdaptiveConcurrencyLimit limit, int concurrency, long latencyNanos) {
+		int acquired = 0;
+		while (acquired < concurrency && limit.tryAcquire(1)) {
+			acquired++;
+		}
+		for (int i = 0; i < Math.max(acquired, 10); i++) {
+			if (i < acquired) {
+				limit.release(0, latencyNanos);
+			} else {
+				// Đủ số mẫu tối thiểu của cửa sổ
+				limit.tryAcquire(1);
+				limit.release(0, latencyNanos);
+			}
+		}
+		limit.adjust();
+	}
+
+	private static AdmissionFilter newFilter(GameSlots.Mode mode, GameStateTokens tokens) {
+		return new AdmissionFilter(true, 1, 5, 1024, 256, 16, 4096, 2.0, Duration.ofMillis(100), 0.2, mode, tokens,
+				new SimpleMeterRegistry());
+	}
+
+	private static MockHttpServletResponse send(AdmissionFilter filter, String path, String sessionId)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRequestedSessionId(sessionId);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.blackjack.advisor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.model.ShoeComposition;
+
+class DealerOutcomeEngineTest {
+
+	private final DealerOutcomeEngine engine = new DealerOutcomeEngine(1000);
+
+	@Test
+	void outcomesFormAProbabilityDistribution() {
+		for (Rank upcard : Rank.values()) {
+			long shoe = ShoeComposition.remove(new Deck(8).composition(), ShoeComposition.classOf(upcard));
+
+			double sum = 0;
+			for (double p : engine.outcomes(upcard, shoe)) {
+				sum += p;
+			}
+			assertEquals(1.0, sum, 1e-9);
+		}
+	}
+
+	@Test
+	void blackjackUnderAnAceIsATenInTheHole() {
+		Deck deck = new Deck(8);
+		long shoe = ShoeComposition.remove(deck.composition(), ShoeComposition.ACE);
+
+		double[] outcomes = engine.outcomes(Rank.ACE, shoe);
+		assertEquals(128.0 / 415, outcomes[DealerOutcomeEngine.BLACKJACK], 1e-12);
+		assertSame(outcomes, engine.outcomes(Rank.ACE, shoe));
+	}
+}
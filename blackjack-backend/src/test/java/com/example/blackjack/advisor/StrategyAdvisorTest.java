@@ -0,0 +1,46 @@
+package com.example.blackjack.advisor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.dto.HintView;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.model.ShoeComposition;
+import com.example.blackjack.simulation.PlayerPolicy.Decision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StrategyAdvisorTest {
+
+	private final StrategyAdvisor advisor = new StrategyAdvisor(Duration.ofSeconds(30), 100_000,
+			new DealerOutcomeEngine(1000), new SimpleMeterRegistry());
+
+	@Test
+	void recommendsTheTextbookPlayOnAFreshShoe() {
+		long shoe = without(fullShoe(), Rank.SIX, Rank.FIVE, Rank.SIX);
+		HintView eleven = advisor.advise(shoe, 11, false, null, Rank.SIX, true, false);
+		assertTrue(eleven.exact());
+		assertEquals("DOUBLE_DOWN", eleven.recommended());
+
+		shoe = without(fullShoe(), Rank.KING, Rank.QUEEN, Rank.SIX);
+		HintView twenty = advisor.advise(shoe, 20, false, Rank.KING, Rank.SIX, true, true);
+		assertEquals("STAND", twenty.recommended());
+		assertTrue(twenty.ev().get(Decision.STAND) > 0.5);
+	}
+
+	private static long fullShoe() {
+		return new Deck(8).composition();
+	}
+
+	private static long without(long shoe, Rank... ranks) {
+		for (Rank rank : ranks) {
+			shoe = ShoeComposition.remove(shoe, ShoeComposition.classOf(rank));
+		}
+		return shoe;
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.blackjack.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void binaryFormatsAreServedOnlyWhenAsked() throws Exception {
+		byte[] cbor = mockMvc.perform(get("/api/game/state").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertEquals(1000.0, new CBORMapper().readTree(cbor).path("playerBalance").asDouble());
+
+		byte[] smile = mockMvc.perform(get("/api/game/state").accept(WebConfig.APPLICATION_SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+		// Smile bắt đầu bằng header ":)\n"
+		assertEquals(':', smile[0]);
+		assertEquals(1000.0, new SmileMapper().readTree(smile).path("playerBalance").asDouble());
+
+		// Accept mặc định của trình duyệt, curl: vẫn là JSON
+		String json = mockMvc.perform(get("/api/game/state").accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(1000.0, new ObjectMapper().readTree(json).path("playerBalance").asDouble());
+	}
+
+	@Test
+	void errorBodiesUseTheRequestedFormat() throws Exception {
+		// 409: chưa đặt cược thì chưa đến lượt người chơi
+		byte[] conflict = mockMvc.perform(get("/api/game/hint").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isConflict())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+		JsonNode message = new CBORMapper().readTree(conflict).path("message");
+		assertEquals("Chỉ có gợi ý khi đang đến lượt bạn.", message.asText());
+
+		// 400: số tiền lẻ dưới một xu
+		byte[] badRequest = mockMvc.perform(post("/api/game/bet").param("amount", "0.001")
+						.accept(WebConfig.APPLICATION_SMILE))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertEquals("Số tiền không hợp lệ: 0.001", new SmileMapper().readTree(badRequest).path("message").asText());
+	}
+}
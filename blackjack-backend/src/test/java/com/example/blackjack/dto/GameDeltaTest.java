@@ -0,0 +1,157 @@
+package com.example.blackjack.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.dto.GameDelta.HandPatch;
+import com.example.blackjack.model.HandStatus;
+
+class GameDeltaTest {
+
+	private static final List<String> PLAYING = List.of("HIT", "STAND", "DOUBLE_DOWN");
+	private static final List<String> BETTING = List.of("PLACE_BET");
+	private static final HandView DEALER_HIDDEN = hand(null, 0, HandStatus.PLAYING, "9C", null);
+
+	@Test
+	void hitSendsOnlyTheNewCard() {
+		GameView before = game(3, 990, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(16, 10, HandStatus.PLAYING, "TS", "6H"));
+		GameView after = game(4, 990, "Lượt của bạn", false, List.of("HIT", "STAND"), DEALER_HIDDEN,
+				hand(21, 10, HandStatus.PLAYING, "TS", "6H", "5D"));
+
+		GameDelta delta = GameDelta.between(before, after);
+
+		assertEquals(List.of(new HandPatch(0, 2, List.of("5D"), 21, 10, HandStatus.PLAYING)), delta.playerHands());
+		assertNull(delta.dealerHand());
+		assertNull(delta.gameMessage());
+		assertEquals(0, delta.balanceDelta());
+		assertEquals(after, apply(before, delta));
+	}
+
+	@Test
+	void doubleDownPatchesBetAndBalance() {
+		GameView before = game(3, 990, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(11, 10, HandStatus.PLAYING, "6S", "5H"));
+		GameView after = game(4, 980, "Lượt của bạn", false, List.of(), DEALER_HIDDEN,
+				hand(19, 20, HandStatus.STOOD, "6S", "5H", "8D"));
+
+		GameDelta delta = GameDelta.between(before, after);
+
+		assertEquals(-10, delta.balanceDelta());
+		assertEquals(after, apply(before, delta));
+	}
+
+	@Test
+	void splitInsertsTheNewHandAfterTheSplitOne() {
+		// Tách lại tay đầu: tay cũ ở vị trí 1 bị đẩy sang vị trí 2
+		GameView before = game(5, 980, "Lượt của bạn", false, List.of("HIT", "STAND", "SPLIT"), DEALER_HIDDEN,
+				hand(16, 10, HandStatus.PLAYING, "8S", "8H"),
+				hand(18, 10, HandStatus.PLAYING, "8D", "TC"));
+		GameView after = game(6, 970, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(10, 10, HandStatus.PLAYING, "8S", "2C"),
+				hand(18, 10, HandStatus.PLAYING, "8H", "QD"),
+				hand(18, 10, HandStatus.PLAYING, "8D", "TC"));
+
+		GameDelta delta = GameDelta.between(before, after);
+
+		assertEquals(3, delta.handCount());
+		assertEquals(List.of(
+				new HandPatch(0, 1, List.of("2C"), 10, 10, HandStatus.PLAYING),
+				new HandPatch(1, 0, List.of("8H", "QD"), 18, 10, HandStatus.PLAYING),
+				new HandPatch(2, 0, List.of("8D", "TC"), 18, 10, HandStatus.PLAYING)), delta.playerHands());
+		assertEquals(-10, delta.balanceDelta());
+		assertEquals(after, apply(before, delta));
+	}
+
+	@Test
+	void revealingTheHoleCardReplacesItFromIndexOne() {
+		GameView before = game(4, 990, "Lượt của bạn", false, List.of("HIT", "STAND"), DEALER_HIDDEN,
+				hand(20, 10, HandStatus.PLAYING, "KS", "QH"));
+		GameView after = game(5, 1010, "Nhà cái quắc, bạn thắng!", true, BETTING,
+				hand(26, 0, HandStatus.BUSTED, "9C", "7D", "TH"),
+				hand(20, 10, HandStatus.STOOD, "KS", "QH"));
+
+		GameDelta delta = GameDelta.between(before, after);
+
+		assertEquals(new HandPatch(-1, 1, List.of("7D", "TH"), 26, 0, HandStatus.BUSTED), delta.dealerHand());
+		assertEquals(20, delta.balanceDelta());
+		assertEquals("Nhà cái quắc, bạn thắng!", delta.gameMessage());
+		assertEquals(after, apply(before, delta));
+	}
+
+	@Test
+	void fewerHandsTruncateTheClientsList() {
+		GameView before = game(9, 1000, "Hòa", true, BETTING,
+				hand(19, 0, HandStatus.STOOD, "9C", "QD"),
+				hand(19, 10, HandStatus.STOOD, "8S", "AC"),
+				hand(19, 10, HandStatus.STOOD, "8H", "AD"));
+		GameView after = game(10, 987.5, "Lượt của bạn", false, PLAYING,
+				hand(null, 0, HandStatus.PLAYING, "5H", null),
+				hand(12, 12.5, HandStatus.PLAYING, "7S", "5C"));
+
+		GameDelta delta = GameDelta.between(before, after);
+
+		assertEquals(1, delta.handCount());
+		assertEquals(-12.5, delta.balanceDelta());
+		assertEquals(after, apply(before, delta));
+	}
+
+	@Test
+	void aPatchForAnotherVersionIsNotApplied() {
+		GameView v3 = game(3, 990, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(12, 10, HandStatus.PLAYING, "TS", "2H"));
+		GameView v4 = game(4, 990, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(15, 10, HandStatus.PLAYING, "TS", "2H", "3D"));
+		GameView v5 = game(5, 990, "Lượt của bạn", false, PLAYING, DEALER_HIDDEN,
+				hand(19, 10, HandStatus.PLAYING, "TS", "2H", "3D", "4S"));
+
+		// Client còn ở v3 mà nhận bản vá v4 -> v5: phải tải lại toàn bộ trạng thái
+		assertNull(apply(v3, GameDelta.between(v4, v5)));
+		assertEquals(v5, apply(apply(v3, GameDelta.between(v3, v4)), GameDelta.between(v4, v5)));
+	}
+
+	// Ghép bản vá giống applyUpdate / applyHandPatch trong api.js; null khi bản vá không dựa trên state
+	private static GameView apply(GameView state, GameDelta delta) {
+		if (state.version() != delta.baseVersion()) {
+			return null;
+		}
+		List<HandView> hands = new ArrayList<>(
+				state.playerHands().subList(0, Math.min(delta.handCount(), state.playerHands().size())));
+		for (HandPatch patch : delta.playerHands()) {
+			if (patch.index() < hands.size()) {
+				hands.set(patch.index(), apply(hands.get(patch.index()), patch));
+			} else {
+				hands.add(apply(null, patch));
+			}
+		}
+		return new GameView(
+				delta.version(),
+				hands,
+				delta.dealerHand() != null ? apply(state.dealerHand(), delta.dealerHand()) : state.dealerHand(),
+				state.playerBalance() + delta.balanceDelta(),
+				delta.gameMessage() != null ? delta.gameMessage() : state.gameMessage(),
+				delta.roundOver(),
+				delta.availableActions());
+	}
+
+	private static HandView apply(HandView hand, HandPatch patch) {
+		List<String> cards = new ArrayList<>(hand != null ? hand.cards().subList(0, patch.from()) : List.of());
+		cards.addAll(patch.cards());
+		return new HandView(cards, patch.handValue(), patch.betAmount(), patch.status());
+	}
+
+	private static GameView game(long version, double balance, String message, boolean roundOver,
+			List<String> actions, HandView dealer, HandView... hands) {
+		return new GameView(version, List.of(hands), dealer, balance, message, roundOver, actions);
+	}
+
+	private static HandView hand(Integer value, double bet, HandStatus status, String... cards) {
+		return new HandView(Arrays.asList(cards), value, bet, status);
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.blackjack.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.ShoePool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RoundJournalTest {
+
+	private final ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void closePool() {
+		shoePool.close();
+	}
+
+	@Test
+	void replayRebuildsBalancesAcrossSegmentsAndRestarts() throws Exception {
+		GameState first;
+		try (RoundJournal journal = open()) {
+			first = play(new BlackjackService(shoePool, journal), 50);
+		}
+		GameState second;
+		try (RoundJournal journal = open()) {
+			second = play(new BlackjackService(shoePool, journal), 50);
+		}
+		assertTrue(JournalFormat.segments(directory).size() > 1);
+
+		Map<Long, JournalReplay.Ledger> ledgers = JournalReplay.ledgers(directory);
+		assertEquals(2, ledgers.size());
+		for (GameState state : List.of(first, second)) {
+			JournalReplay.Ledger ledger = ledgers.get(state.getPlayerId());
+			assertEquals(state.getPlayerBalance(), ledger.balance());
+			assertEquals(50, ledger.rounds());
+			assertEquals(100_000 - ledger.wagered() + ledger.returned(), ledger.balance());
+		}
+	}
+
+	@Test
+	void roundHistoryStartsWithTheBetAndTheDeal() throws Exception {
+		GameState state;
+		try (RoundJournal journal = open()) {
+			state = play(new BlackjackService(shoePool, journal), 3);
+		}
+
+		List<List<JournalReplay.Step>> rounds = JournalReplay.rounds(directory, state.getPlayerId());
+		assertEquals(3, rounds.size());
+		List<JournalReplay.Step> last = rounds.get(2);
+		assertEquals(RoundEvent.BET, last.get(0).event());
+		assertEquals(1000, last.get(0).amount());
+		for (int i = 1; i <= 4; i++) {
+			assertEquals(RoundEvent.DEAL, last.get(i).event());
+		}
+		assertEquals(state.getPlayerHands().get(0).getCards().get(0), last.get(1).card());
+		assertEquals(state.getDealerHand().getCards().get(1), last.get(4).card());
+		assertEquals(RoundEvent.SETTLE, last.get(last.size() - 1).event());
+	}
+
+	// Segment nhỏ (100 bản ghi) để nhật ký phải chuyển segment nhiều lần
+	private RoundJournal open() throws Exception {
+		return new RoundJournal(directory, DataSize.ofBytes(100L * JournalFormat.RECORD_SIZE), Duration.ofMillis(1),
+				new SimpleMeterRegistry());
+	}
+
+	// Cược 10.00 mỗi ván, không mua bảo hiểm, rút đến 17 rồi dừng
+	private static GameState play(BlackjackService service, int rounds) {
+		GameState state = service.startGame();
+		for (int i = 0; i < rounds; i++) {
+			state = service.placeBet(state, 1000);
+			if (state.allows(PlayerAction.NO_INSURANCE)) {
+				state = service.resolveInsurance(state, false);
+			}
+			while (!state.isRoundOver()) {
+				int hand = 0;
+				while (state.getPlayerHands().get(hand).getStatus() != HandStatus.PLAYING) {
+					hand++;
+				}
+				state = state.getPlayerHands().get(hand).getHandValue() < 17
+						? service.playerHit(state, hand)
+						: service.playerStand(state, hand);
+			}
+		}
+		return state;
+	}
+}
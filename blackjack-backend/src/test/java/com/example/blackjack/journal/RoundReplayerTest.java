@@ -0,0 +1,106 @@
+package com.example.blackjack.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.ShoePool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RoundReplayerTest {
+
+	private final ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void closePool() {
+		shoePool.close();
+	}
+
+	@Test
+	void recordedRoundsReplayToTheSameSettlements() throws Exception {
+		try (RoundJournal journal = open()) {
+			play(new BlackjackService(shoePool, journal), 300);
+			play(new BlackjackService(shoePool, journal), 100);
+		}
+
+		RoundReplayer.Report report = RoundReplayer.replay(directory);
+		assertEquals(List.of(), report.mismatches());
+		assertEquals(400, report.rounds());
+		assertTrue(report.shoes() > 2);
+	}
+
+	@Test
+	void aSettlementThatDiffersFromTheRulesIsFlagged() throws Exception {
+		try (RoundJournal journal = open()) {
+			// Ghi sai khoản thanh toán đầu tiên của ván thứ 5
+			GameEventListener tampered = new GameEventListener() {
+				private int bets;
+				private boolean done;
+
+				@Override
+				public void roundEvent(GameState state, RoundEvent event, int handIndex, int cardCode, long amount) {
+					bets += event == RoundEvent.BET ? 1 : 0;
+					if (event == RoundEvent.SETTLE && bets == 5 && !done) {
+						done = true;
+						amount += 1;
+					}
+					journal.roundEvent(state, event, handIndex, cardCode, amount);
+				}
+			};
+			play(new BlackjackService(shoePool, tampered), 20);
+		}
+
+		RoundReplayer.Report report = RoundReplayer.replay(directory);
+		assertEquals(1, report.mismatches().size());
+		assertEquals(5, report.mismatches().get(0).round());
+	}
+
+	private RoundJournal open() throws Exception {
+		return new RoundJournal(directory, DataSize.ofMegabytes(1), Duration.ofMillis(1), new SimpleMeterRegistry());
+	}
+
+	// Cược 10.00 mỗi ván, mua bảo hiểm xen kẽ, tách đôi 8, gấp đôi ở 11, rút đến 17 rồi dừng
+	private static void play(BlackjackService service, int rounds) {
+		GameState state = service.startGame();
+		for (int i = 0; i < rounds; i++) {
+			state = service.placeBet(state, 1000);
+			if (state.allows(PlayerAction.BUY_INSURANCE)) {
+				state = service.resolveInsurance(state, i % 2 == 0);
+			}
+			while (!state.isRoundOver()) {
+				int hand = 0;
+				while (state.getPlayerHands().get(hand).getStatus() != HandStatus.PLAYING) {
+					hand++;
+				}
+				int value = state.getPlayerHands().get(hand).getHandValue();
+				if (state.allows(PlayerAction.SPLIT) && value == 16) {
+					state = service.playerSplit(state, hand);
+				} else if (state.allows(PlayerAction.DOUBLE_DOWN) && value == 11) {
+					state = service.playerDoubleDown(state, hand);
+				} else if (value < 17) {
+					state = service.playerHit(state, hand);
+				} else {
+					state = service.playerStand(state, hand);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.blackjack.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class DeckTest {
+
+	@Test
+	void dealsEveryCardOfEveryDeckExactlyOnce() {
+		Deck deck = new Deck(8);
+		deck.shuffle(new SplittableRandom(42));
+
+		int[] seen = new int[52];
+		Card card;
+		while ((card = deck.deal()) != null) {
+			seen[card.code()]++;
+		}
+		for (int count : seen) {
+			assertEquals(8, count);
+		}
+		assertEquals(0, deck.size());
+		assertNull(deck.deal());
+	}
+
+	@Test
+	void compositionFollowsTheCardsLeftInTheShoe() {
+		Deck deck = new Deck(8);
+		deck.shuffle(new SplittableRandom(7));
+		for (int i = 0; i < 100; i++) {
+			deck.deal();
+		}
+		assertEquals(ShoeComposition.of(deck.getCards()), deck.composition());
+		assertEquals(316, ShoeComposition.total(deck.composition()));
+
+		deck.reset();
+		assertEquals(ShoeComposition.of(new Deck(8).getCards()), deck.composition());
+	}
+
+	@Test
+	void theSameSeedAlwaysGivesTheSameShoe() {
+		Deck deck = new Deck(8);
+		deck.shuffle(123456789L);
+		for (int i = 0; i < 50; i++) {
+			deck.deal();
+		}
+		ByteBuffer saved = ByteBuffer.allocate(4 + 8 + deck.capacity());
+		deck.writeTo(saved);
+		Deck restored = Deck.readFrom(saved.flip());
+		assertEquals(123456789L, restored.seed());
+
+		// Xáo lại với cùng seed từ bất kỳ trạng thái nào cũng ra đúng thứ tự ban đầu
+		restored.shuffle(restored.seed());
+		Deck fresh = new Deck(8);
+		fresh.shuffle(123456789L);
+		assertEquals(fresh.getCards(), restored.getCards());
+	}
+
+	@Test
+	void resetRestacksTheShoeAndCardsAreCanonical() {
+		Deck deck = new Deck(1);
+		Card top = deck.getCards().get(deck.size() - 1);
+		assertSame(top, deck.deal());
+
+		deck.reset();
+		assertEquals(52, deck.size());
+		assertSame(Card.of(Suit.SPADES, Rank.ACE), deck.deal());
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.example.blackjack.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HandTest {
+
+	@Test
+	void acesCountAsElevenUntilTheHandWouldBust() {
+		Hand hand = new Hand();
+		hand.addCard(Card.of(Suit.SPADES, Rank.ACE));
+		hand.addCard(Card.of(Suit.HEARTS, Rank.ACE));
+		assertEquals(12, hand.getHandValue());
+		assertTrue(hand.isSoft());
+
+		hand.addCard(Card.of(Suit.CLUBS, Rank.NINE));
+		assertEquals(21, hand.getHandValue());
+		assertTrue(hand.isSoft());
+		assertFalse(hand.isBlackjack());
+
+		hand.addCard(Card.of(Suit.CLUBS, Rank.FIVE));
+		assertEquals(16, hand.getHandValue());
+		assertFalse(hand.isSoft());
+
+		hand.addCard(Card.of(Suit.DIAMONDS, Rank.KING));
+		assertEquals(26, hand.getHandValue());
+		assertTrue(hand.isBust());
+	}
+
+	@Test
+	void splittingAPairKeepsBothTotalsCorrect() {
+		Hand hand = new Hand();
+		hand.addCard(Card.of(Suit.SPADES, Rank.ACE));
+		hand.addCard(Card.of(Suit.HEARTS, Rank.ACE));
+
+		Hand newHand = new Hand();
+		newHand.addCard(hand.removeCard(1));
+		hand.addCard(Card.of(Suit.CLUBS, Rank.KING));
+		newHand.addCard(Card.of(Suit.CLUBS, Rank.SIX));
+
+		assertEquals(21, hand.getHandValue());
+		assertEquals(17, newHand.getHandValue());
+		assertTrue(newHand.isSoft());
+
+		hand.clear();
+		assertEquals(0, hand.getHandValue());
+		assertFalse(hand.isSoft());
+	}
+}
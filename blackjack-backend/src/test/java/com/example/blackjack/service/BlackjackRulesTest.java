@@ -0,0 +1,75 @@
+package com.example.blackjack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.model.PlayerAction;
+
+class BlackjackRulesTest {
+
+	private final RuleBook ruleBook = new RuleBook(List.of("standard", "six-five"), Map.of(
+			"blackjack.rules.profile.six-five.decks", "6",
+			"blackjack.rules.profile.six-five.dealer-hits-soft17", "true",
+			"blackjack.rules.profile.six-five.blackjack-pays", "6:5",
+			"blackjack.rules.profile.six-five.double-after-split", "false",
+			"blackjack.rules.profile.six-five.max-hands", "2",
+			"blackjack.rules.profile.six-five.hit-split-aces", "true",
+			"blackjack.rules.profile.six-five.surrender", "true")::get, "standard", "six-five");
+
+	@Test
+	void dealerDrawAndPayoutFollowTheProfile() {
+		BlackjackRules standard = ruleBook.game();
+		BlackjackRules sixFive = ruleBook.table();
+
+		assertFalse(standard.dealerMustHit(17, true));
+		assertTrue(sixFive.dealerMustHit(17, true));
+		assertFalse(sixFive.dealerMustHit(17, false));
+		assertTrue(sixFive.dealerMustHit(16, false));
+		assertFalse(sixFive.dealerMustHit(26, false));
+
+		assertEquals(2.5, standard.blackjackReturn(true, false));
+		assertEquals(2.2, sixFive.blackjackReturn(true, false));
+		assertEquals(1.0, sixFive.blackjackReturn(true, true));
+		assertEquals(0.0, sixFive.blackjackReturn(false, true));
+		assertEquals(6, sixFive.decks());
+	}
+
+	@Test
+	void actionTablesApplySplitAndSurrenderRules() {
+		BlackjackRules standard = ruleBook.game();
+		BlackjackRules sixFive = ruleBook.table();
+
+		int opening = sixFive.playerTurnActions(2, true, true, 1, false);
+		assertTrue(PlayerAction.SURRENDER.in(opening));
+		assertTrue(PlayerAction.SPLIT.in(opening));
+		assertFalse(PlayerAction.SURRENDER.in(standard.playerTurnActions(2, true, true, 1, false)));
+
+		// Không gấp đôi sau khi tách, không tách lại quá 2 tay, không đầu hàng sau khi tách
+		int afterSplit = sixFive.playerTurnActions(2, true, true, 2, false);
+		assertEquals(PlayerAction.mask(PlayerAction.HIT, PlayerAction.STAND), afterSplit);
+		int standardAfterSplit = standard.playerTurnActions(2, true, true, 2, false);
+		assertTrue(PlayerAction.DOUBLE_DOWN.in(standardAfterSplit));
+		assertTrue(PlayerAction.SPLIT.in(standardAfterSplit));
+
+		// Tách Át: standard chỉ được một lá, six-five được rút tiếp
+		assertEquals(0, standard.playerTurnActions(2, false, true, 2, true));
+		assertTrue(PlayerAction.HIT.in(sixFive.playerTurnActions(2, false, true, 2, true)));
+	}
+
+	@Test
+	void invalidProfilesAreRejected() {
+		assertThrows(NoSuchElementException.class, () -> ruleBook.require("vegas"));
+		assertThrows(IllegalArgumentException.class, () -> RuleProfile.from("bad",
+				Map.of("blackjack.rules.profile.bad.blackjack-pays", "3/2")::get));
+		assertThrows(IllegalArgumentException.class, () -> RuleProfile.from("bad",
+				Map.of("blackjack.rules.profile.bad.decks", "0")::get));
+	}
+}
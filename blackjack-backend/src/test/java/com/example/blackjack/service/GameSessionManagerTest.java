@@ -0,0 +1,167 @@
+package com.example.blackjack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.example.blackjack.advisor.DealerOutcomeEngine;
+import com.example.blackjack.advisor.StrategyAdvisor;
+import com.example.blackjack.dto.GameDelta;
+import com.example.blackjack.dto.GameUpdate;
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.dto.HandView;
+import com.example.blackjack.session.GameSessionStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GameSessionManagerTest {
+
+	private final ShoePool shoePool = new ShoePool(4, new SimpleMeterRegistry());
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private GameSessionStore store;
+	private GameSessionManager manager;
+	private long lastPlayerId;
+
+	@BeforeEach
+	void createManager(@TempDir Path spillDirectory) throws Exception {
+		store = new GameSessionStore(16, Duration.ofMinutes(5), spillDirectory.toString(),
+				new SimpleMeterRegistry());
+		GameMetrics metrics = new GameMetrics(meterRegistry);
+		manager = new GameSessionManager(new BlackjackService(shoePool, metrics), new SessionLocks(64), metrics,
+				new StrategyAdvisor(Duration.ofMillis(50), 1000, new DealerOutcomeEngine(1000), meterRegistry),
+				new GameChangeNotifier());
+	}
+
+	@AfterEach
+	void closePool() {
+		store.close();
+		shoePool.close();
+	}
+
+	private GameSlot newSession() {
+		return store.slot(new MockHttpSession().getId(), ++lastPlayerId);
+	}
+
+	@Test
+	void concurrentRequestsOnOneSessionAreAppliedOneAtATime() throws Exception {
+		GameSlot session = newSession();
+		manager.currentState(session);
+
+		// Đặt cược và dừng xen kẽ; lệnh nào không hợp lệ lúc chạy thì bị từ chối
+		List<Callable<Object>> requests = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			requests.add(i % 2 == 0 ? () -> manager.placeBet(session, 1.0) : () -> manager.stand(session, null, null));
+		}
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (var future : executor.invokeAll(requests)) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					assertEquals(ActionNotAllowedException.class, e.getCause().getClass());
+				}
+			}
+		}
+
+		// Không lần cập nhật nào bị mất: số dư khớp với tổng tiền đã cược và đã trả
+		GameView view = manager.currentState(session);
+		double outstanding = 0;
+		if (!view.roundOver()) {
+			for (HandView hand : view.playerHands()) {
+				outstanding += hand.betAmount();
+			}
+		}
+		double wagered = meterRegistry.counter("blackjack.wagered").count();
+		double returned = meterRegistry.counter("blackjack.returned").count();
+		assertEquals(1000 - wagered - outstanding + returned, view.playerBalance(), 1e-6);
+	}
+
+	@Test
+	void actionsThatAreNotOfferedAreRejected() {
+		GameSlot session = newSession();
+		manager.currentState(session);
+
+		assertThrows(ActionNotAllowedException.class, () -> manager.split(session, null, null));
+		assertThrows(ActionNotAllowedException.class, () -> manager.insurance(session, true, null));
+	}
+
+	@Test
+	void stateTagFollowsVersionAndWaitersSeeChanges() {
+		GameSlot session = newSession();
+		StateTag initial = manager.currentState(session, (tag, view) -> tag);
+		assertEquals(initial, manager.stateTag(session));
+
+		List<StateTag> seen = new ArrayList<>();
+		Runnable unsubscribe = manager.onChange(session, (tag, view) -> seen.add(tag));
+		GameView view = manager.placeBet(session, 10.0);
+		unsubscribe.run();
+		manager.currentState(session);
+
+		assertEquals(List.of(manager.stateTag(session)), seen);
+		assertEquals(view.version(), seen.get(0).version());
+		assertNotEquals(initial.etag(), seen.get(0).etag());
+	}
+
+	@Test
+	void clientsOnAnOlderVersionGetTheWholeState() {
+		GameSlot session = newSession();
+		GameView view = manager.placeBet(session, 10.0);
+		while (view.roundOver()) {
+			view = manager.placeBet(session, 10.0);
+		}
+
+		// Client lỡ một phiên bản: bản vá không áp được nên server gửi toàn bộ trạng thái
+		GameUpdate stale = manager.stand(session, null, view.version() - 1);
+		assertInstanceOf(GameView.class, stale);
+		assertEquals(manager.currentState(session), stale);
+
+		view = manager.placeBet(session, 10.0);
+		while (view.roundOver()) {
+			view = manager.placeBet(session, 10.0);
+		}
+		GameDelta delta = assertInstanceOf(GameDelta.class, manager.stand(session, null, view.version()));
+		assertEquals(view.version(), delta.baseVersion());
+		assertEquals(manager.stateTag(session).version(), delta.version());
+	}
+
+	@Test
+	void aReturningPlayerContinuesWithTheWalletBalance() {
+		GameSlot expired = newSession();
+		double balance = manager.placeBet(expired, 10.0).playerBalance();
+
+		// Phiên mới của cùng người chơi (cookie định danh) không nhận lại 1000 ban đầu
+		GameSlot returning = store.slot(new MockHttpSession().getId(), lastPlayerId);
+		assertEquals(balance, manager.currentState(returning).playerBalance(), 1e-9);
+	}
+
+	@Test
+	void sessionsEvictedFromMemoryAreRestoredFromDisk() {
+		List<GameSlot> sessions = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			GameSlot session = newSession();
+			manager.placeBet(session, 10.0);
+			sessions.add(session);
+		}
+
+		// Store chỉ giữ 16 game trong bộ nhớ, phần còn lại đã được ghi ra đĩa
+		for (GameSlot session : sessions) {
+			assertEquals(1, manager.currentState(session).version());
+		}
+	}
+
+}
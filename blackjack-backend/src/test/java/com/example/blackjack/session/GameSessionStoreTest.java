@@ -0,0 +1,73 @@
+package com.example.blackjack.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.blackjack.model.GameState;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GameSessionStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void startupOnlyDeletesSpilledSessions() throws Exception {
+		Files.writeString(directory.resolve("notes.txt"), "không phải của store");
+		Files.write(directory.resolve("old-session.bin"), new byte[] { 1 });
+
+		try (GameSessionStore store = new GameSessionStore(16, Duration.ofMinutes(5), directory.toString(),
+				new SimpleMeterRegistry())) {
+			assertTrue(Files.exists(directory.resolve("notes.txt")));
+			assertFalse(Files.exists(directory.resolve("old-session.bin")));
+		}
+	}
+
+	@Test
+	void evictedGamesSurviveAFailingDisk() throws Exception {
+		Path spill = directory.resolve("spill");
+		try (GameSessionStore store = new GameSessionStore(1, Duration.ofMinutes(5), spill.toString(),
+				new SimpleMeterRegistry())) {
+			// Thư mục biến mất: mọi lần ghi ra đĩa đều lỗi
+			Files.delete(spill);
+
+			// Cache chỉ giữ một game mỗi segment nên hầu hết các game bị đẩy ra
+			for (int i = 0; i < 500; i++) {
+				store.save("s" + i, game(i));
+			}
+			for (int i = 0; i < 500; i++) {
+				assertEquals(i, store.load("s" + i).getPlayerId());
+			}
+		}
+	}
+
+	@Test
+	void evictedGamesAreRestoredWhetherOrNotTheyReachedTheDisk() throws Exception {
+		try (GameSessionStore store = new GameSessionStore(1, Duration.ofMinutes(5), directory.toString(),
+				new SimpleMeterRegistry())) {
+			for (int round = 0; round < 3; round++) {
+				for (int i = 0; i < 500; i++) {
+					store.save("s" + i, game(i * 10 + round));
+				}
+				for (int i = 0; i < 500; i++) {
+					assertEquals(i * 10 + round, store.load("s" + i).getPlayerId());
+				}
+			}
+		}
+	}
+
+	private static GameState game(long playerId) {
+		GameState gameState = new GameState();
+		gameState.setPlayerId(playerId);
+		return gameState;
+	}
+}
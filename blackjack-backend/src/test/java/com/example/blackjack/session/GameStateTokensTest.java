@@ -0,0 +1,146 @@
+package com.example.blackjack.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.GameSlot;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.wallet.Wallet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GameStateTokensTest {
+
+	private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private final ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+
+	@AfterEach
+	void closePool() {
+		shoePool.close();
+	}
+
+	@Test
+	void aTokenRestoresTheGameAndTheRestOfTheShoe() throws Exception {
+		GameStateTokens tokens = new GameStateTokens(KEY, 16);
+		BlackjackService service = new BlackjackService(shoePool, GameEventListener.NONE);
+		GameState state = service.placeBet(service.startGame(), 2500);
+		state.bumpVersion();
+
+		String token = tokens.encode(state, 1);
+		assertTrue(token.length() < 120, token);
+
+		GameState restored = tokens.decode(token);
+		assertEquals(state.getPlayerId(), restored.getPlayerId());
+		assertEquals(state.getDeck().composition(), restored.getDeck().composition());
+		assertEquals(state.getDeck().seed(), restored.getDeck().seed());
+		assertEquals(state.getDeck().deal(), restored.getDeck().deal());
+		assertEquals(GameView.from(state).playerHands(), GameView.from(restored).playerHands());
+		assertEquals(GameView.from(state).availableActions(), GameView.from(restored).availableActions());
+		assertEquals(state.getPlayerBalance(), restored.getPlayerBalance());
+	}
+
+	@Test
+	void tamperedOrForeignTokensAreRejected() throws Exception {
+		GameStateTokens tokens = new GameStateTokens(KEY, 16);
+		BlackjackService service = new BlackjackService(shoePool, GameEventListener.NONE);
+		String token = tokens.encode(service.placeBet(service.startGame(), 1000), 1);
+
+		char[] chars = token.toCharArray();
+		chars[12] = chars[12] == 'A' ? 'B' : 'A';
+		assertThrows(InvalidStateTokenException.class, () -> tokens.decode(new String(chars)));
+		assertThrows(InvalidStateTokenException.class, () -> new GameStateTokens("", 16).decode(token));
+	}
+
+	@Test
+	void replayingAnOlderTokenIsRejected() throws Exception {
+		Wallet wallet = Wallet.inMemory();
+		GameStateTokens tokens = new GameStateTokens(KEY, 16, BlackjackRules.STANDARD.decks(), wallet);
+		BlackjackService service = new BlackjackService(BlackjackRules.STANDARD, shoePool, GameEventListener.NONE, wallet);
+		List<String> issued = new ArrayList<>();
+
+		GameSlot first = tokens.slot(null, 7, issued::add);
+		first.save(service.placeBet(service.startGame(first.playerId()), 1000));
+		String beforeSettlement = issued.get(0);
+
+		// Dừng mọi tay bài cho đến khi ván được thanh toán, mỗi bước dùng token mới nhất
+		while (true) {
+			GameSlot slot = tokens.slot(issued.get(issued.size() - 1), 7, issued::add);
+			GameState state = slot.load();
+			if (state.isRoundOver() && issued.size() > 1) {
+				break;
+			}
+			if (state.isRoundOver()) {
+				// Ván đã thanh toán ngay khi chia (blackjack): chơi thêm một ván để token đầu không còn là mới nhất
+				slot.save(service.placeBet(state, 1000));
+				continue;
+			}
+			slot.save(PlayerAction.NO_INSURANCE.in(state.getActionMask())
+					? service.resolveInsurance(state, false) : service.playerStand(state, firstPlaying(state)));
+		}
+		long settled = wallet.balance(7);
+
+		// Token trước khi thanh toán có chữ ký đúng nhưng không còn là token mới nhất
+		assertEquals(7, tokens.decode(beforeSettlement).getPlayerId());
+		assertThrows(InvalidStateTokenException.class, () -> tokens.slot(beforeSettlement, 7, issued::add).load());
+		assertEquals(settled, wallet.balance(7));
+	}
+
+	@Test
+	void aTokenSentToTwoNodesChangesTheGameOnlyOnce() throws Exception {
+		// Hai node dùng chung khóa token và chung ví (node giữ sổ), không chung khóa phiên hay bộ nhớ
+		Wallet wallet = Wallet.inMemory();
+		GameStateTokens nodeA = new GameStateTokens(KEY, 16, BlackjackRules.STANDARD.decks(), wallet);
+		GameStateTokens nodeB = new GameStateTokens(KEY, 16, BlackjackRules.STANDARD.decks(), wallet);
+		BlackjackService service = new BlackjackService(BlackjackRules.STANDARD, shoePool, GameEventListener.NONE, wallet);
+		List<String> issued = new ArrayList<>();
+
+		GameSlot first = nodeA.slot(null, 7, issued::add);
+		GameState started = service.startGame(first.playerId());
+		first.save(started);
+		String token = issued.get(0);
+
+		// Cả hai node đều đọc được token, chỉ node giành trước được sửa game
+		GameSlot onA = nodeA.slot(token, 7, issued::add);
+		GameSlot onB = nodeB.slot(token, 7, issued::add);
+		GameState stateA = onA.load();
+		onB.load();
+		onA.claim();
+		onA.save(service.placeBet(stateA, 1000));
+		long afterBet = wallet.balance(7);
+
+		assertThrows(InvalidStateTokenException.class, onB::claim);
+		assertThrows(InvalidStateTokenException.class, () -> onB.save(service.startGame(7)));
+		assertEquals(afterBet, wallet.balance(7));
+
+		// Token mới của node A dùng được trên node B
+		GameState latest = nodeB.slot(issued.get(issued.size() - 1), 7, issued::add).load();
+		assertEquals(1, latest.getPlayerHands().size());
+	}
+
+	private static int firstPlaying(GameState state) {
+		List<Hand> hands = state.getPlayerHands();
+		for (int i = 0; i < hands.size(); i++) {
+			if (hands.get(i).getStatus() == HandStatus.PLAYING) {
+				return i;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.blackjack.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationEngineTest {
+
+	@Test
+	void sameSeedGivesSameResultRegardlessOfParallelism() {
+		long rounds = 3 * SimulationEngine.ROUNDS_PER_LANE + 12345;
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			SimulationResult a = new SimulationEngine(single).run(rounds, 99L, BasicStrategyPolicy.INSTANCE);
+			SimulationResult b = new SimulationEngine().run(rounds, 99L, BasicStrategyPolicy.INSTANCE);
+
+			assertEquals(a.expectedValue(), b.expectedValue());
+			assertEquals(a.variance(), b.variance());
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	@Test
+	void basicStrategyHouseEdgeIsInExpectedRange() {
+		SimulationResult result = new SimulationEngine().run(2_000_000, 1L, BasicStrategyPolicy.INSTANCE);
+
+		// 8 bộ bài, S17, DAS: lợi thế nhà cái khoảng 0.4-0.6%
+		assertTrue(result.houseEdge() > 0.0 && result.houseEdge() < 0.012, result.toString());
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.example.blackjack.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.blackjack.dto.PlayerStatsView;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.model.RoundEvent;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.wallet.Money;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PlayerStatsTrackerTest {
+
+	private final ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+	private final PlayerStatsTracker tracker = new PlayerStatsTracker(5, Duration.ofHours(1), Duration.ofDays(30),
+			new SimpleMeterRegistry());
+
+	@AfterEach
+	void close() {
+		tracker.close();
+		shoePool.close();
+	}
+
+	@Test
+	void statsFollowTheWalletThroughRealRounds() {
+		BlackjackService service = new BlackjackService(shoePool, tracker);
+		GameState state = service.startGame();
+		for (int i = 0; i < 200; i++) {
+			state = service.placeBet(state, 1000);
+			if (state.allows(PlayerAction.BUY_INSURANCE)) {
+				state = service.resolveInsurance(state, i % 2 == 0);
+			}
+			while (!state.isRoundOver()) {
+				int hand = 0;
+				while (state.getPlayerHands().get(hand).getStatus() != HandStatus.PLAYING) {
+					hand++;
+				}
+				state = state.getPlayerHands().get(hand).getHandValue() < 17
+						? service.playerHit(state, hand)
+						: service.playerStand(state, hand);
+			}
+		}
+
+		PlayerStatsView stats = tracker.view(state.getPlayerId());
+		assertEquals(200, stats.roundsPlayed());
+		assertEquals(Money.toMajor(state.getPlayerBalance() - 100_000), stats.netWon(), 1e-9);
+		assertEquals(200, stats.wins() + stats.losses() + stats.pushes());
+	}
+
+	@Test
+	void incrementalLeaderboardMatchesAFullSort() {
+		SplittableRandom random = new SplittableRandom(7);
+		Map<Long, Long> nets = new HashMap<>();
+		for (int publish = 0; publish < 300; publish++) {
+			// Mỗi chu kỳ vài người chơi thắng hoặc thua, kể cả người đang dẫn đầu
+			for (int i = 0; i < 20; i++) {
+				long playerId = random.nextLong(500);
+				long bet = 100 * (1 + random.nextInt(50));
+				long returned = bet * random.nextInt(3);
+				settle(playerId, bet, returned);
+				nets.merge(playerId, returned - bet, Long::sum);
+			}
+			tracker.publish();
+
+			List<Long> expected = nets.entrySet().stream()
+					.sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+							.thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+					.limit(5)
+					.map(Map.Entry::getKey)
+					.toList();
+			List<Long> actual = tracker.leaderboard().top().stream().map(PlayerStatsView::playerId).toList();
+			assertEquals(expected, actual, "publish " + publish);
+		}
+	}
+
+	@Test
+	void idlePlayersLeaveTheStatsAndTheLeaderboard() {
+		settle(1, 1000, 2000);
+		settle(2, 1000, 0);
+		tracker.publish();
+		assertEquals(2, tracker.leaderboard().top().size());
+
+		int today = (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+		assertEquals(0, tracker.expireIdle(today + 30));
+		assertEquals(2, tracker.expireIdle(today + 31));
+		tracker.publish();
+		assertTrue(tracker.leaderboard().top().isEmpty());
+		assertEquals(0, tracker.view(1).netWon());
+
+		// Quay lại thì bắt đầu thống kê mới và có mặt lại trên bảng xếp hạng
+		settle(2, 1000, 2000);
+		tracker.publish();
+		assertEquals(List.of(2L), tracker.leaderboard().top().stream().map(PlayerStatsView::playerId).toList());
+	}
+
+	private void settle(long playerId, long bet, long returned) {
+		GameState state = new GameState();
+		state.setPlayerId(playerId);
+		Hand hand = new Hand();
+		hand.setBetAmount(bet);
+		state.getPlayerHands().add(hand);
+		tracker.roundEvent(state, RoundEvent.SETTLE, 0, -1, returned);
+	}
+}
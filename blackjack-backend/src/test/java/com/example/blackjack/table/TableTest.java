@@ -0,0 +1,161 @@
+package com.example.blackjack.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.example.blackjack.dto.TableSummary;
+import com.example.blackjack.dto.TableView;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.service.BlackjackRules;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.RuleBook;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.service.ShoeSource;
+import com.example.blackjack.wallet.Wallet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpSessionEvent;
+
+class TableTest {
+
+	private final Wallet wallet = Wallet.inMemory();
+	// Hẹn giờ giả: chỉ chạy khi test gọi fire()
+	private final List<Runnable> timers = new ArrayList<>();
+
+	private Table newTable(ShoeSource shoes) {
+		return new Table("t", BlackjackRules.STANDARD, shoes, GameEventListener.NONE, wallet, (delay, task) -> {
+			timers.add(task);
+			return () -> timers.remove(task);
+		}, Duration.ofSeconds(30), Duration.ofSeconds(20));
+	}
+
+	private void fire() {
+		assertEquals(1, timers.size());
+		timers.remove(0).run();
+	}
+
+	@Test
+	void leavingBeforeTheDealRefundsTheBetAndRejoiningKeepsTheWallet() {
+		Table table = newTable(ShoeSource.shuffling(8));
+		wallet.open(1, 20_000);
+		table.join("a", 1);
+		table.join("b", 2);
+
+		table.bet("a", 5_000);
+		assertEquals(150.0, table.view("a").seats().get(0).balance());
+		table.leave("a");
+		assertEquals(20_000, wallet.balance(1));
+		assertTrue(timers.isEmpty());
+
+		// Ngồi lại không được cấp lại 1000, số dư vẫn là của ví
+		table.join("a", 1);
+		assertEquals(200.0, table.view("a").seats().get(0).balance());
+	}
+
+	@Test
+	void playersOnlySeeTheirOwnBalance() {
+		Table table = newTable(ShoeSource.shuffling(8));
+		table.join("a", 1);
+		table.join("b", 2);
+
+		TableView seenByA = table.view("a");
+		assertEquals(1000.0, seenByA.seats().get(0).balance());
+		assertNull(seenByA.seats().get(1).balance());
+		assertNull(table.view("spectator").seats().get(0).balance());
+	}
+
+	@Test
+	void timeoutsKeepTheTableMovingWithoutIdlePlayers() {
+		Table table = newTable(() -> Deck.fromSeed(8, plainRoundSeed(), 8 * 52));
+		table.join("a", 1);
+		table.join("b", 2);
+		table.bet("a", 1_000);
+		assertEquals("BETTING", table.view("a").phase());
+
+		// b không cược: hết giờ thì ván bắt đầu chỉ với a
+		fire();
+		TableView started = table.view("a");
+		assertEquals("PLAYER_TURNS", started.phase());
+		assertEquals(0, started.activeSeat());
+		assertTrue(started.seats().get(1).hands().isEmpty());
+
+		// a không hành động: hết giờ thì tay bài tự dừng, nhà cái chơi và ván kết thúc
+		fire();
+		TableView finished = table.view("a");
+		assertTrue(finished.roundOver());
+		assertEquals(HandStatus.STOOD, finished.seats().get(0).hands().get(0).status());
+		assertTrue(timers.isEmpty());
+	}
+
+	@Test
+	void anExpiredSessionFreesItsSeat() {
+		RuleBook ruleBook = new RuleBook(List.of("standard"), Map.<String, String>of()::get, "standard", "standard");
+		try (ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+				TableService tables = new TableService(shoePool, ruleBook, GameEventListener.NONE, wallet,
+						Duration.ofSeconds(30), Duration.ofSeconds(20))) {
+			String id = tables.create("s1", 1, null).id();
+			tables.join(id, "s2", 2);
+
+			new TableSessionCleanup(tables).sessionDestroyed(new HttpSessionEvent(new MockHttpSession(null, "s1")));
+			assertNull(tables.view(id, "s1").yourSeat());
+			// Người còn lại không phải chờ ghế đã bỏ đi: ván được chia ngay khi s2 cược
+			assertEquals(1, tables.bet(id, "s2", 10.0).seats().get(1).hands().size());
+		}
+	}
+
+	@Test
+	void listingReadsTheSnapshotEachTablePublishes() {
+		RuleBook ruleBook = new RuleBook(List.of("standard"), Map.<String, String>of()::get, "standard", "standard");
+		try (ShoePool shoePool = new ShoePool(2, new SimpleMeterRegistry());
+				TableService tables = new TableService(shoePool, ruleBook, GameEventListener.NONE, wallet,
+						Duration.ofSeconds(30), Duration.ofSeconds(20))) {
+			String id = tables.create("s1", 1, null).id();
+			tables.join(id, "s2", 2);
+
+			TableSummary summary = tables.list("s1").get(0);
+			assertEquals(id, summary.id());
+			assertEquals(2, summary.players());
+			assertEquals("BETTING", summary.phase());
+			assertTrue(summary.seated());
+			assertFalse(tables.list("s3").get(0).seated());
+
+			// Ván được chia ngay khi cả hai đã cược, danh sách thấy giai đoạn mới mà không hỏi event loop
+			tables.bet(id, "s1", 10.0);
+			TableView dealt = tables.bet(id, "s2", 10.0);
+			assertEquals(dealt.phase(), tables.list("s3").get(0).phase());
+
+			tables.leave(id, "s1");
+			tables.leave(id, "s2");
+			assertTrue(tables.list("s1").isEmpty());
+		}
+	}
+
+	// Seed có ván đầu không có Át ngửa và không ai có Blackjack, nên ván đi thẳng vào lượt người chơi
+	private static long plainRoundSeed() {
+		for (long seed = 1; ; seed++) {
+			Deck deck = Deck.fromSeed(8, seed, 8 * 52);
+			Hand player = new Hand();
+			Hand dealer = new Hand();
+			player.addCard(deck.deal());
+			dealer.addCard(deck.deal());
+			player.addCard(deck.deal());
+			dealer.addCard(deck.deal());
+			if (dealer.getCards().get(0).getRank() != Rank.ACE && !dealer.isBlackjack() && !player.isBlackjack()) {
+				return seed;
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.blackjack.wallet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+// Node giữ sổ thật trên cổng ngẫu nhiên; RemoteWallet đóng vai một node khác
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"blackjack.wallet.secret=test-secret",
+		"blackjack.wallet.dir=target/wallet-authority-test",
+		"blackjack.journal.dir=target/wallet-authority-test/journal" })
+class RemoteWalletTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private Wallet ledger;
+
+	private final long playerId = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+
+	private Wallet remote(String secret) {
+		return new RemoteWallet("http://localhost:" + port + "/", secret, Duration.ofSeconds(5));
+	}
+
+	@Test
+	void everyNodeSeesTheAuthoritysBalance() {
+		Wallet node = remote("test-secret");
+		assertEquals(5000, node.open(playerId, 5000));
+		// Mở lại (ví dụ game mới trên node khác) không đặt lại số dư
+		assertEquals(5000, node.open(playerId, 100_000));
+
+		assertTrue(node.debit(playerId, 3000));
+		assertFalse(node.debit(playerId, 3000));
+		assertEquals(2500, node.credit(playerId, 500));
+		assertEquals(2500, node.balance(playerId));
+		assertEquals(2500, ledger.balance(playerId));
+		assertEquals(2500, remote("test-secret").balance(playerId));
+	}
+
+	@Test
+	void onlyOneNodeSwapsAStateStamp() {
+		Wallet nodeA = remote("test-secret");
+		Wallet nodeB = remote("test-secret");
+		nodeA.open(playerId, 5000);
+		nodeA.setStateStamp(playerId, 11);
+
+		assertTrue(nodeA.compareAndSetStateStamp(playerId, 11, 12));
+		assertFalse(nodeB.compareAndSetStateStamp(playerId, 11, 13));
+		assertEquals(12, nodeB.stateStamp(playerId));
+		assertEquals(12, ledger.stateStamp(playerId));
+	}
+
+	@Test
+	void rejectsWrongSecretAndUnknownAccounts() {
+		remote("test-secret").open(playerId, 5000);
+
+		assertThrows(IllegalStateException.class, () -> remote("wrong").debit(playerId, 100));
+		assertEquals(5000, ledger.balance(playerId));
+
+		// Tài khoản chưa mở không được dựng lại từ số dư của node gọi
+		assertThrows(IllegalStateException.class, () -> remote("test-secret").debit(playerId + 1, 100));
+		assertThrows(IllegalArgumentException.class, () -> remote("test-secret").credit(playerId, -1));
+	}
+}
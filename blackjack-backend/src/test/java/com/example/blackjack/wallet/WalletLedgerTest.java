@@ -0,0 +1,108 @@
+package com.example.blackjack.wallet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletLedgerTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void concurrentDebitsNeverOverdrawTheAccount() throws Exception {
+		Wallet wallet = Wallet.inMemory();
+		wallet.open(1, 10_000);
+
+		// 8 luồng cùng trừ 3 xu 1000 lần: chỉ đúng 3333 lần thành công
+		List<Callable<Integer>> spenders = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			spenders.add(() -> {
+				int debited = 0;
+				for (int i = 0; i < 1000; i++) {
+					debited += wallet.debit(1, 3) ? 1 : 0;
+				}
+				return debited;
+			});
+		}
+		int debited = 0;
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (Future<Integer> future : executor.invokeAll(spenders)) {
+				debited += future.get();
+			}
+		}
+		assertEquals(3333, debited);
+		assertEquals(1, wallet.balance(1));
+		assertThrows(IllegalStateException.class, () -> wallet.debit(2, 1));
+	}
+
+	@Test
+	void balancesSurviveARestartAndATornTail() throws Exception {
+		try (WalletLedger wallet = open()) {
+			wallet.open(1, 100_000);
+			wallet.open(2, 500);
+			for (int i = 0; i < 100; i++) {
+				wallet.debit(1, 1000);
+				wallet.credit(1, 2500);
+			}
+			wallet.flush();
+			wallet.credit(2, 1);
+		}
+
+		// Bản ghi ghi dở khi máy sập: bị bỏ qua, các bản ghi trước vẫn dùng được
+		try (FileChannel log = FileChannel.open(directory.resolve(WalletStore.FILE_NAME), StandardOpenOption.APPEND)) {
+			log.write(ByteBuffer.wrap(new byte[WalletStore.RECORD_SIZE / 2]));
+		}
+
+		try (WalletLedger wallet = open()) {
+			assertEquals(250_000, wallet.balance(1));
+			assertEquals(501, wallet.balance(2));
+			assertEquals(501, wallet.open(2, 100_000));
+		}
+	}
+
+	@Test
+	void untouchedAndIdleAccountsAreNotKept() throws Exception {
+		int today = (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+		try (WalletLedger wallet = open()) {
+			wallet.open(1, 100_000);
+			wallet.open(2, 100_000);
+			wallet.debit(2, 500);
+			wallet.flush();
+			// Tài khoản mới còn nguyên số dư ban đầu không được ghi
+			assertEquals(WalletStore.RECORD_SIZE, Files.size(directory.resolve(WalletStore.FILE_NAME)));
+
+			assertEquals(0, wallet.expireIdle(today + 30));
+			assertEquals(2, wallet.expireIdle(today + 91));
+			assertThrows(IllegalStateException.class, () -> wallet.balance(2));
+		}
+
+		// Bản ghi xóa thắng bản ghi số dư trước đó: người chơi quay lại sau khi hết hạn bắt đầu lại từ đầu
+		try (WalletLedger wallet = open()) {
+			assertThrows(IllegalStateException.class, () -> wallet.balance(2));
+			assertEquals(100_000, wallet.open(2, 100_000));
+		}
+	}
+
+	private WalletLedger open() throws Exception {
+		return new WalletLedger(directory, Duration.ofHours(1), Duration.ofDays(90), new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.blackjack.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Chạy toàn bộ benchmark kèm GC profiler để mỗi kết quả có cả throughput lẫn tốc độ cấp phát
+ * ({@code gc.alloc.rate.norm}). Các tham số dòng lệnh của JMH vẫn dùng được, ví dụ:
+ * <pre>
+ * mvn -B package -pl blackjack-benchmarks -am -DskipTests
+ * java -jar blackjack-benchmarks/target/benchmarks.jar DeckBenchmark -f 1 -wi 3 -i 5
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        try {
+            Options commandLine = new CommandLineOptions(args);
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        } catch (org.openjdk.jmh.runner.options.CommandLineOptionException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
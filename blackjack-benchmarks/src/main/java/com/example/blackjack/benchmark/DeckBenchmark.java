@@ -0,0 +1,57 @@
+package com.example.blackjack.benchmark;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Deck;
+import com.example.blackjack.service.BlackjackRules;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    private final SplittableRandom rng = new SplittableRandom(42);
+    private Deck shoe;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        shoe = new Deck(BlackjackRules.STANDARD.decks());
+    }
+
+    @Benchmark
+    public Deck construct() {
+        return new Deck(BlackjackRules.STANDARD.decks());
+    }
+
+    @Benchmark
+    public Deck constructAndShuffle() {
+        Deck deck = new Deck(BlackjackRules.STANDARD.decks());
+        deck.shuffle();
+        return deck;
+    }
+
+    // Cách placeBet xáo lại shoe đã có
+    @Benchmark
+    public Deck resetAndShuffle() {
+        shoe.reset();
+        shoe.shuffle(rng);
+        return shoe;
+    }
+
+    @Benchmark
+    public void dealUntilReshuffle(Blackhole bh) {
+        shoe.reset();
+        while (!BlackjackRules.STANDARD.needsReshuffle(shoe.size())) {
+            Card card = shoe.deal();
+            bh.consume(card);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.blackjack.benchmark;
+
+import com.example.blackjack.model.Card;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.model.Suit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+
+    private Hand twoCards;
+    private Hand softMultiCard;
+
+    @Setup
+    public void setUp() {
+        twoCards = hand(Rank.KING, Rank.SEVEN);
+        // A + A + 2 + 3 + 4: hai Át, cần điều chỉnh giá trị Át
+        softMultiCard = hand(Rank.ACE, Rank.ACE, Rank.TWO, Rank.THREE, Rank.FOUR);
+    }
+
+    @Benchmark
+    public int handValueTwoCards() {
+        return twoCards.getHandValue();
+    }
+
+    @Benchmark
+    public int handValueSoftMultiCard() {
+        return softMultiCard.getHandValue();
+    }
+
+    @Benchmark
+    public boolean isBlackjack() {
+        return twoCards.isBlackjack();
+    }
+
+    private static Hand hand(Rank... ranks) {
+        Hand hand = new Hand();
+        for (Rank rank : ranks) {
+            hand.addCard(Card.of(Suit.SPADES, rank));
+        }
+        return hand;
+    }
+}
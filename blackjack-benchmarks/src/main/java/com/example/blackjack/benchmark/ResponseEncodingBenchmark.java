@@ -0,0 +1,85 @@
+package com.example.blackjack.benchmark;
+
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.ShoePool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mã hóa phản hồi {@link GameView} giữa một ván theo từng định dạng mà controller thương lượng qua {@code Accept}:
+ * JSON như hiện nay (ObjectMapper, tra serializer mỗi lần) và JSON/CBOR/Smile với ObjectWriter dựng sẵn như
+ * {@code BinaryJacksonHttpMessageConverter}. Số byte trên đường truyền của mỗi định dạng được in khi khởi tạo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+    private GameView view;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (ShoePool shoePool = new ShoePool(1, new SimpleMeterRegistry())) {
+            BlackjackService service = new BlackjackService(shoePool, GameEventListener.NONE);
+            view = GameView.from(service.placeBet(service.startGame(), 1000));
+        }
+        mapper = switch (format) {
+            case "cbor" -> jsonMapper.copyWith(new CBORFactory());
+            case "smile" -> jsonMapper.copyWith(new SmileFactory());
+            default -> jsonMapper;
+        };
+        writer = mapper.writerFor(GameView.class);
+        System.out.printf("%n%s: GameView %d bytes (JSON %d bytes)%n", format, writer.writeValueAsBytes(view).length,
+                jsonMapper.writeValueAsBytes(view).length);
+    }
+
+    // Đường hiện tại của JSON: ObjectMapper tra serializer gốc theo kiểu ở mỗi lần ghi
+    @Benchmark
+    public byte[] mapperWrite() throws IOException {
+        return mapper.writeValueAsBytes(view);
+    }
+
+    @Benchmark
+    public byte[] cachedWriterWrite() throws IOException {
+        return writer.writeValueAsBytes(view);
+    }
+
+    // Gồm cả dựng GameView từ GameState như mỗi request
+    @Benchmark
+    public byte[] viewAndWrite(GameStateHolder holder) throws IOException {
+        return writer.writeValueAsBytes(GameView.from(holder.state));
+    }
+
+    @State(Scope.Thread)
+    public static class GameStateHolder {
+        GameState state;
+
+        @Setup
+        public void setUp() {
+            try (ShoePool shoePool = new ShoePool(1, new SimpleMeterRegistry())) {
+                BlackjackService service = new BlackjackService(shoePool, GameEventListener.NONE);
+                state = service.placeBet(service.startGame(), 1000);
+            }
+        }
+    }
+}
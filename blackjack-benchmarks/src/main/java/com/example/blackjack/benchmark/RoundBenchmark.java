@@ -0,0 +1,78 @@
+package com.example.blackjack.benchmark;
+
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.model.Hand;
+import com.example.blackjack.model.HandStatus;
+import com.example.blackjack.model.PlayerAction;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.wallet.Wallet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Một ván đầy đủ qua {@link BlackjackService}: placeBet → (bảo hiểm) → playerHit/playerStand → dealerTurn.
+ * Người chơi rút đến 17 rồi dừng.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundBenchmark {
+
+    private ShoePool shoePool;
+    private BlackjackService service;
+    private Wallet wallet;
+    private GameState gameState;
+
+    @Setup
+    public void setUp() {
+        shoePool = new ShoePool(16, new SimpleMeterRegistry());
+        wallet = Wallet.inMemory();
+        service = new BlackjackService(shoePool, GameEventListener.NONE, wallet);
+        gameState = service.startGame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        shoePool.close();
+    }
+
+    @Benchmark
+    public GameState fullRound() {
+        // Nạp lại ví về 1000.00 để số dư không cạn dần qua các vòng đo
+        long balance = wallet.balance(gameState.getPlayerId());
+        if (balance < 100_000) {
+            wallet.credit(gameState.getPlayerId(), 100_000 - balance);
+        }
+        GameState state = service.placeBet(gameState, 1000);
+        if (state.allows(PlayerAction.BUY_INSURANCE)) {
+            state = service.resolveInsurance(state, false);
+        }
+        while (!state.isRoundOver()) {
+            int handIndex = activeHand(state.getPlayerHands());
+            if (state.getPlayerHands().get(handIndex).getHandValue() < 17) {
+                state = service.playerHit(state, handIndex);
+            } else {
+                state = service.playerStand(state, handIndex);
+            }
+        }
+        return state;
+    }
+
+    private static int activeHand(List<Hand> hands) {
+        for (int i = 0; i < hands.size(); i++) {
+            if (hands.get(i).getStatus() == HandStatus.PLAYING) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No hand is being played but the round is not over");
+    }
+}
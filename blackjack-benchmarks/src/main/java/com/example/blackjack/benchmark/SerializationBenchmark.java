@@ -0,0 +1,88 @@
+package com.example.blackjack.benchmark;
+
+import com.example.blackjack.dto.GameView;
+import com.example.blackjack.model.GameState;
+import com.example.blackjack.service.BlackjackService;
+import com.example.blackjack.service.GameEventListener;
+import com.example.blackjack.service.ShoePool;
+import com.example.blackjack.session.GameStateTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí tuần tự hóa {@link GameState} giữa một ván: Jackson cho cả GameState lẫn {@link GameView}
+ * mà controller trả về, Java serialization như session store của Tomcat lưu/nạp {@code HttpSession},
+ * và token đã ký của chế độ không session ({@link GameStateTokens}, mục tiêu mã hóa + kiểm tra dưới 10µs).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameState gameState;
+    private byte[] javaSerialized;
+    private GameStateTokens tokens;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException, GeneralSecurityException {
+        try (ShoePool shoePool = new ShoePool(1, new SimpleMeterRegistry())) {
+            BlackjackService service = new BlackjackService(shoePool, GameEventListener.NONE);
+            gameState = service.placeBet(service.startGame(), 1000);
+        }
+        javaSerialized = javaSerialize();
+        tokens = new GameStateTokens(Base64.getEncoder().encodeToString(new byte[32]), 1024);
+        token = tokens.encode(gameState, 1);
+    }
+
+    @Benchmark
+    public byte[] jacksonWrite() throws IOException {
+        return objectMapper.writeValueAsBytes(gameState);
+    }
+
+    @Benchmark
+    public byte[] jacksonWriteView() throws IOException {
+        return objectMapper.writeValueAsBytes(GameView.from(gameState));
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(gameState);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaSerialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public String stateTokenEncode() {
+        return tokens.encode(gameState, 1);
+    }
+
+    @Benchmark
+    public GameState stateTokenDecode() {
+        return tokens.decode(token);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.blackjack.benchmark.load;
+
+import com.example.blackjack.model.Rank;
+import com.example.blackjack.simulation.BasicStrategyPolicy;
+import com.example.blackjack.simulation.PlayerPolicy.Decision;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Một người chơi ảo: giữ cookie phiên (và token {@code X-Game-State} nếu server chạy ở chế độ token),
+ * chơi liên tục các ván đầy đủ qua REST API theo {@link BasicStrategyPolicy}, không mua bảo hiểm.
+ * Mỗi request được đo từ lúc gửi đến lúc đọc xong phản hồi; request lỗi được đếm rồi đồng bộ lại qua /state.
+ * Bị từ chối bằng 429 thì chờ đúng {@code Retry-After} như một client thật trước khi gửi tiếp.
+ */
+final class BotClient {
+
+    private static final String STATE_HEADER = "X-Game-State";
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final Rank[] RANKS = Rank.values();
+    private static final long ERROR_BACKOFF_MILLIS = 10;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final EnumMap<Endpoint, EndpointStats> stats;
+    private final LongAdder rounds;
+    private final double bet;
+    private final long thinkMillis;
+
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private String stateToken;
+    // Thời gian chờ trước request tiếp theo sau lỗi: Retry-After của lần bị từ chối gần nhất, nếu có
+    private long backoffMillis = ERROR_BACKOFF_MILLIS;
+
+    BotClient(HttpClient http, String baseUrl, ObjectMapper mapper, EnumMap<Endpoint, EndpointStats> stats,
+              LongAdder rounds, double bet, long thinkMillis) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+        this.stats = stats;
+        this.rounds = rounds;
+        this.bet = bet;
+        this.thinkMillis = thinkMillis;
+    }
+
+    // Chơi đến khi running trả về false hoặc không còn đủ tiền để cược
+    void play(BooleanSupplier running) throws InterruptedException {
+        JsonNode state = null;
+        while (running.getAsBoolean()) {
+            if (state == null) {
+                state = call(Endpoint.STATE, "");
+                if (state == null) {
+                    backOff();
+                }
+                continue;
+            }
+            if (has(state.path("availableActions"), "PLACE_BET") && state.path("playerBalance").asDouble() < bet) {
+                return;
+            }
+            JsonNode next = step(state);
+            if (next == null) {
+                backOff();
+            } else if (next.path("roundOver").asBoolean() && !state.path("roundOver").asBoolean()) {
+                rounds.increment();
+            }
+            state = next;
+            if (thinkMillis > 0) {
+                Thread.sleep(thinkMillis);
+            }
+        }
+    }
+
+    // Gửi hành động tiếp theo cho trạng thái hiện tại; null nếu request lỗi
+    private JsonNode step(JsonNode state) throws InterruptedException {
+        JsonNode actions = state.path("availableActions");
+        if (has(actions, "PLACE_BET")) {
+            JsonNode next = call(Endpoint.BET, "amount=" + bet);
+            // Ván kết thúc ngay khi chia (Blackjack): không có lần chuyển roundOver false -> true
+            if (next != null && next.path("roundOver").asBoolean()) {
+                rounds.increment();
+            }
+            return next;
+        }
+        if (has(actions, "NO_INSURANCE")) {
+            return call(Endpoint.INSURANCE, "buy=false");
+        }
+
+        JsonNode hands = state.path("playerHands");
+        int handIndex = 0;
+        while (handIndex < hands.size() && !"PLAYING".equals(hands.get(handIndex).path("status").asText())) {
+            handIndex++;
+        }
+        if (handIndex == hands.size()) {
+            // Trạng thái không còn tay nào đang chơi mà cũng không cược được: tải lại
+            return call(Endpoint.STATE, "");
+        }
+
+        Decision decision = decide(hands.get(handIndex), state.path("dealerHand").path("cards").get(0).asText(),
+                has(actions, "DOUBLE_DOWN"), has(actions, "SPLIT"), has(actions, "SURRENDER"));
+        String query = "handIndex=" + handIndex;
+        return switch (decision) {
+            case HIT -> call(Endpoint.HIT, query);
+            case STAND -> call(Endpoint.STAND, query);
+            case DOUBLE_DOWN -> call(Endpoint.DOUBLE, query);
+            case SPLIT -> call(Endpoint.SPLIT, query);
+            case SURRENDER -> call(Endpoint.SURRENDER, query);
+        };
+    }
+
+    private static Decision decide(JsonNode hand, String upcard, boolean canDouble, boolean canSplit,
+                                   boolean canSurrender) {
+        JsonNode cards = hand.path("cards");
+        int hard = 0;
+        boolean hasAce = false;
+        for (JsonNode card : cards) {
+            Rank rank = rank(card.asText());
+            hasAce |= rank == Rank.ACE;
+            hard += rank == Rank.ACE ? 1 : rank.getValue();
+        }
+        boolean soft = hasAce && hard + 10 <= 21;
+        Rank pairRank = null;
+        if (cards.size() == 2 && rank(cards.get(0).asText()) == rank(cards.get(1).asText())) {
+            pairRank = rank(cards.get(0).asText());
+        }
+        int total = soft ? hard + 10 : hard;
+        if (canSurrender && BasicStrategyPolicy.INSTANCE.surrender(total, soft, rank(upcard))) {
+            return Decision.SURRENDER;
+        }
+        return BasicStrategyPolicy.INSTANCE.decide(total, soft, pairRank, rank(upcard), canDouble, canSplit);
+    }
+
+    // Mã lá bài của API: ký tự rank + ký tự chất, ví dụ "TH"
+    private static Rank rank(String code) {
+        return RANKS[RANK_CHARS.indexOf(code.charAt(0))];
+    }
+
+    private static boolean has(JsonNode actions, String action) {
+        for (JsonNode node : actions) {
+            if (action.equals(node.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Gọi endpoint; null nếu lỗi (đã được đếm), khi đó vòng lặp tải lại trạng thái
+    private JsonNode call(Endpoint endpoint, String query) throws InterruptedException {
+        URI uri = URI.create(baseUrl + endpoint.path + (query.isEmpty() ? "" : "?" + query));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .method(endpoint.method, HttpRequest.BodyPublishers.noBody());
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", String.join("; ", cookies.values()));
+        }
+        if (stateToken != null) {
+            request.header(STATE_HEADER, stateToken);
+        }
+
+        EndpointStats endpointStats = stats.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            endpointStats.record(System.nanoTime() - start);
+            remember(response);
+            if (response.statusCode() != 200) {
+                endpointStats.error();
+                if (response.statusCode() == 429) {
+                    backoffMillis = retryAfterMillis(response);
+                }
+                return null;
+            }
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            endpointStats.error();
+            return null;
+        }
+    }
+
+    private void backOff() throws InterruptedException {
+        Thread.sleep(backoffMillis);
+        backoffMillis = ERROR_BACKOFF_MILLIS;
+    }
+
+    // Retry-After dạng số giây (dạng ngày giờ HTTP server không dùng); thiếu thì chờ 1 giây
+    private static long retryAfterMillis(HttpResponse<?> response) {
+        try {
+            return Math.max(Long.parseLong(response.headers().firstValue("Retry-After").orElse("1")), 0) * 1000;
+        } catch (NumberFormatException e) {
+            return 1000;
+        }
+    }
+
+    private void remember(HttpResponse<?> response) {
+        for (String setCookie : response.headers().allValues("Set-Cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            cookies.put(pair.substring(0, Math.max(pair.indexOf('='), 0)), pair);
+        }
+        response.headers().firstValue(STATE_HEADER).ifPresent(token -> stateToken = token);
+    }
+}
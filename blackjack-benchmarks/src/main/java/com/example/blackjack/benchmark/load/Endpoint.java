@@ -0,0 +1,23 @@
+package com.example.blackjack.benchmark.load;
+
+/**
+ * Các endpoint của game API mà bot gọi; mỗi endpoint có histogram độ trễ riêng trong báo cáo.
+ */
+enum Endpoint {
+    STATE("GET", "/state"),
+    BET("POST", "/bet"),
+    INSURANCE("POST", "/insurance"),
+    HIT("POST", "/hit"),
+    STAND("POST", "/stand"),
+    DOUBLE("POST", "/double"),
+    SPLIT("POST", "/split"),
+    SURRENDER("POST", "/surrender");
+
+    final String method;
+    final String path;
+
+    Endpoint(String method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+}
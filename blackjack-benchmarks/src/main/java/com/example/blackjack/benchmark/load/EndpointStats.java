@@ -0,0 +1,31 @@
+package com.example.blackjack.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Độ trễ (ns) và số lỗi của một endpoint. Ghi từ mọi client không cần khóa ({@link Recorder});
+ * {@link #interval()} lấy số liệu từ lần gọi trước rồi bắt đầu khoảng mới, dùng để bỏ phần khởi động.
+ */
+final class EndpointStats {
+
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos) {
+        latency.recordValue(nanos);
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    Interval interval() {
+        return new Interval(latency.getIntervalHistogram(), errors.sumThenReset());
+    }
+
+    record Interval(Histogram latency, long errors) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.blackjack.benchmark.load;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.HdrHistogram.Histogram;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Theo dõi heap và các lần dừng GC của JVM đang chạy load test (gồm cả server khi chạy chung tiến trình).
+ * Thời gian dừng lấy từ notification của từng collector; các collector chạy song song với ứng dụng
+ * (tên chứa "Concurrent" hoặc "Cycles", ví dụ chu kỳ của G1/ZGC) không được tính là dừng.
+ */
+final class GcMonitor implements AutoCloseable {
+
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::onGc;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "load-test-heap-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Thời gian dừng (micro giây)
+    private Histogram pauses = new Histogram(3);
+    private final AtomicLong peakHeapUsed = new AtomicLong();
+
+    GcMonitor() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter && !gc.getName().contains("Concurrent")
+                    && !gc.getName().contains("Cycles")) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        sampler.scheduleAtFixedRate(() -> peakHeapUsed.accumulateAndGet(heapUsed(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void onGc(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            pauses.recordValue(Math.max(info.getGcInfo().getDuration(), 0) * 1000);
+        }
+    }
+
+    // Số liệu từ lần gọi trước (hoặc từ lúc tạo) đến giờ, rồi bắt đầu khoảng mới
+    synchronized Snapshot interval() {
+        Histogram interval = pauses;
+        pauses = new Histogram(3);
+        long heapUsed = heapUsed();
+        return new Snapshot(interval, peakHeapUsed.getAndSet(heapUsed), heapUsed, liveHeapAfterGc(),
+                Runtime.getRuntime().maxMemory());
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Tổng dung lượng còn dùng của các vùng heap ngay sau lần GC gần nhất: gần đúng lượng dữ liệu thật sự còn sống
+    private static long liveHeapAfterGc() {
+        long live = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                live += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (javax.management.ListenerNotFoundException ignored) {
+                // đã gỡ
+            }
+        }
+    }
+
+    /** @param pauses thời gian dừng GC tính bằng micro giây */
+    record Snapshot(Histogram pauses, long peakHeapUsed, long heapUsed, long liveHeapAfterGc, long maxHeap) {
+    }
+}
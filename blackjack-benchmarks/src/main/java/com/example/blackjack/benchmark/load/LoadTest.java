@@ -0,0 +1,234 @@
+package com.example.blackjack.benchmark.load;
+
+import com.example.blackjack.BlackjackApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test cho game API: khởi động server trên cổng ngẫu nhiên (hoặc dùng {@code --url} có sẵn),
+ * chạy {@code --clients} người chơi ảo, mỗi người một virtual thread ({@link BotClient}), rồi in throughput,
+ * độ trễ p50/p99/p999 theo endpoint, heap và thời gian dừng GC của khoảng đo (sau {@code --warmup}).
+ * <p>
+ * Các ngưỡng {@code --max-p99}, {@code --max-p999} (ms), {@code --min-throughput} (request/s) và
+ * {@code --max-error-rate} biến nó thành cổng chặn hồi quy hiệu năng: vượt ngưỡng thì thoát với mã 2.
+ * Tham số {@code --...} khác được chuyển cho Spring Boot, ví dụ {@code --blackjack.state.mode=token}.
+ * Server chạy chung tiến trình tắt kiểm soát tải ({@code blackjack.admission.enabled=false}) để đo năng lực của
+ * server thay vì số request bị từ chối; truyền {@code --blackjack.admission.enabled=true} để thử cả kiểm soát tải.
+ * <pre>
+ * mvn -B package -pl blackjack-benchmarks -am -DskipTests
+ * java -cp blackjack-benchmarks/target/benchmarks.jar com.example.blackjack.benchmark.load.LoadTest \
+ *      --clients=10000 --warmup=30s --duration=2m --max-p99=50
+ * </pre>
+ * Khi server chạy chung tiến trình, số liệu heap/GC gồm cả phần của các client; dùng {@code --url} và
+ * {@code /actuator/metrics} của server để tách riêng.
+ */
+public class LoadTest {
+
+    private static final double MB = 1024.0 * 1024.0;
+    private static final Set<String> OPTIONS = Set.of("clients", "duration", "warmup", "think", "bet", "url",
+            "max-p99", "max-p999", "min-throughput", "max-error-rate");
+
+    private final Map<String, String> options;
+    private final List<String> springArgs;
+
+    private LoadTest(Map<String, String> options, List<String> springArgs) {
+        this.options = options;
+        this.springArgs = springArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") ? arg.substring(2, equals < 0 ? arg.length() : equals) : "";
+            if (OPTIONS.contains(name)) {
+                options.put(name, equals < 0 ? "" : arg.substring(equals + 1));
+            } else if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        System.exit(new LoadTest(options, springArgs).run(System.out) ? 0 : 2);
+    }
+
+    // true nếu đạt mọi ngưỡng đã đặt
+    boolean run(PrintStream out) throws Exception {
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        Duration warmup = duration("warmup", "10s");
+        Duration measured = duration("duration", "60s");
+        long thinkMillis = duration("think", "0ms").toMillis();
+        double bet = Double.parseDouble(options.getOrDefault("bet", "10"));
+
+        ConfigurableApplicationContext server = null;
+        String url = options.get("url");
+        if (url == null) {
+            server = startServer();
+            url = "http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort();
+        }
+        String baseUrl = url + "/api/game";
+
+        EnumMap<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        LongAdder rounds = new LongAdder();
+        ObjectMapper mapper = new ObjectMapper();
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(threads)
+                .build();
+
+        out.printf("Load test: %d clients against %s, warmup %s, measuring %s%n", clients, url, warmup, measured);
+        long deadline = System.nanoTime() + warmup.plus(measured).toNanos();
+        try (GcMonitor gc = new GcMonitor()) {
+            // Các client bắt đầu rải đều trong thời gian khởi động để không mở mọi kết nối cùng lúc
+            long rampNanos = warmup.toNanos();
+            for (int i = 0; i < clients; i++) {
+                long delayNanos = rampNanos * i / clients;
+                BotClient bot = new BotClient(http, baseUrl, mapper, stats, rounds, bet, thinkMillis);
+                threads.execute(() -> {
+                    try {
+                        Thread.sleep(Duration.ofNanos(delayNanos));
+                        bot.play(() -> System.nanoTime() < deadline);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            Thread.sleep(warmup);
+            for (EndpointStats endpointStats : stats.values()) {
+                endpointStats.interval();
+            }
+            rounds.reset();
+            gc.interval();
+            long start = System.nanoTime();
+
+            Thread.sleep(measured);
+            long elapsed = System.nanoTime() - start;
+            EnumMap<Endpoint, EndpointStats.Interval> results = new EnumMap<>(Endpoint.class);
+            stats.forEach((endpoint, endpointStats) -> results.put(endpoint, endpointStats.interval()));
+            long roundCount = rounds.sumThenReset();
+            GcMonitor.Snapshot memory = gc.interval();
+
+            threads.shutdown();
+            return report(out, results, roundCount, memory, elapsed / 1e9);
+        } finally {
+            threads.shutdownNow();
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startServer() throws IOException {
+        // Cổng ngẫu nhiên; nhật ký ván bài và phiên bị ghi ra đĩa nằm trong thư mục tạm, không lẫn với dữ liệu thật.
+        // Truyền như tham số dòng lệnh để ghi đè application.properties, trừ khi đã được chỉ định
+        Path data = Files.createTempDirectory("blackjack-load");
+        List<String> args = new ArrayList<>(springArgs);
+        defaultArg(args, "server.port", "0");
+        defaultArg(args, "blackjack.journal.dir", data.resolve("journal").toString());
+        defaultArg(args, "blackjack.session.store.spill-dir", data.resolve("sessions").toString());
+        // Đo độ trễ khi quá tải, không phải số request bị kiểm soát tải từ chối (xem tài liệu lớp)
+        defaultArg(args, "blackjack.admission.enabled", "false");
+        return new SpringApplicationBuilder(BlackjackApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void defaultArg(List<String> args, String property, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + property + "="))) {
+            args.add("--" + property + "=" + value);
+        }
+    }
+
+    private boolean report(PrintStream out, EnumMap<Endpoint, EndpointStats.Interval> results, long rounds,
+                           GcMonitor.Snapshot memory, double seconds) {
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        out.printf("%n%-10s %10s %10s %9s %9s %9s %9s %8s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms",
+                "p999 ms", "max ms", "errors");
+        for (Map.Entry<Endpoint, EndpointStats.Interval> entry : results.entrySet()) {
+            Histogram latency = entry.getValue().latency();
+            all.add(latency);
+            errors += entry.getValue().errors();
+            printRow(out, entry.getKey().path, latency, entry.getValue().errors(), seconds);
+        }
+        printRow(out, "all", all, errors, seconds);
+
+        Histogram pauses = memory.pauses();
+        out.printf("%nrounds: %d (%.0f/s)%n", rounds, rounds / seconds);
+        out.printf("heap: peak %.0f MB, live after GC %.0f MB, max %.0f MB%n",
+                memory.peakHeapUsed() / MB, memory.liveHeapAfterGc() / MB, memory.maxHeap() / MB);
+        out.printf("GC pauses: %d, total %.1f ms (%.2f%% of time), p99 %.1f ms, max %.1f ms%n",
+                pauses.getTotalCount(), total(pauses) / 1000.0, total(pauses) / 1e4 / seconds,
+                pauses.getValueAtPercentile(99) / 1000.0, pauses.getMaxValue() / 1000.0);
+
+        List<String> failures = new ArrayList<>();
+        double throughput = all.getTotalCount() / seconds;
+        double errorRate = all.getTotalCount() == 0 ? 1 : (double) errors / all.getTotalCount();
+        check(failures, "max-p99", millis(all.getValueAtPercentile(99)), true);
+        check(failures, "max-p999", millis(all.getValueAtPercentile(99.9)), true);
+        check(failures, "min-throughput", throughput, false);
+        check(failures, "max-error-rate", errorRate, true);
+        if (failures.isEmpty()) {
+            out.println("\nPASS");
+            return true;
+        }
+        out.println("\nFAIL: " + String.join(", ", failures));
+        return false;
+    }
+
+    private void check(List<String> failures, String option, double actual, boolean upperBound) {
+        String limit = options.get(option);
+        if (limit == null) {
+            return;
+        }
+        double threshold = Double.parseDouble(limit);
+        if (upperBound ? actual > threshold : actual < threshold) {
+            failures.add(String.format("%s=%s (actual %.3f)", option, limit, actual));
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latency, long errors, double seconds) {
+        out.printf("%-10s %10d %10.0f %9.2f %9.2f %9.2f %9.2f %8d%n", name, latency.getTotalCount(),
+                latency.getTotalCount() / seconds, millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()), errors);
+    }
+
+    private static double total(Histogram histogram) {
+        return histogram.getMean() * histogram.getTotalCount();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private Duration duration(String option, String defaultValue) {
+        return DurationStyle.detectAndParse(options.getOrDefault(option, defaultValue));
+    }
+}
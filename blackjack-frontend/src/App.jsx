@@ -1,14 +1,18 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import GameBoard from './components/GameBoard';
 import Actions from './components/Actions';
 import * as api from './api/api'; // Chúng ta sẽ tạo file này ngay sau đây
+import { openGameChannel } from './api/gameChannel';
 
 export default function App() {
   const [gameState, setGameState] = useState(null);
   const [loading, setLoading] = useState(true);
+  // Kênh WebSocket; null khi chưa mở
+  const channelRef = useRef(null);
 
-  // Lấy trạng thái game khi component được tải lần đầu
+  // Lấy trạng thái game khi component được tải lần đầu, rồi mở kênh game
   useEffect(() => {
+    let cancelled = false;
     const fetchGameState = async () => {
       try {
         const state = await api.getGameState();
@@ -18,19 +22,46 @@ export default function App() {
       } finally {
         setLoading(false);
       }
+      // Mở kênh sau khi REST đã trả trạng thái (và token), để hai đường không cùng mở game mới
+      if (!cancelled) {
+        const channel = openGameChannel(setGameState, (message) => {
+          console.error("Lỗi từ kênh game:", message);
+          // Hành động bị từ chối: tải lại trạng thái để hiện đúng các nút
+          channel.refresh();
+        });
+        channelRef.current = channel;
+      }
     };
     fetchGameState();
+    return () => {
+      cancelled = true;
+      channelRef.current?.close();
+      channelRef.current = null;
+    };
   }, []);
 
   const handleApiCall = async (apiFunction) => {
     try {
-      const newState = await apiFunction();
+      const update = await apiFunction();
+      const newState = api.applyUpdate(gameState, update) ?? await api.getGameState();
       setGameState(newState);
     } catch (error) {
       console.error("Lỗi khi thực hiện hành động:", error);
+      // Hành động bị từ chối (409) khi không còn hợp lệ: tải lại trạng thái để hiện đúng các nút
+      setGameState(await api.getGameState().catch(() => gameState));
     }
   };
   
+  // Hành động đi qua kênh khi kênh đang mở (trạng thái mới đến qua onState của kênh), ngược lại qua REST
+  const handleAction = (viaChannel, viaRest) => {
+    const channel = channelRef.current;
+    if (channel?.isOpen()) {
+      viaChannel(channel);
+    } else {
+      handleApiCall(viaRest);
+    }
+  };
+
   const getActiveHandIndex = () => {
     if (!gameState || !gameState.playerHands) return -1;
     return gameState.playerHands.findIndex(hand => hand.status === 'PLAYING');
@@ -39,28 +70,37 @@ export default function App() {
   const handleHit = () => {
     const activeIndex = getActiveHandIndex();
     if (activeIndex !== -1) {
-      handleApiCall(() => api.hit(activeIndex));
+      handleAction((channel) => channel.hit(activeIndex), () => api.hit(activeIndex, gameState.version));
     }
   };
 
   const handleStand = () => {
     const activeIndex = getActiveHandIndex();
     if (activeIndex !== -1) {
-      handleApiCall(() => api.stand(activeIndex));
+      handleAction((channel) => channel.stand(activeIndex), () => api.stand(activeIndex, gameState.version));
     }
   };
   
   const handleDouble = () => {
       const activeIndex = getActiveHandIndex();
       if (activeIndex !== -1) {
-          handleApiCall(() => api.doubleDown(activeIndex));
+          handleAction((channel) => channel.doubleDown(activeIndex),
+              () => api.doubleDown(activeIndex, gameState.version));
       }
   };
   
   const handleSplit = () => {
       const activeIndex = getActiveHandIndex();
       if (activeIndex !== -1) {
-          handleApiCall(() => api.split(activeIndex));
+          handleAction((channel) => channel.split(activeIndex), () => api.split(activeIndex, gameState.version));
+      }
+  };
+
+  const handleSurrender = () => {
+      const activeIndex = getActiveHandIndex();
+      if (activeIndex !== -1) {
+          handleAction((channel) => channel.surrender(activeIndex),
+              () => api.surrender(activeIndex, gameState.version));
       }
   };
 
@@ -87,12 +127,14 @@ export default function App() {
         <Actions 
           gameState={gameState} 
           handlers={{
-            handleBet: (amount) => handleApiCall(() => api.placeBet(amount)),
-            handleInsurance: (buy) => handleApiCall(() => api.resolveInsurance(buy)),
+            handleBet: (amount) => handleAction((channel) => channel.placeBet(amount), () => api.placeBet(amount)),
+            handleInsurance: (buy) => handleAction((channel) => channel.resolveInsurance(buy),
+                () => api.resolveInsurance(buy, gameState.version)),
             handleHit: handleHit,
             handleStand: handleStand,
             handleDouble: handleDouble,
-            handleSplit: handleSplit
+            handleSplit: handleSplit,
+            handleSurrender: handleSurrender
           }}
         />
       </div>
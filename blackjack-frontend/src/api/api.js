@@ -1,11 +1,36 @@
 const BASE_URL = 'http://localhost:8081/api/game';
 
+// Khi server chạy ở chế độ blackjack.state.mode=token, game nằm trong token đã ký do client giữ:
+// nhận ở header X-Game-State của mỗi phản hồi và gửi lại ở request sau.
+const STATE_HEADER = 'X-Game-State';
+const STATE_KEY = 'blackjackGameState';
+
+export const getStateToken = () => localStorage.getItem(STATE_KEY);
+
+export function setStateToken(token) {
+  if (token) localStorage.setItem(STATE_KEY, token);
+}
+
+// Mã trạng thái (REST) và mã lỗi (kênh WebSocket) khi server từ chối token trạng thái
+const STATE_TOKEN_REJECTED = 412;
+export const STATE_TOKEN_REJECTED_CODE = 'STATE_TOKEN_REJECTED';
+
+export const clearStateToken = () => localStorage.removeItem(STATE_KEY);
+
 // Hàm helper để xử lý các request
 async function request(endpoint, options = {}) {
+    const token = getStateToken();
     const response = await fetch(`${BASE_URL}${endpoint}`, {
         ...options,
+        headers: token ? { ...options.headers, [STATE_HEADER]: token } : options.headers,
         credentials: 'include' // Gửi cookie session
     });
+    setStateToken(response.headers.get(STATE_HEADER));
+    // Chỉ token bị từ chối (đã cũ hoặc hỏng) mới bị bỏ, request sau server mở lại game từ ví.
+    // Lỗi 400 thông thường (số tiền cược sai) không làm mất game đang chơi.
+    if (response.status === STATE_TOKEN_REJECTED) {
+        clearStateToken();
+    }
     if (!response.ok) {
         throw new Error(`HTTP error! status: ${response.status}`);
     }
@@ -19,28 +44,73 @@ export const placeBet = (amount) => {
   return request(`/bet?${params}`, { method: 'POST' });
 };
 
-export const resolveInsurance = (buy) => {
-  const params = new URLSearchParams({ buy });
+// Các hành động trong ván gửi kèm phiên bản client đang có (since);
+// server trả về bản vá nếu khớp phiên bản, ngược lại trả về toàn bộ trạng thái.
+export const resolveInsurance = (buy, since) => {
+  const params = actionParams({ buy }, since);
   return request(`/insurance?${params}`, { method: 'POST' });
 };
 
 // Các hàm hành động cần handIndex
-export const hit = (handIndex) => {
-    const params = new URLSearchParams({ handIndex });
+export const hit = (handIndex, since) => {
+    const params = actionParams({ handIndex }, since);
     return request(`/hit?${params}`, { method: 'POST' });
 };
 
-export const stand = (handIndex) => {
-    const params = new URLSearchParams({ handIndex });
+export const stand = (handIndex, since) => {
+    const params = actionParams({ handIndex }, since);
     return request(`/stand?${params}`, { method: 'POST' });
 };
 
-export const doubleDown = (handIndex) => {
-    const params = new URLSearchParams({ handIndex });
+export const doubleDown = (handIndex, since) => {
+    const params = actionParams({ handIndex }, since);
     return request(`/double?${params}`, { method: 'POST' });
 };
 
-export const split = (handIndex) => {
-    const params = new URLSearchParams({ handIndex });
+export const split = (handIndex, since) => {
+    const params = actionParams({ handIndex }, since);
     return request(`/split?${params}`, { method: 'POST' });
-};
\ No newline at end of file
+};
+
+export const surrender = (handIndex, since) => {
+    const params = actionParams({ handIndex }, since);
+    return request(`/surrender?${params}`, { method: 'POST' });
+};
+
+function actionParams(params, since) {
+  return new URLSearchParams(since === undefined ? params : { ...params, since });
+}
+
+// Áp dụng phản hồi của server: bản vá (có baseVersion) hoặc toàn bộ trạng thái.
+// Trả về null nếu bản vá không khớp phiên bản hiện tại (khi đó cần tải lại toàn bộ trạng thái).
+export function applyUpdate(state, update) {
+  if (!update) return state;
+  if (update.baseVersion === undefined) return update;
+  if (!state || state.version !== update.baseVersion) return null;
+
+  const playerHands = state.playerHands.slice(0, update.handCount);
+  for (const patch of update.playerHands) {
+    playerHands[patch.index] = applyHandPatch(playerHands[patch.index], patch);
+  }
+
+  return {
+    ...state,
+    version: update.version,
+    playerHands,
+    dealerHand: update.dealerHand ? applyHandPatch(state.dealerHand, update.dealerHand) : state.dealerHand,
+    playerBalance: state.playerBalance + update.balanceDelta,
+    gameMessage: update.gameMessage ?? state.gameMessage,
+    roundOver: update.roundOver,
+    availableActions: update.availableActions,
+  };
+}
+
+function applyHandPatch(hand, patch) {
+  const oldCards = hand ? hand.cards.slice(0, patch.from) : [];
+  return {
+    cards: [...oldCards, ...patch.cards],
+    handValue: patch.handValue ?? null,
+    betAmount: patch.betAmount,
+    status: patch.status,
+  };
+}
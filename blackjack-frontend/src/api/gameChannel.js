@@ -0,0 +1,63 @@
+import { applyUpdate, clearStateToken, getStateToken, setStateToken, STATE_TOKEN_REJECTED_CODE } from './api';
+
+const WS_URL = 'ws://localhost:8081/api/game/ws';
+
+// Kênh game qua WebSocket: gửi nhiều hành động liên tiếp không cần chờ phản hồi,
+// server xử lý theo đúng thứ tự và đẩy về trạng thái (hoặc bản vá) sau mỗi hành động.
+// Dùng chung phiên (cookie) hoặc token trạng thái (tham số state, trường state của sự kiện) với REST API.
+// Khi kênh chưa mở hoặc đã đóng (isOpen() là false), App gửi hành động qua REST.
+export function openGameChannel(onState, onError = console.error) {
+  const token = getStateToken();
+  const socket = new WebSocket(token ? `${WS_URL}?state=${encodeURIComponent(token)}` : WS_URL);
+  let state = null;
+  let seq = 0;
+  const queue = [];
+
+  socket.onopen = () => {
+    queue.splice(0).forEach((message) => socket.send(message));
+  };
+
+  socket.onmessage = (message) => {
+    const event = JSON.parse(message.data);
+    setStateToken(event.state);
+    // Token bị từ chối: server đóng kênh, App chuyển sang REST và mở lại game từ ví
+    if (event.code === STATE_TOKEN_REJECTED_CODE) {
+      clearStateToken();
+    }
+    if (event.error) {
+      onError(event.error);
+      return;
+    }
+    const next = applyUpdate(state, event.update);
+    if (next === null) {
+      send('STATE');
+      return;
+    }
+    state = next;
+    onState(state, event.seq);
+  };
+
+  const send = (action, params = {}) => {
+    seq += 1;
+    const message = JSON.stringify({ seq, action, ...params });
+    if (socket.readyState === WebSocket.OPEN) {
+      socket.send(message);
+    } else {
+      queue.push(message);
+    }
+    return seq;
+  };
+
+  return {
+    isOpen: () => socket.readyState === WebSocket.OPEN,
+    refresh: () => send('STATE'),
+    placeBet: (amount) => send('BET', { amount }),
+    resolveInsurance: (buy) => send('INSURANCE', { buy }),
+    hit: (handIndex) => send('HIT', { handIndex }),
+    stand: (handIndex) => send('STAND', { handIndex }),
+    doubleDown: (handIndex) => send('DOUBLE_DOWN', { handIndex }),
+    split: (handIndex) => send('SPLIT', { handIndex }),
+    surrender: (handIndex) => send('SURRENDER', { handIndex }),
+    close: () => socket.close(),
+  };
+}
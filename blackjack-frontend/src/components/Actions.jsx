@@ -44,6 +44,7 @@ const Actions = ({ gameState, handlers }) => {
       {availableActions.includes('STAND') && <ActionButton onClick={handlers.handleStand}>Dừng (Stand)</ActionButton>}
       {availableActions.includes('DOUBLE_DOWN') && <ActionButton onClick={handlers.handleDouble}>Cược Gấp Đôi</ActionButton>}
       {availableActions.includes('SPLIT') && <ActionButton onClick={handlers.handleSplit}>Tách Bài</ActionButton>}
+      {availableActions.includes('SURRENDER') && <ActionButton onClick={handlers.handleSurrender}>Đầu Hàng</ActionButton>}
     </div>
   );
 };
@@ -1,3 +1,7 @@
+// Mã lá bài từ server: rank + chất, ví dụ "AS", "TH" (T là 10)
+const RANK_DISPLAY = { T: '10' };
+const SUIT_ICONS = { H: '♥', D: '♦', C: '♣', S: '♠' };
+
 const Card = ({ card, isNew = false }) => {
 
   const animationClass = isNew ? 'animate-deal-in' : '';
@@ -10,16 +14,19 @@ const Card = ({ card, isNew = false }) => {
     );
   }
 
-  const { suit, rank } = card;
-  const isRed = suit.icon === '♥' || suit.icon === '♦';
+  const rankCode = card.slice(0, -1);
+  const suitCode = card.slice(-1);
+  const rank = RANK_DISPLAY[rankCode] || rankCode;
+  const icon = SUIT_ICONS[suitCode];
+  const isRed = suitCode === 'H' || suitCode === 'D';
   const colorClass = isRed ? 'text-red-600' : 'text-black';
 
   return (
     <div className={`w-24 h-32 bg-white rounded-lg border-2 border-gray-400 shadow-lg p-2 flex flex-col justify-between transition-transform duration-300 ${animationClass}`}>
-      <span className={`text-3xl font-bold ${colorClass}`}>{rank.display}</span>
-      <span className={`text-4xl self-center ${colorClass}`}>{suit.icon}</span>
+      <span className={`text-3xl font-bold ${colorClass}`}>{rank}</span>
+      <span className={`text-4xl self-center ${colorClass}`}>{icon}</span>
     </div>
   );
 };
 
-export default Card;
\ No newline at end of file
+export default Card;
@@ -45,14 +45,15 @@ const GameBoard = ({ gameState }) => {
       let currentState = JSON.parse(JSON.stringify(displayedState));
       let sequenceDelay = 0;
 
-      // Lật bài của nhà cái
+      // Lật bài của nhà cái (server chỉ gửi lá úp khi ván đã kết thúc)
+      const initialDealerCards = displayedState.dealerHand.cards.length;
       setTimeout(() => {
         currentState.playerHands = gameState.playerHands;
+        currentState.dealerHand.cards = gameState.dealerHand.cards.slice(0, initialDealerCards);
         setDisplayedState(JSON.parse(JSON.stringify(currentState)));
       }, sequenceDelay);
 
       // Nhà cái rút thêm bài...
-      const initialDealerCards = displayedState.dealerHand.cards.length;
       for (
         let i = initialDealerCards;
         i < gameState.dealerHand.cards.length;